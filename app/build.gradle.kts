@@ -16,6 +16,9 @@ android {
         versionName = "1.0"
 
         testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+
+        // Ask the API for CBOR instead of JSON (opt-in, JSON stays the fallback)
+        buildConfigField("boolean", "CBOR_RESPONSES", "false")
     }
 
     buildTypes {
@@ -34,6 +37,7 @@ android {
 
     buildFeatures {
         viewBinding = true
+        buildConfig = true
     }
 }
 
@@ -50,9 +54,17 @@ dependencies {
     implementation("com.squareup.retrofit2:retrofit:2.9.0")
     implementation("com.squareup.retrofit2:converter-gson:2.9.0")
 
+    // OkHttp - shared HTTP client (connection pool, HTTP/2, brotli decoding)
+    implementation("com.squareup.okhttp3:okhttp:4.12.0")
+    implementation("com.squareup.okhttp3:okhttp-brotli:4.12.0")
+
     // Gson for JSON parsing
     implementation("com.google.code.gson:gson:2.10.1")
 
+    // Room - local catalogue and rental store
+    implementation("androidx.room:room-runtime:2.6.1")
+    annotationProcessor("androidx.room:room-compiler:2.6.1")
+
     // RecyclerView
     implementation("androidx.recyclerview:recyclerview:1.3.2")
 
@@ -0,0 +1,29 @@
+package com.example.frontend;
+
+import android.app.Application;
+
+import com.example.frontend.api.ApiClient;
+import com.example.frontend.data.RentalMutations;
+import com.example.frontend.data.RentalOutbox;
+
+/**
+ * CaftanApplication - Process-wide setup
+ * Runs once before any activity is created
+ */
+public class CaftanApplication extends Application {
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+
+        // Give the API client access to the cache directory
+        ApiClient.init(this);
+
+        // Compact CBOR responses only when the build opts in, JSON otherwise
+        ApiClient.setBinaryFormatEnabled(BuildConfig.CBOR_RESPONSES);
+
+        // Restore rentals queued offline, then replay them when the network is up
+        RentalMutations.getInstance(this);
+        RentalOutbox.getInstance(this).start();
+    }
+}
@@ -12,9 +12,14 @@ import androidx.appcompat.app.AppCompatActivity;
 
 import com.bumptech.glide.Glide;
 import com.example.frontend.api.ApiClient;
-import com.example.frontend.api.ApiService;
+import com.example.frontend.data.AvailabilityCalendar;
+import com.example.frontend.data.CaftanHandoff;
+import com.example.frontend.images.ImageRequests;
+import com.example.frontend.models.AvailabilityResponse;
 import com.example.frontend.models.Caftan;
-import com.example.frontend.models.SingleCaftanResponse;
+import com.example.frontend.utils.DateFormats;
+
+import java.util.Objects;
 
 import retrofit2.Call;
 import retrofit2.Callback;
@@ -35,10 +40,12 @@ public class DetailsActivity extends AppCompatActivity {
     private TextView tvCaftanName;
     private TextView tvCaftanSize;
     private TextView tvCaftanPrice;
+    private TextView tvAvailability;
     private Button btnRentNow;
 
-    // API Service
-    private ApiService apiService;
+    // Caftan handed over by the list, and the revalidation it may have started
+    private final CaftanHandoff handoff = CaftanHandoff.getInstance();
+    private CaftanHandoff.Listener handoffListener;
 
     // Current caftan
     private Caftan currentCaftan;
@@ -55,9 +62,6 @@ public class DetailsActivity extends AppCompatActivity {
             getSupportActionBar().setDisplayHomeAsUpEnabled(true);
         }
 
-        // Initialize API service
-        apiService = ApiClient.getApiService();
-
         // Initialize views
         initViews();
 
@@ -65,8 +69,9 @@ public class DetailsActivity extends AppCompatActivity {
         int caftanId = getIntent().getIntExtra("caftan_id", -1);
 
         if (caftanId != -1) {
-            // Load caftan details
+            // Load caftan details and its booked days
             loadCaftanDetails(caftanId);
+            loadAvailability(caftanId);
         } else {
             Toast.makeText(this, "Invalid caftan ID", Toast.LENGTH_SHORT).show();
             finish();
@@ -84,49 +89,101 @@ public class DetailsActivity extends AppCompatActivity {
         tvCaftanName = findViewById(R.id.tvCaftanName);
         tvCaftanSize = findViewById(R.id.tvCaftanSize);
         tvCaftanPrice = findViewById(R.id.tvCaftanPrice);
+        tvAvailability = findViewById(R.id.tvAvailability);
         btnRentNow = findViewById(R.id.btnRentNow);
     }
 
     /**
-     * Load caftan details from API
+     * Load caftan details
+     * Renders the caftan handed over by the list right away, then joins the
+     * revalidation started on tap (GET /caftans/{id}), or skips it if fresh
      * @param id - Caftan ID
      */
     private void loadCaftanDetails(int id) {
-        // Make API call
-        Call<SingleCaftanResponse> call = apiService.getCaftan(id);
+        Caftan known = handoff.peek(id);
+        if (known != null) {
+            currentCaftan = known;
+            displayCaftanDetails(known);
+        }
+
+        handoffListener = new CaftanHandoff.Listener() {
+            @Override
+            public void onCaftan(Caftan caftan) {
+                // Re-render only if the server copy differs from what is shown
+                boolean changed = currentCaftan == null
+                        || !Objects.equals(currentCaftan.getUpdatedAt(), caftan.getUpdatedAt());
+                currentCaftan = caftan;
+                if (changed) {
+                    displayCaftanDetails(caftan);
+                }
+
+                Log.d(TAG, "Loaded caftan: " + caftan.getName());
+            }
+
+            @Override
+            public void onError(String message, Throwable t) {
+                // The handed-over copy stays on screen, only complain if there is nothing to show
+                if (currentCaftan == null) {
+                    showError(message);
+                }
+                Log.e(TAG, "Caftan revalidation failed: " + message, t);
+            }
+        };
+        handoff.get(id, handoffListener);
+    }
 
-        call.enqueue(new Callback<SingleCaftanResponse>() {
+    /**
+     * Load the booked days of the next months
+     * GET /caftans/{id}/availability answers with one bit per day
+     * @param id - Caftan ID
+     */
+    private void loadAvailability(int id) {
+        int today = DateFormats.today();
+        ApiClient.getApiService().getAvailability(id, DateFormats.formatIso(today),
+                DateFormats.formatIso(today + AvailabilityCalendar.WINDOW_DAYS - 1))
+                .enqueue(new Callback<AvailabilityResponse>() {
             @Override
-            public void onResponse(Call<SingleCaftanResponse> call, Response<SingleCaftanResponse> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    SingleCaftanResponse caftanResponse = response.body();
-
-                    if (caftanResponse.isSuccess() && caftanResponse.getData() != null) {
-                        // Get caftan data
-                        currentCaftan = caftanResponse.getData();
-
-                        // Display caftan details
-                        displayCaftanDetails(currentCaftan);
-
-                        Log.d(TAG, "Loaded caftan: " + currentCaftan.getName());
-                    } else {
-                        showError("Failed to load caftan details");
-                        Log.e(TAG, "API error: " + caftanResponse.getMessage());
-                    }
+            public void onResponse(Call<AvailabilityResponse> call, Response<AvailabilityResponse> response) {
+                AvailabilityCalendar calendar = response.isSuccessful() && response.body() != null
+                        ? AvailabilityCalendar.decode(response.body().getData())
+                        : null;
+                if (calendar != null) {
+                    displayAvailability(calendar);
                 } else {
-                    showError("Failed to load data");
-                    Log.e(TAG, "Response not successful: " + response.code());
+                    tvAvailability.setText("Unknown");
+                    Log.e(TAG, "Availability not loaded: " + response.code());
                 }
             }
 
             @Override
-            public void onFailure(Call<SingleCaftanResponse> call, Throwable t) {
-                showError("Network error. Please check your connection.");
-                Log.e(TAG, "API call failed: " + t.getMessage(), t);
+            public void onFailure(Call<AvailabilityResponse> call, Throwable t) {
+                tvAvailability.setText("Unknown");
+                Log.e(TAG, "Availability call failed: " + t.getMessage(), t);
             }
         });
     }
 
+    /**
+     * Summarize the calendar: free or booked today, and until when
+     * @param calendar - Booked days from today on
+     */
+    private void displayAvailability(AvailabilityCalendar calendar) {
+        int today = DateFormats.today();
+        int windowEnd = calendar.getEndDay();
+
+        if (calendar.isBooked(today)) {
+            int free = calendar.nextFreeDay(today);
+            tvAvailability.setText(free < windowEnd
+                    ? "Booked, free from " + DateFormats.formatDisplay(free)
+                    : "Booked for the next " + (windowEnd - today) + " days");
+        } else {
+            int booked = calendar.nextBookedDay(today);
+            tvAvailability.setText(booked < windowEnd
+                    ? "Free until " + DateFormats.formatDisplay(booked)
+                    : "Free for the next " + (windowEnd - today) + " days");
+        }
+    }
+
     /**
      * Display caftan details in UI
      * @param caftan - Caftan object
@@ -141,11 +198,9 @@ public class DetailsActivity extends AppCompatActivity {
         btnRentNow.setEnabled(true);
 
         // Load image with Glide
+        // The list thumbnail is already in memory and is shown until the full image is ready
         if (caftan.getImageUrl() != null && !caftan.getImageUrl().isEmpty()) {
-            Glide.with(this)
-                    .load(caftan.getImageUrl())
-                    .placeholder(R.drawable.ic_launcher_background)
-                    .error(R.drawable.ic_launcher_background)
+            ImageRequests.detailImage(this, Glide.with(this), caftan)
                     .into(ivCaftanImage);
 
             Log.d(TAG, "Loading image from: " + caftan.getImageUrl());
@@ -176,6 +231,14 @@ public class DetailsActivity extends AppCompatActivity {
         Toast.makeText(this, message, Toast.LENGTH_LONG).show();
     }
 
+    @Override
+    protected void onDestroy() {
+        if (handoffListener != null) {
+            handoff.removeListener(handoffListener);
+        }
+        super.onDestroy();
+    }
+
     @Override
     public boolean onSupportNavigateUp() {
         // Handle back button press
@@ -7,21 +7,29 @@ import android.view.Menu;
 import android.view.MenuItem;
 import android.widget.Toast;
 
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.bumptech.glide.Glide;
 import com.example.frontend.adapters.CaftanAdapter;
 import com.example.frontend.api.ApiClient;
 import com.example.frontend.api.ApiService;
+import com.example.frontend.data.CaftanHandoff;
+import com.example.frontend.data.CatalogueQueryEngine;
+import com.example.frontend.data.CursorPager;
+import com.example.frontend.data.LocalStore;
+import com.example.frontend.images.ScrollImagePreloader;
 import com.example.frontend.models.Caftan;
+import com.example.frontend.models.CaftanDeltaResponse;
 import com.example.frontend.models.CaftanResponse;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import retrofit2.Call;
 import retrofit2.Callback;
@@ -30,8 +38,14 @@ import retrofit2.Response;
 /**
  * MainActivity - Home Screen
  * Displays a list of all caftans (available and rented)
- * Fetches data from API and shows in RecyclerView
- * Supports price sorting and size filtering
+ * Renders the locally stored catalogue first, then refreshes it from the API
+ * page by page: the next page is requested as the list is scrolled, so the
+ * network cost follows what the user looks at; once every page has been seen,
+ * refreshes only download the changes since the last sync
+ * The list shows a window of the store (PAGE_SIZE rows, grown while scrolling),
+ * so memory stays flat whatever the size of the catalogue
+ * Supports price sorting and size filtering (indexed queries on the local store,
+ * run by CatalogueQueryEngine)
  */
 public class MainActivity extends AppCompatActivity {
 
@@ -45,8 +59,31 @@ public class MainActivity extends AppCompatActivity {
     // API Service
     private ApiService apiService;
 
+    // Local catalogue store
+    private LocalStore localStore;
+
+    // Pages of GET /caftans, loaded while scrolling; the displayed window grows by the same step
+    private static final int PAGE_SIZE = 20;
+    private static final int PREFETCH_DISTANCE = 5;
+    private CursorPager<Caftan> caftanPager;
+
+    // Rows of the store currently shown, and how many match the filter
+    private int windowSize = PAGE_SIZE;
+    private int matchingCount = 0;
+
+    // Rows whose images are loaded ahead of the scroll (also the concurrent preload budget)
+    private static final int IMAGE_PRELOAD_ROWS = 6;
+
+    // IDs seen during the current page walk (used to detect deletions)
+    private final Set<Integer> seenCaftanIds = new HashSet<>();
+
+    // Server time of the first page of the current walk (next delta baseline)
+    private String walkServerTime = null;
+
+    // Filter / sort queries over the local store
+    private CatalogueQueryEngine queryEngine;
+
     // Data storage
-    private List<Caftan> allCaftans = new ArrayList<>();
     private List<Caftan> filteredCaftans = new ArrayList<>();
 
     // Filter and sort state
@@ -62,11 +99,14 @@ public class MainActivity extends AppCompatActivity {
         com.google.android.material.appbar.MaterialToolbar toolbar = findViewById(R.id.toolbar);
         setSupportActionBar(toolbar);
 
-        // Initialize API service
+        // Initialize API service and local store
         apiService = ApiClient.getApiService();
+        localStore = LocalStore.getInstance(this);
+        queryEngine = new CatalogueQueryEngine(this);
 
-        // Initialize RecyclerView
+        // Initialize RecyclerView and its page loader
         setupRecyclerView();
+        setupPager();
 
         // Setup FAB for My Rentals
         com.google.android.material.floatingactionbutton.FloatingActionButton fabMyRentals = findViewById(R.id.fabMyRentals);
@@ -75,10 +115,21 @@ public class MainActivity extends AppCompatActivity {
             startActivity(intent);
         });
 
-        // Load caftans from API
+        // Show the cached catalogue right away
+        loadCachedCaftans();
+
+        // Then refresh it from the API in the background
         loadCaftans();
     }
 
+    /**
+     * Render the catalogue stored on the device, with the current filter and sort
+     * Does not wait for the network, so content appears immediately on cold start
+     */
+    private void loadCachedCaftans() {
+        applyFiltersAndSort();
+    }
+
     /**
      * Setup RecyclerView with adapter and layout manager
      */
@@ -92,6 +143,33 @@ public class MainActivity extends AppCompatActivity {
         adapter = new CaftanAdapter(this);
         recyclerViewCaftans.setAdapter(adapter);
 
+        // Load the images of the next rows in the scroll direction before they appear
+        recyclerViewCaftans.addOnScrollListener(new ScrollImagePreloader(this, Glide.with(this),
+                new ScrollImagePreloader.ItemSource() {
+                    @Override
+                    public int getItemCount() {
+                        return adapter.getItemCount();
+                    }
+
+                    @Override
+                    public Caftan getCaftanAt(int position) {
+                        return adapter.getItem(position);
+                    }
+                }, IMAGE_PRELOAD_ROWS));
+
+        // Near the end of the window: show more stored rows
+        recyclerViewCaftans.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView rv, int dx, int dy) {
+                if (dy > 0) {
+                    growWindow();
+                }
+            }
+        });
+
+        // Confirmed press on a row: start loading the details screen's data and image
+        adapter.setOnItemPressListener(caftan -> CaftanHandoff.getInstance().prefetch(this, caftan));
+
         // Set item click listener
         adapter.setOnItemClickListener(caftan -> {
             // Open details screen when caftan is clicked
@@ -101,43 +179,129 @@ public class MainActivity extends AppCompatActivity {
         });
     }
 
+    /**
+     * Grow the displayed window once the last rows of the window are visible
+     * and the store has more matching caftans
+     */
+    private void growWindow() {
+        LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerViewCaftans.getLayoutManager();
+        int shown = adapter.getItemCount();
+        if (layoutManager == null || shown < windowSize || windowSize >= matchingCount) {
+            // Window not filled yet (query in flight) or nothing more to show
+            return;
+        }
+        if (layoutManager.findLastVisibleItemPosition() >= shown - PREFETCH_DISTANCE) {
+            windowSize += PAGE_SIZE;
+            queryWindow(false);
+        }
+    }
+
+    /**
+     * Create the pager that walks GET /caftans page by page
+     * Each page is merged into the local store, which feeds the adapter;
+     * the next page is requested when the list is scrolled near its end
+     */
+    private void setupPager() {
+        caftanPager = new CursorPager<>(PAGE_SIZE, PREFETCH_DISTANCE,
+                (cursor, limit, result) -> apiService.getCaftansPage(cursor, limit).enqueue(new Callback<CaftanResponse>() {
+                    @Override
+                    public void onResponse(Call<CaftanResponse> call, Response<CaftanResponse> response) {
+                        if (response.isSuccessful() && response.body() != null) {
+                            // Get the response
+                            CaftanResponse caftanResponse = response.body();
+
+                            if (caftanResponse.isSuccess() && caftanResponse.getData() != null) {
+                                // The first page's server time becomes the delta baseline
+                                if (cursor == null) {
+                                    walkServerTime = caftanResponse.getServerTime();
+                                }
+                                result.onSuccess(caftanResponse.getData(), caftanResponse.getNextCursor());
+                            } else {
+                                // API returned error
+                                result.onError("Failed to load caftans", null);
+                                Log.e(TAG, "API error: " + caftanResponse.getMessage());
+                            }
+                        } else {
+                            // Response not successful
+                            result.onError("Failed to load data", null);
+                            Log.e(TAG, "Response not successful: " + response.code());
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(Call<CaftanResponse> call, Throwable t) {
+                        // Network error or other failure
+                        result.onError("Network error. Please check your connection.", t);
+                    }
+                }),
+                new CursorPager.Listener<Caftan>() {
+                    @Override
+                    public void onPageLoaded(List<Caftan> items, boolean firstPage, boolean lastPage) {
+                        onCaftanPageLoaded(items, firstPage, lastPage);
+                    }
+
+                    @Override
+                    public void onPageError(String message, Throwable t) {
+                        showError(message);
+                        Log.e(TAG, "API call failed: " + message, t);
+                    }
+                });
+        caftanPager.attachTo(recyclerViewCaftans);
+    }
+
     /**
      * Load caftans from API
-     * Makes GET request to /caftans endpoint
+     * Fetches only the changes since the last sync when the store is complete,
+     * otherwise walks GET /caftans from the first page
      */
     private void loadCaftans() {
-        // Make API call
-        Call<CaftanResponse> call = apiService.getCaftans();
+        String since = localStore.getCaftanSyncTime();
+        if (since == null) {
+            caftanPager.refresh();
+        } else {
+            loadCaftanChanges(since);
+        }
+    }
 
-        call.enqueue(new Callback<CaftanResponse>() {
+    /**
+     * Fetch and apply the catalogue delta since the last sync
+     * Makes GET request to /caftans?since={since}
+     * @param since - Server time of the last sync
+     */
+    private void loadCaftanChanges(String since) {
+        Call<CaftanDeltaResponse> call = apiService.getCaftanChanges(since);
+
+        call.enqueue(new Callback<CaftanDeltaResponse>() {
             @Override
-            public void onResponse(Call<CaftanResponse> call, Response<CaftanResponse> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    // Get the response
-                    CaftanResponse caftanResponse = response.body();
-
-                    if (caftanResponse.isSuccess() && caftanResponse.getData() != null) {
-                        // Store the full list
-                        allCaftans = new ArrayList<>(caftanResponse.getData());
-
-                        // Apply current filters and sorting
-                        applyFiltersAndSort();
-
-                        Log.d(TAG, "Loaded " + allCaftans.size() + " caftans");
-                    } else {
-                        // API returned error
-                        showError("Failed to load caftans");
-                        Log.e(TAG, "API error: " + caftanResponse.getMessage());
-                    }
+            public void onResponse(Call<CaftanDeltaResponse> call, Response<CaftanDeltaResponse> response) {
+                CaftanDeltaResponse delta = response.body();
+
+                if (response.isSuccessful() && delta != null && delta.isSuccess()) {
+                    List<Caftan> changed = delta.getData() != null ? delta.getData() : new ArrayList<>();
+                    List<Integer> deleted = delta.getDeleted() != null ? delta.getDeleted() : new ArrayList<>();
+
+                    // Merge into the store, re-render only if something changed;
+                    // the new baseline is saved only once the delta is written
+                    String serverTime = delta.getServerTime();
+                    localStore.applyCaftanDelta(changed, deleted, changeCount -> {
+                        localStore.setCaftanSyncTime(serverTime);
+                        CaftanHandoff.getInstance().markCatalogueSynced();
+                        if (changeCount > 0) {
+                            loadCachedCaftans();
+                        }
+                    });
+
+                    Log.d(TAG, "Delta: " + changed.size() + " changed, " + deleted.size() + " deleted");
                 } else {
-                    // Response not successful
-                    showError("Failed to load data");
-                    Log.e(TAG, "Response not successful: " + response.code());
+                    // Baseline rejected or unusable: fall back to a full page walk
+                    Log.e(TAG, "Delta sync failed: " + response.code() + ", doing a full sync");
+                    localStore.setCaftanSyncTime(null);
+                    caftanPager.refresh();
                 }
             }
 
             @Override
-            public void onFailure(Call<CaftanResponse> call, Throwable t) {
+            public void onFailure(Call<CaftanDeltaResponse> call, Throwable t) {
                 // Network error or other failure
                 showError("Network error. Please check your connection.");
                 Log.e(TAG, "API call failed: " + t.getMessage(), t);
@@ -145,6 +309,45 @@ public class MainActivity extends AppCompatActivity {
         });
     }
 
+    /**
+     * Merge a page of caftans into the local store
+     * The list is re-rendered only when the page changed something
+     */
+    private void onCaftanPageLoaded(List<Caftan> page, boolean firstPage, boolean lastPage) {
+        if (firstPage) {
+            seenCaftanIds.clear();
+        }
+        for (Caftan caftan : page) {
+            seenCaftanIds.add(caftan.getId());
+        }
+
+        // Write only the changed rows, re-render only if something changed
+        localStore.mergeCaftans(page, changeCount -> {
+            if (changeCount > 0) {
+                loadCachedCaftans();
+            }
+        });
+
+        // Every page has been seen: drop caftans deleted on the server,
+        // the store is now complete and later refreshes can use deltas.
+        // The store runs its writes in order, so once the deletions are done
+        // every page is written and the baseline can be saved.
+        if (lastPage) {
+            String serverTime = walkServerTime;
+            localStore.retainCaftans(new HashSet<>(seenCaftanIds), deletedCount -> {
+                localStore.setCaftanSyncTime(serverTime);
+                CaftanHandoff.getInstance().markCatalogueSynced();
+                if (deletedCount > 0) {
+                    loadCachedCaftans();
+                }
+            });
+        }
+
+        Log.d(TAG, "Loaded page of " + page.size() + " caftans");
+        Log.d(TAG, "HTTP cache: " + ApiClient.getCacheStats());
+        Log.d(TAG, "Request coalescing: " + ApiClient.getCoalescingStats());
+    }
+
     /**
      * Show error message to user
      * @param message - Error message
@@ -188,56 +391,41 @@ public class MainActivity extends AppCompatActivity {
 
     /**
      * Apply current filters and sorting to the caftan list
+     * Answered off the main thread by an indexed query on the local store
      */
     private void applyFiltersAndSort() {
-        // Start with all caftans
-        filteredCaftans = new ArrayList<>(allCaftans);
-
-        // Apply size filter
-        if (!currentSizeFilter.equals("All")) {
-            List<Caftan> tempList = new ArrayList<>();
-            for (Caftan caftan : filteredCaftans) {
-                if (caftan.getSize() != null && caftan.getSize().equalsIgnoreCase(currentSizeFilter)) {
-                    tempList.add(caftan);
-                }
-            }
-            filteredCaftans = tempList;
-        }
+        queryWindow(true);
+    }
+
+    /**
+     * Query the first windowSize rows matching the current filter and sort
+     * @param showCount - true to toast the number of matching caftans
+     */
+    private void queryWindow(boolean showCount) {
+        // Size filter (null = all sizes)
+        String size = currentSizeFilter.equals("All") ? null : currentSizeFilter;
 
-        // Apply sorting
+        // Sort order
+        int sortOrder = CatalogueQueryEngine.SORT_NONE;
         if (currentSortOption.equals("Price: Low to High")) {
-            Collections.sort(filteredCaftans, new Comparator<Caftan>() {
-                @Override
-                public int compare(Caftan c1, Caftan c2) {
-                    try {
-                        double price1 = Double.parseDouble(c1.getPrice());
-                        double price2 = Double.parseDouble(c2.getPrice());
-                        return Double.compare(price1, price2);
-                    } catch (NumberFormatException e) {
-                        return 0;
-                    }
-                }
-            });
+            sortOrder = CatalogueQueryEngine.SORT_PRICE_ASC;
         } else if (currentSortOption.equals("Price: High to Low")) {
-            Collections.sort(filteredCaftans, new Comparator<Caftan>() {
-                @Override
-                public int compare(Caftan c1, Caftan c2) {
-                    try {
-                        double price1 = Double.parseDouble(c1.getPrice());
-                        double price2 = Double.parseDouble(c2.getPrice());
-                        return Double.compare(price2, price1);
-                    } catch (NumberFormatException e) {
-                        return 0;
-                    }
-                }
-            });
+            sortOrder = CatalogueQueryEngine.SORT_PRICE_DESC;
         }
 
-        // Update adapter
-        adapter.setCaftanList(filteredCaftans);
+        queryEngine.query(size, sortOrder, windowSize, result -> {
+            filteredCaftans = result.getCaftans();
+            matchingCount = result.getTotal();
+            Log.d(TAG, "Rendered " + filteredCaftans.size() + " of " + matchingCount + " stored caftans");
+
+            // Update adapter
+            adapter.setCaftanList(filteredCaftans);
 
-        // Show result count
-        Toast.makeText(this, "Showing " + filteredCaftans.size() + " caftan(s)", Toast.LENGTH_SHORT).show();
+            // Show result count
+            if (showCount) {
+                Toast.makeText(this, "Showing " + matchingCount + " caftan(s)", Toast.LENGTH_SHORT).show();
+            }
+        });
     }
 
     /**
@@ -250,6 +438,7 @@ public class MainActivity extends AppCompatActivity {
         builder.setTitle("Tri par prix (Sort by Price)");
         builder.setItems(options, (dialog, which) -> {
             currentSortOption = options[which];
+            windowSize = PAGE_SIZE;
             applyFiltersAndSort();
             Toast.makeText(MainActivity.this, "Sorted by: " + currentSortOption, Toast.LENGTH_SHORT).show();
         });
@@ -282,25 +471,28 @@ public class MainActivity extends AppCompatActivity {
      * Show size filter dialog
      */
     private void showSizeFilterDialog() {
-        // Get unique sizes from all caftans
-        List<String> sizes = new ArrayList<>();
-        sizes.add("All");
-        for (Caftan caftan : allCaftans) {
-            if (caftan.getSize() != null && !sizes.contains(caftan.getSize())) {
-                sizes.add(caftan.getSize());
+        // Get unique sizes from the stored catalogue
+        queryEngine.loadSizes(storedSizes -> {
+            if (isFinishing()) {
+                return;
             }
-        }
 
-        final String[] sizeArray = sizes.toArray(new String[0]);
+            List<String> sizes = new ArrayList<>();
+            sizes.add("All");
+            sizes.addAll(storedSizes);
 
-        AlertDialog.Builder builder = new AlertDialog.Builder(this);
-        builder.setTitle("Filter by Size");
-        builder.setItems(sizeArray, (dialog, which) -> {
-            currentSizeFilter = sizeArray[which];
-            applyFiltersAndSort();
-            Toast.makeText(MainActivity.this, "Filter: Size " + currentSizeFilter, Toast.LENGTH_SHORT).show();
+            final String[] sizeArray = sizes.toArray(new String[0]);
+
+            AlertDialog.Builder builder = new AlertDialog.Builder(this);
+            builder.setTitle("Filter by Size");
+            builder.setItems(sizeArray, (dialog, which) -> {
+                currentSizeFilter = sizeArray[which];
+                windowSize = PAGE_SIZE;
+                applyFiltersAndSort();
+                Toast.makeText(MainActivity.this, "Filter: Size " + currentSizeFilter, Toast.LENGTH_SHORT).show();
+            });
+            builder.show();
         });
-        builder.show();
     }
 
     /**
@@ -309,6 +501,7 @@ public class MainActivity extends AppCompatActivity {
     private void resetFilters() {
         currentSizeFilter = "All";
         currentSortOption = "None";
+        windowSize = PAGE_SIZE;
         applyFiltersAndSort();
         Toast.makeText(this, "Filters reset", Toast.LENGTH_SHORT).show();
     }
@@ -12,20 +12,26 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.example.frontend.adapters.RentalAdapter;
 import com.example.frontend.api.ApiClient;
 import com.example.frontend.api.ApiService;
+import com.example.frontend.data.CursorPager;
+import com.example.frontend.data.LocalStore;
+import com.example.frontend.data.RentalMutations;
+import com.example.frontend.data.RentalStreamDecoder;
 import com.example.frontend.models.Rental;
-import com.example.frontend.models.RentalListResponse;
-import com.example.frontend.models.RentalResponse;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * MyRentalsActivity - Shows list of user's rentals
  * Displays all caftans that have been rented
+ * Renders the locally stored rentals first, then refreshes them from the API
+ * page by page as the user scrolls, each page streamed and shown batch by batch
+ * Deletes are optimistic (see RentalMutations)
  */
 public class MyRentalsActivity extends AppCompatActivity {
 
@@ -41,6 +47,23 @@ public class MyRentalsActivity extends AppCompatActivity {
     // API Service
     private ApiService apiService;
 
+    // Local rental store
+    private LocalStore localStore;
+
+    // GET /rentals pages, each streamed and delivered one screen at a time
+    private static final int PAGE_SIZE = 50;
+    private static final int PREFETCH_DISTANCE = 10;
+    private static final int STREAM_BATCH_SIZE = 20;
+    private CursorPager<Rental> rentalPager;
+    private RentalStreamDecoder rentalStream;
+
+    // IDs seen during the current stream (used to detect deletions)
+    private final Set<Integer> seenRentalIds = new HashSet<>();
+
+    // Optimistic creates and deletes, and where deleted rows were
+    private RentalMutations mutations;
+    private final Map<Integer, Integer> removedPositions = new HashMap<>();
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -53,13 +76,17 @@ public class MyRentalsActivity extends AppCompatActivity {
             getSupportActionBar().setDisplayHomeAsUpEnabled(true);
         }
 
-        // Initialize API service
+        // Initialize API service and local store
         apiService = ApiClient.getApiService();
+        localStore = LocalStore.getInstance(this);
+        mutations = RentalMutations.getInstance(this);
+        mutations.addListener(mutationListener);
 
         // Initialize views
         initViews();
 
-        // Load rentals
+        // Show cached rentals right away, then refresh from the API
+        loadCachedRentals();
         loadRentals();
     }
 
@@ -79,19 +106,40 @@ public class MyRentalsActivity extends AppCompatActivity {
 
         // Set delete click listener
         rentalAdapter.setOnDeleteClickListener((rental, position) -> {
-            showDeleteConfirmation(rental, position);
+            // A pending rental has no server ID to delete yet
+            if (rental.getId() < 0) {
+                Toast.makeText(this, "This rental is still being saved", Toast.LENGTH_SHORT).show();
+                return;
+            }
+            showDeleteConfirmation(rental);
+        });
+    }
+
+    /**
+     * Render the rentals stored on the device
+     */
+    private void loadCachedRentals() {
+        localStore.loadRentals(cached -> {
+            // The network may already have answered, keep the fresher list
+            if (rentalList.isEmpty() && !cached.isEmpty()) {
+                List<Rental> visible = withPendingMutations(cached);
+                RentalAdapter.prepareForDisplay(visible);
+                rentalList.addAll(visible);
+                rentalAdapter.notifyDataSetChanged();
+                Log.d(TAG, "Rendered " + cached.size() + " cached rentals");
+            }
         });
     }
 
     /**
      * Show confirmation dialog before deleting rental
      */
-    private void showDeleteConfirmation(Rental rental, int position) {
+    private void showDeleteConfirmation(Rental rental) {
         new androidx.appcompat.app.AlertDialog.Builder(this)
                 .setTitle("Delete Rental")
                 .setMessage("Are you sure you want to delete this rental?")
                 .setPositiveButton("Delete", (dialog, which) -> {
-                    deleteRental(rental, position);
+                    deleteRental(rental);
                 })
                 .setNegativeButton("Cancel", null)
                 .show();
@@ -99,90 +147,191 @@ public class MyRentalsActivity extends AppCompatActivity {
 
     /**
      * Delete rental from API
+     * Optimistic: the row goes away now, and comes back at the same place
+     * if the server refuses the delete
+     * The row is looked up again: pages or confirmations may have moved it
+     * while the confirmation dialog was open
      */
-    private void deleteRental(Rental rental, int position) {
-        Call<RentalResponse> call = apiService.deleteRental(rental.getId());
+    private void deleteRental(Rental rental) {
+        int position = rentalList.indexOf(rental);
+        if (position < 0) {
+            return;
+        }
 
-        call.enqueue(new Callback<RentalResponse>() {
-            @Override
-            public void onResponse(Call<RentalResponse> call, Response<RentalResponse> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    RentalResponse rentalResponse = response.body();
+        rentalList.remove(position);
+        rentalAdapter.notifyItemRemoved(position);
+        removedPositions.put(rental.getId(), position);
 
-                    if (rentalResponse.isSuccess()) {
-                        // Remove from list
-                        rentalList.remove(position);
-                        rentalAdapter.notifyItemRemoved(position);
-                        rentalAdapter.notifyItemRangeChanged(position, rentalList.size());
+        mutations.deleteRental(rental);
 
-                        Toast.makeText(MyRentalsActivity.this,
-                                "Rental deleted successfully", Toast.LENGTH_SHORT).show();
+        Toast.makeText(MyRentalsActivity.this,
+                "Deleting rental...", Toast.LENGTH_SHORT).show();
 
-                        Log.d(TAG, "Rental deleted: " + rental.getId());
+        Log.d(TAG, "Rental deleted: " + rental.getId());
 
-                        // Refresh list if empty
-                        if (rentalList.isEmpty()) {
-                            Toast.makeText(MyRentalsActivity.this,
-                                    "No rentals yet", Toast.LENGTH_SHORT).show();
-                        }
-                    } else {
-                        showError("Failed to delete rental: " + rentalResponse.getMessage());
-                        Log.e(TAG, "API error: " + rentalResponse.getMessage());
-                    }
-                } else {
-                    showError("Failed to delete rental");
-                    Log.e(TAG, "Response not successful: " + response.code());
-                }
+        // Refresh list if empty
+        if (rentalList.isEmpty()) {
+            Toast.makeText(MyRentalsActivity.this,
+                    "No rentals yet", Toast.LENGTH_SHORT).show();
+        }
+    }
+
+    /**
+     * Reconcile optimistic creates and deletes with the rows on screen
+     * Only the affected row is notified
+     */
+    private final RentalMutations.Listener mutationListener = new RentalMutations.Listener() {
+        @Override
+        public void onCreateConfirmed(Rental pending, Rental confirmed) {
+            int index = rentalList.indexOf(pending);
+            if (index < 0) {
+                return;
             }
+            if (seenRentalIds.contains(confirmed.getId())) {
+                // The refresh already brought the server copy
+                rentalList.remove(index);
+                rentalAdapter.notifyItemRemoved(index);
+            } else {
+                RentalAdapter.prepareForDisplay(Collections.singletonList(confirmed));
+                rentalList.set(index, confirmed);
+                seenRentalIds.add(confirmed.getId());
+                rentalAdapter.notifyItemChanged(index);
+            }
+        }
 
-            @Override
-            public void onFailure(Call<RentalResponse> call, Throwable t) {
-                showError("Network error. Please try again.");
-                Log.e(TAG, "API call failed: " + t.getMessage(), t);
+        @Override
+        public void onCreateRolledBack(Rental pending) {
+            int index = rentalList.indexOf(pending);
+            if (index >= 0) {
+                rentalList.remove(index);
+                rentalAdapter.notifyItemRemoved(index);
             }
-        });
-    }
+        }
+
+        @Override
+        public void onDeleteRolledBack(Rental rental) {
+            Integer position = removedPositions.remove(rental.getId());
+            int index = Math.min(position != null ? position : 0, rentalList.size());
+            rentalList.add(index, rental);
+            rentalAdapter.notifyItemInserted(index);
+        }
+    };
 
     /**
      * Load rentals from API
+     * Pages of GET /rentals are requested as the user scrolls. Each page is
+     * decoded while it downloads and shown batch by batch, so the first screen
+     * appears before the page is complete and only the scrolled-to history is kept
      */
     private void loadRentals() {
-        Call<RentalListResponse> call = apiService.getRentals();
-
-        call.enqueue(new Callback<RentalListResponse>() {
-            @Override
-            public void onResponse(Call<RentalListResponse> call, Response<RentalListResponse> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    RentalListResponse rentalResponse = response.body();
-
-                    if (rentalResponse.isSuccess() && rentalResponse.getData() != null) {
-                        // Update list
-                        rentalList.clear();
-                        rentalList.addAll(rentalResponse.getData());
-                        rentalAdapter.notifyDataSetChanged();
+        rentalPager = new CursorPager<>(PAGE_SIZE, PREFETCH_DISTANCE, this::streamRentalPage,
+                new CursorPager.Listener<Rental>() {
+                    @Override
+                    public void onPageLoaded(List<Rental> items, boolean firstPage, boolean lastPage) {
+                        if (!lastPage) {
+                            return;
+                        }
 
-                        Log.d(TAG, "Loaded " + rentalList.size() + " rentals");
+                        // Every rental has been seen: drop the ones deleted on the server
+                        localStore.retainRentals(new HashSet<>(seenRentalIds), null);
 
                         if (rentalList.isEmpty()) {
                             Toast.makeText(MyRentalsActivity.this,
                                 "No rentals yet", Toast.LENGTH_SHORT).show();
                         }
-                    } else {
-                        showError("No rentals found");
-                        Log.e(TAG, "API error: " + rentalResponse.getMessage());
                     }
-                } else {
-                    showError("Failed to load rentals");
-                    Log.e(TAG, "Response not successful: " + response.code());
-                }
+
+                    @Override
+                    public void onPageError(String message, Throwable t) {
+                        showError(message);
+                        Log.e(TAG, "Rental page failed: " + message, t);
+                    }
+                });
+        rentalPager.attachTo(rvRentals);
+        rentalPager.refresh();
+    }
+
+    /**
+     * Stream one page of rentals (CursorPager.PageLoader)
+     * Rows are shown by onRentalBatchLoaded() as they are decoded,
+     * the pager only receives the cursor of the next page
+     */
+    private void streamRentalPage(String cursor, int limit, CursorPager.PageResult<Rental> result) {
+        final boolean firstPage = cursor == null;
+
+        RentalStreamDecoder decoder = new RentalStreamDecoder(STREAM_BATCH_SIZE, new RentalStreamDecoder.Listener() {
+            @Override
+            public void onBatch(List<Rental> batch, boolean firstBatch) {
+                onRentalBatchLoaded(batch, firstPage && firstBatch);
+            }
+
+            @Override
+            public void onComplete(int total, String nextCursor) {
+                Log.d(TAG, "Streamed page of " + total + " rentals");
+                result.onSuccess(Collections.emptyList(), nextCursor);
             }
 
             @Override
-            public void onFailure(Call<RentalListResponse> call, Throwable t) {
-                showError("Network error. Please check your connection.");
-                Log.e(TAG, "API call failed: " + t.getMessage(), t);
+            public void onError(String message, Throwable t) {
+                result.onError(message, t);
             }
         });
+        rentalStream = decoder;
+        decoder.start(apiService.streamRentalsPage(cursor, limit));
+    }
+
+    /**
+     * Show a batch of streamed rentals and merge it into the local store
+     * The first batch replaces the list, the next ones are appended
+     */
+    private void onRentalBatchLoaded(List<Rental> batch, boolean firstBatch) {
+        if (firstBatch) {
+            seenRentalIds.clear();
+            rentalList.clear();
+        }
+
+        // Skip rentals already shown (confirmed creates) or being deleted
+        List<Rental> visible = new ArrayList<>(batch.size());
+        for (Rental rental : batch) {
+            if (seenRentalIds.add(rental.getId()) && !mutations.isPendingDelete(rental.getId())) {
+                visible.add(rental);
+            }
+        }
+        if (firstBatch) {
+            // Rentals submitted but not confirmed yet stay on top
+            visible.addAll(0, mutations.getPendingCreates());
+        }
+
+        // Format dates and prices once, not on every bind
+        RentalAdapter.prepareForDisplay(visible);
+
+        if (firstBatch) {
+            rentalList.addAll(visible);
+            rentalAdapter.notifyDataSetChanged();
+        } else {
+            int start = rentalList.size();
+            rentalList.addAll(visible);
+            rentalAdapter.notifyItemRangeInserted(start, visible.size());
+        }
+
+        // Keep the local store up to date for the next cold start
+        localStore.mergeRentals(batch, null);
+
+        Log.d(TAG, "Loaded batch of " + batch.size() + " rentals");
+    }
+
+    /**
+     * Apply the mutations still waiting for the server to a stored list:
+     * pending creates on top, pending deletes hidden
+     */
+    private List<Rental> withPendingMutations(List<Rental> rentals) {
+        List<Rental> visible = new ArrayList<>(mutations.getPendingCreates());
+        for (Rental rental : rentals) {
+            if (!mutations.isPendingDelete(rental.getId())) {
+                visible.add(rental);
+            }
+        }
+        return visible;
     }
 
     /**
@@ -192,6 +341,17 @@ public class MyRentalsActivity extends AppCompatActivity {
         Toast.makeText(this, message, Toast.LENGTH_LONG).show();
     }
 
+    @Override
+    protected void onDestroy() {
+        mutations.removeListener(mutationListener);
+
+        // Stop downloading and decoding, nothing left to show the rentals in
+        if (rentalStream != null) {
+            rentalStream.cancel();
+        }
+        super.onDestroy();
+    }
+
     @Override
     public boolean onOptionsItemSelected(MenuItem item) {
         if (item.getItemId() == android.R.id.home) {
@@ -1,6 +1,5 @@
 package com.example.frontend;
 
-import android.app.DatePickerDialog;
 import android.os.Bundle;
 import android.util.Log;
 import android.widget.Button;
@@ -11,13 +10,20 @@ import androidx.appcompat.app.AppCompatActivity;
 
 import com.example.frontend.api.ApiClient;
 import com.example.frontend.api.ApiService;
+import com.example.frontend.data.AvailabilityCalendar;
+import com.example.frontend.data.CaftanHandoff;
+import com.example.frontend.data.LocalStore;
+import com.example.frontend.data.RentalIntervalIndex;
+import com.example.frontend.data.RentalMutations;
+import com.example.frontend.models.AvailabilityResponse;
+import com.example.frontend.models.Rental;
 import com.example.frontend.models.RentalRequest;
-import com.example.frontend.models.RentalResponse;
+import com.example.frontend.utils.BookedDaysValidator;
+import com.example.frontend.utils.DateFormats;
+import com.google.android.material.datepicker.CalendarConstraints;
+import com.google.android.material.datepicker.MaterialDatePicker;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Calendar;
-import java.util.Date;
+import java.util.List;
 import java.util.Locale;
 
 import retrofit2.Call;
@@ -51,9 +57,16 @@ public class RentActivity extends AppCompatActivity {
     private String caftanName;
     private double caftanPrice = 0;
 
-    // Date tracking
-    private Calendar selectedStartDate;
-    private Calendar selectedEndDate;
+    // Date tracking (epoch days)
+    private static final int NO_DAY = DateFormats.INVALID_DAY;
+    private int selectedStartDay = NO_DAY;
+    private int selectedEndDay = NO_DAY;
+
+    // Longest rental accepted by the API (Rental::MAX_RENTAL_DAYS in the backend, end - start days)
+    private static final int MAX_RENTAL_DAYS = 30;
+
+    // Days already booked for this caftan, from the local store and the server calendar
+    private RentalIntervalIndex rentalIndex = RentalIntervalIndex.EMPTY;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -92,6 +105,17 @@ public class RentActivity extends AppCompatActivity {
             return;
         }
 
+        // Index the known rentals of this caftan for instant availability checks,
+        // then add the booked days of the server calendar
+        LocalStore.getInstance(this).loadRentalIndex(caftanId, index -> {
+            rentalIndex = rentalIndex.merge(index);
+            Log.d(TAG, "Indexed " + index.size() + " rentals of caftan " + caftanId);
+        });
+        loadAvailability();
+
+        // Rentals submitted but not confirmed yet also block their days
+        rentalIndex = rentalIndex.merge(pendingRentalIndex());
+
         // Set date picker listeners
         etStartDate.setOnClickListener(v -> showDatePicker(true));
         etEndDate.setOnClickListener(v -> showDatePicker(false));
@@ -101,88 +125,126 @@ public class RentActivity extends AppCompatActivity {
     }
 
     /**
-     * Show date picker dialog
+     * Show the date picker
+     * Days already booked for this caftan are greyed out and cannot be selected
      * @param isStartDate - true for start date, false for end date
      */
     private void showDatePicker(boolean isStartDate) {
-        // Get current date
-        Calendar calendar = Calendar.getInstance();
-        int year = calendar.get(Calendar.YEAR);
-        int month = calendar.get(Calendar.MONTH);
-        int day = calendar.get(Calendar.DAY_OF_MONTH);
-
-        // For end date, use start date as initial if available
-        if (!isStartDate && selectedStartDate != null) {
-            year = selectedStartDate.get(Calendar.YEAR);
-            month = selectedStartDate.get(Calendar.MONTH);
-            day = selectedStartDate.get(Calendar.DAY_OF_MONTH);
-        }
-
-        // Create date picker dialog
-        DatePickerDialog datePickerDialog = new DatePickerDialog(
-            this,
-            (view, selectedYear, selectedMonth, selectedDay) -> {
-                // Create calendar for selected date
-                Calendar selectedDate = Calendar.getInstance();
-                selectedDate.set(selectedYear, selectedMonth, selectedDay, 0, 0, 0);
-                selectedDate.set(Calendar.MILLISECOND, 0);
-
-                // Format date as YYYY-MM-DD
-                String formattedDate = String.format(Locale.US, "%04d-%02d-%02d",
-                    selectedYear, selectedMonth + 1, selectedDay);
-
-                // Set to appropriate field
-                if (isStartDate) {
-                    selectedStartDate = selectedDate;
-                    etStartDate.setText(formattedDate);
-                    // Clear end date if it's before the new start date
-                    if (selectedEndDate != null && selectedEndDate.before(selectedStartDate)) {
-                        selectedEndDate = null;
-                        etEndDate.setText("");
-                        Toast.makeText(this, "End date cleared. Please select a new end date.", Toast.LENGTH_SHORT).show();
-                    }
-                } else {
-                    // Validate end date is after start date
-                    if (selectedStartDate != null && selectedDate.before(selectedStartDate)) {
-                        Toast.makeText(this, "End date must be after start date", Toast.LENGTH_LONG).show();
-                        return;
-                    }
-                    selectedEndDate = selectedDate;
-                    etEndDate.setText(formattedDate);
-
-                    // Calculate and show rental info
-                    calculateAndShowRentalInfo();
-                }
-            },
-            year, month, day
-        );
+        int today = DateFormats.today();
 
-        // Set minimum date
+        BookedDaysValidator validator;
+        int initialDay;
         if (isStartDate) {
-            // Start date must be today or later
-            datePickerDialog.getDatePicker().setMinDate(Calendar.getInstance().getTimeInMillis());
-        } else if (selectedStartDate != null) {
-            // End date must be after start date
-            Calendar minEndDate = (Calendar) selectedStartDate.clone();
-            minEndDate.add(Calendar.DAY_OF_MONTH, 1); // At least 1 day rental
-            datePickerDialog.getDatePicker().setMinDate(minEndDate.getTimeInMillis());
+            // Start date must be today or later, on a free day
+            validator = BookedDaysValidator.forStart(rentalIndex, today);
+            initialDay = selectedStartDay != NO_DAY ? selectedStartDay : today;
+        } else if (selectedStartDay != NO_DAY) {
+            // End date must be after start date, with no booking in between
+            validator = BookedDaysValidator.forEnd(rentalIndex, selectedStartDay, MAX_RENTAL_DAYS);
+            initialDay = selectedEndDay != NO_DAY ? selectedEndDay : selectedStartDay + 1;
         } else {
             // If no start date selected, show error
             Toast.makeText(this, "Please select start date first", Toast.LENGTH_SHORT).show();
             return;
         }
 
-        datePickerDialog.show();
+        CalendarConstraints constraints = new CalendarConstraints.Builder()
+                .setStart(BookedDaysValidator.toUtcMillis(isStartDate ? today : selectedStartDay))
+                .setOpenAt(BookedDaysValidator.toUtcMillis(initialDay))
+                .setValidator(validator)
+                .build();
+
+        MaterialDatePicker<Long> picker = MaterialDatePicker.Builder.datePicker()
+                .setTitleText(isStartDate ? "Start date" : "End date")
+                .setCalendarConstraints(constraints)
+                .build();
+
+        picker.addOnPositiveButtonClickListener(selection -> {
+            int selectedDay = BookedDaysValidator.toEpochDay(selection);
+
+            // Format date as YYYY-MM-DD
+            String formattedDate = DateFormats.formatIso(selectedDay);
+
+            // Set to appropriate field
+            if (isStartDate) {
+                selectedStartDay = selectedDay;
+                etStartDate.setText(formattedDate);
+                // Clear end date if it no longer fits after the new start date
+                if (selectedEndDay != NO_DAY && (selectedEndDay <= selectedStartDay
+                        || rentalIndex.overlaps(selectedStartDay, selectedEndDay))) {
+                    selectedEndDay = NO_DAY;
+                    etEndDate.setText("");
+                    Toast.makeText(this, "End date cleared. Please select a new end date.", Toast.LENGTH_SHORT).show();
+                }
+            } else {
+                selectedEndDay = selectedDay;
+                etEndDate.setText(formattedDate);
+            }
+
+            // Calculate and show rental info
+            calculateAndShowRentalInfo();
+        });
+
+        picker.show(getSupportFragmentManager(), isStartDate ? "start_date_picker" : "end_date_picker");
+    }
+
+    /**
+     * Index the days of this caftan's rentals still waiting for the server
+     * @return Index of their [start, end) ranges
+     */
+    private RentalIntervalIndex pendingRentalIndex() {
+        List<Rental> pending = RentalMutations.getInstance(this).getPendingCreates();
+        int[] starts = new int[pending.size()];
+        int[] ends = new int[pending.size()];
+        int count = 0;
+        for (Rental rental : pending) {
+            int start = DateFormats.parseEpochDay(rental.getStartDate());
+            int end = DateFormats.parseEpochDay(rental.getEndDate());
+            if (rental.getCaftanId() == caftanId && start != DateFormats.INVALID_DAY && end > start) {
+                starts[count] = start;
+                ends[count] = end;
+                count++;
+            }
+        }
+        return RentalIntervalIndex.fromRanges(starts, ends, count);
+    }
+
+    /**
+     * Load the booked days of the next months (GET /caftans/{id}/availability)
+     * A few bytes instead of the rental list, merged into the local index
+     */
+    private void loadAvailability() {
+        int today = DateFormats.today();
+        apiService.getAvailability(caftanId, DateFormats.formatIso(today),
+                DateFormats.formatIso(today + AvailabilityCalendar.WINDOW_DAYS - 1))
+                .enqueue(new Callback<AvailabilityResponse>() {
+            @Override
+            public void onResponse(Call<AvailabilityResponse> call, Response<AvailabilityResponse> response) {
+                AvailabilityCalendar calendar = response.isSuccessful() && response.body() != null
+                        ? AvailabilityCalendar.decode(response.body().getData())
+                        : null;
+                if (calendar == null) {
+                    Log.e(TAG, "Availability not loaded: " + response.code());
+                    return;
+                }
+                rentalIndex = rentalIndex.merge(calendar.toIntervalIndex());
+            }
+
+            @Override
+            public void onFailure(Call<AvailabilityResponse> call, Throwable t) {
+                // The local index still applies, the server checks the rest
+                Log.e(TAG, "Availability call failed: " + t.getMessage(), t);
+            }
+        });
     }
 
     /**
      * Calculate and display rental duration and estimated price
      */
     private void calculateAndShowRentalInfo() {
-        if (selectedStartDate != null && selectedEndDate != null) {
-            // Calculate duration in days
-            long diffInMillis = selectedEndDate.getTimeInMillis() - selectedStartDate.getTimeInMillis();
-            long days = diffInMillis / (1000 * 60 * 60 * 24);
+        if (selectedStartDay != NO_DAY && selectedEndDay != NO_DAY) {
+            // Calculate duration in days (start and end days are both charged, like the API)
+            int days = selectedEndDay - selectedStartDay + 1;
 
             // Calculate estimated price
             double estimatedPrice = days * caftanPrice;
@@ -255,51 +317,43 @@ public class RentActivity extends AppCompatActivity {
         }
 
         // Advanced date validation
-        try {
-            SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd", Locale.US);
-            sdf.setLenient(false);
-
-            Date start = sdf.parse(startDate);
-            Date end = sdf.parse(endDate);
-            Date today = new Date();
-
-            // Reset time part for accurate comparison
-            Calendar cal = Calendar.getInstance();
-            cal.set(Calendar.HOUR_OF_DAY, 0);
-            cal.set(Calendar.MINUTE, 0);
-            cal.set(Calendar.SECOND, 0);
-            cal.set(Calendar.MILLISECOND, 0);
-            today = cal.getTime();
-
-            // Check if start date is in the past
-            if (start.before(today)) {
-                Toast.makeText(this, "Start date cannot be in the past", Toast.LENGTH_LONG).show();
-                return false;
-            }
+        int start = DateFormats.parseEpochDay(startDate);
+        int end = DateFormats.parseEpochDay(endDate);
 
-            // Check if end date is before start date
-            if (end.before(start)) {
-                Toast.makeText(this, "End date must be after start date", Toast.LENGTH_LONG).show();
-                return false;
-            }
+        if (start == DateFormats.INVALID_DAY || end == DateFormats.INVALID_DAY) {
+            Toast.makeText(this, "Invalid date format. Please select dates using the date picker.", Toast.LENGTH_LONG).show();
+            return false;
+        }
 
-            // Check if end date is same as start date
-            if (end.equals(start)) {
-                Toast.makeText(this, "Rental must be at least 1 day. Please select different dates.", Toast.LENGTH_LONG).show();
-                return false;
-            }
+        int today = DateFormats.today();
 
-            // Calculate rental duration
-            long diffInMillis = end.getTime() - start.getTime();
-            long diffInDays = diffInMillis / (1000 * 60 * 60 * 24);
+        // Check if start date is in the past
+        if (start < today) {
+            Toast.makeText(this, "Start date cannot be in the past", Toast.LENGTH_LONG).show();
+            return false;
+        }
 
-            if (diffInDays > 30) {
-                Toast.makeText(this, "Maximum rental period is 30 days", Toast.LENGTH_LONG).show();
-                return false;
-            }
+        // Check if end date is before start date
+        if (end < start) {
+            Toast.makeText(this, "End date must be after start date", Toast.LENGTH_LONG).show();
+            return false;
+        }
 
-        } catch (ParseException e) {
-            Toast.makeText(this, "Invalid date format. Please select dates using the date picker.", Toast.LENGTH_LONG).show();
+        // Check if end date is same as start date
+        if (end == start) {
+            Toast.makeText(this, "Rental must be at least 1 day. Please select different dates.", Toast.LENGTH_LONG).show();
+            return false;
+        }
+
+        // Calculate rental duration
+        if (end - start > MAX_RENTAL_DAYS) {
+            Toast.makeText(this, "Maximum rental period is " + MAX_RENTAL_DAYS + " days", Toast.LENGTH_LONG).show();
+            return false;
+        }
+
+        // Check against the known rentals, no need to ask the API for a certain refusal
+        if (rentalIndex.overlaps(start, end)) {
+            Toast.makeText(this, "This caftan is not available for the selected dates.", Toast.LENGTH_LONG).show();
             return false;
         }
 
@@ -308,6 +362,8 @@ public class RentActivity extends AppCompatActivity {
 
     /**
      * Submit rental request to API
+     * Optimistic: the rental is shown in My Rentals right away and the screen
+     * closes without waiting; a refusal from the server removes it again
      */
     private void submitRental() {
         // Validate inputs first
@@ -315,78 +371,27 @@ public class RentActivity extends AppCompatActivity {
             return;
         }
 
+        // A second tap before finish() would create a second rental
+        btnSubmitRental.setEnabled(false);
+
         // Get form data
         String customerName = etCustomerName.getText().toString().trim();
         String startDate = etStartDate.getText().toString().trim();
         String endDate = etEndDate.getText().toString().trim();
 
-        // Disable button to prevent multiple submissions
-        btnSubmitRental.setEnabled(false);
-        btnSubmitRental.setText("Submitting...");
-
         // Create rental request object
         RentalRequest request = new RentalRequest(customerName, caftanId, startDate, endDate);
 
-        // Make API call
-        Call<RentalResponse> call = apiService.createRental(request);
+        // Applied locally now, reconciled with POST /rentals in the background
+        Rental pending = RentalMutations.getInstance(this)
+                .createRental(request, CaftanHandoff.getInstance().peek(caftanId), caftanPrice);
 
-        call.enqueue(new Callback<RentalResponse>() {
-            @Override
-            public void onResponse(Call<RentalResponse> call, Response<RentalResponse> response) {
-                // Re-enable button
-                btnSubmitRental.setEnabled(true);
-                btnSubmitRental.setText(R.string.submit_rental);
-
-                if (response.isSuccessful() && response.body() != null) {
-                    RentalResponse rentalResponse = response.body();
-
-                    if (rentalResponse.isSuccess()) {
-                        // Success!
-                        Toast.makeText(RentActivity.this,
-                            "Rental created successfully!",
-                            Toast.LENGTH_LONG).show();
-
-                        Log.d(TAG, "Rental created: " + rentalResponse.getMessage());
-
-                        // Go back to main screen
-                        finish();
-                    } else {
-                        // API returned error
-                        showError("Failed to create rental: " + rentalResponse.getMessage());
-                        Log.e(TAG, "API error: " + rentalResponse.getMessage());
-                    }
-                } else {
-                    // Response not successful
-                    if (response.code() == 422) {
-                        showError("Validation error. Please check your inputs.");
-                    } else if (response.code() == 400) {
-                        showError("This caftan is not available for the selected dates.");
-                    } else {
-                        showError("Failed to create rental");
-                    }
-                    Log.e(TAG, "Response not successful: " + response.code());
-                }
-            }
+        Log.d(TAG, "Rental submitted: " + pending.getId());
+        // The server has not answered yet: a refusal is reported later by RentalMutations
+        Toast.makeText(this, "Saving your rental...", Toast.LENGTH_LONG).show();
 
-            @Override
-            public void onFailure(Call<RentalResponse> call, Throwable t) {
-                // Re-enable button
-                btnSubmitRental.setEnabled(true);
-                btnSubmitRental.setText(R.string.submit_rental);
-
-                // Network error
-                showError("Network error. Please check your connection.");
-                Log.e(TAG, "API call failed: " + t.getMessage(), t);
-            }
-        });
-    }
-
-    /**
-     * Show error message
-     * @param message - Error message
-     */
-    private void showError(String message) {
-        Toast.makeText(this, message, Toast.LENGTH_LONG).show();
+        // Go back to main screen
+        finish();
     }
 
     @Override
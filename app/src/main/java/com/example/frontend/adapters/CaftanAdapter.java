@@ -1,32 +1,66 @@
 package com.example.frontend.adapters;
 
 import android.content.Context;
+import android.view.GestureDetector;
 import android.view.LayoutInflater;
+import android.view.MotionEvent;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
 import com.example.frontend.R;
+import com.example.frontend.images.ImageRequests;
 import com.example.frontend.models.Caftan;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Adapter for RecyclerView to display list of caftans
  * Handles the binding of caftan data to card views
+ *
+ * New lists are diffed against the current one on a background thread
+ * (AsyncListDiffer), so a refresh only rebinds rows that actually changed
+ * and a new sort order animates as item moves.
  */
 public class CaftanAdapter extends RecyclerView.Adapter<CaftanAdapter.CaftanViewHolder> {
 
+    /**
+     * Rows are the same item when they have the same ID,
+     * and unchanged when every displayed field and updatedAt match
+     */
+    private static final DiffUtil.ItemCallback<Caftan> DIFF_CALLBACK = new DiffUtil.ItemCallback<Caftan>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Caftan oldItem, @NonNull Caftan newItem) {
+            return oldItem.getId() == newItem.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Caftan oldItem, @NonNull Caftan newItem) {
+            return oldItem.isAvailability() == newItem.isAvailability()
+                    && Objects.equals(oldItem.getUpdatedAt(), newItem.getUpdatedAt())
+                    && Objects.equals(oldItem.getName(), newItem.getName())
+                    && Objects.equals(oldItem.getSize(), newItem.getSize())
+                    && Objects.equals(oldItem.getPrice(), newItem.getPrice())
+                    && Objects.equals(oldItem.getImageUrl(), newItem.getImageUrl())
+                    && Objects.equals(oldItem.getImageThumbUrl(), newItem.getImageThumbUrl());
+        }
+    };
+
     // Context and data
     private Context context;
-    private List<Caftan> caftanList;
+    private final AsyncListDiffer<Caftan> differ = new AsyncListDiffer<>(this, DIFF_CALLBACK);
     private OnItemClickListener listener;
+    private OnItemPressListener pressListener;
+    private RecyclerView.OnItemTouchListener pressDetector;
 
     /**
      * Interface for handling item clicks
@@ -41,7 +75,18 @@ public class CaftanAdapter extends RecyclerView.Adapter<CaftanAdapter.CaftanView
      */
     public CaftanAdapter(Context context) {
         this.context = context;
-        this.caftanList = new ArrayList<>();
+
+        // Caftan IDs are unique and stable
+        setHasStableIds(true);
+    }
+
+    /**
+     * Interface for handling a confirmed press on an item
+     * Called once the finger has rested on a row without moving (GestureDetector
+     * onShowPress), before the click is confirmed: scrolls and flings never report a press
+     */
+    public interface OnItemPressListener {
+        void onItemPressed(Caftan caftan);
     }
 
     /**
@@ -52,13 +97,32 @@ public class CaftanAdapter extends RecyclerView.Adapter<CaftanAdapter.CaftanView
         this.listener = listener;
     }
 
+    /**
+     * Set press listener (finger resting on a row)
+     * @param pressListener - Press listener
+     */
+    public void setOnItemPressListener(OnItemPressListener pressListener) {
+        this.pressListener = pressListener;
+    }
+
     /**
      * Set caftan list data
+     * The differences with the current list are computed in the background
      * @param caftanList - List of caftans
      */
     public void setCaftanList(List<Caftan> caftanList) {
-        this.caftanList = caftanList;
-        notifyDataSetChanged();  // Refresh the list
+        // Submit a copy: the differ must own the list it compares against
+        differ.submitList(new ArrayList<>(caftanList));
+    }
+
+    /**
+     * Get the caftan displayed at a position
+     * @param position - Adapter position
+     * @return Caftan, or null if the position is out of range
+     */
+    public Caftan getItem(int position) {
+        List<Caftan> current = differ.getCurrentList();
+        return position >= 0 && position < current.size() ? current.get(position) : null;
     }
 
     @NonNull
@@ -72,7 +136,7 @@ public class CaftanAdapter extends RecyclerView.Adapter<CaftanAdapter.CaftanView
     @Override
     public void onBindViewHolder(@NonNull CaftanViewHolder holder, int position) {
         // Get caftan at this position
-        Caftan caftan = caftanList.get(position);
+        Caftan caftan = differ.getCurrentList().get(position);
 
         // Bind data to views
         holder.tvName.setText(caftan.getName());
@@ -84,11 +148,8 @@ public class CaftanAdapter extends RecyclerView.Adapter<CaftanAdapter.CaftanView
         String imageUrl = caftan.getImageUrl();
         android.util.Log.d("CaftanAdapter", "Loading image for " + caftan.getName() + ": " + imageUrl);
 
-        // Load image with Glide
-        Glide.with(context)
-                .load(imageUrl)
-                .placeholder(R.drawable.ic_launcher_background)  // Placeholder while loading
-                .error(R.drawable.ic_launcher_background)  // Error image if load fails
+        // Load image with Glide: thumbnail variant, decoded at the size of the list cell
+        ImageRequests.listThumbnail(context, Glide.with(context), caftan)
                 .into(holder.ivImage);
 
         // Set click listener
@@ -99,9 +160,63 @@ public class CaftanAdapter extends RecyclerView.Adapter<CaftanAdapter.CaftanView
         });
     }
 
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onAttachedToRecyclerView(recyclerView);
+
+        // Watch the touches of the whole list without consuming them:
+        // rows keep their own click handling (ripple, performClick, accessibility)
+        GestureDetector detector = new GestureDetector(recyclerView.getContext(),
+                new GestureDetector.SimpleOnGestureListener() {
+                    @Override
+                    public void onShowPress(MotionEvent e) {
+                        reportPress(recyclerView, e);
+                    }
+                });
+        pressDetector = new RecyclerView.SimpleOnItemTouchListener() {
+            @Override
+            public boolean onInterceptTouchEvent(@NonNull RecyclerView rv, @NonNull MotionEvent e) {
+                detector.onTouchEvent(e);
+                return false;
+            }
+        };
+        recyclerView.addOnItemTouchListener(pressDetector);
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onDetachedFromRecyclerView(recyclerView);
+        if (pressDetector != null) {
+            recyclerView.removeOnItemTouchListener(pressDetector);
+            pressDetector = null;
+        }
+    }
+
+    /**
+     * Report a confirmed press on the row under the finger
+     * @param recyclerView - List that received the touch
+     * @param e - Touch event of the press
+     */
+    private void reportPress(RecyclerView recyclerView, MotionEvent e) {
+        if (pressListener == null) {
+            return;
+        }
+
+        View child = recyclerView.findChildViewUnder(e.getX(), e.getY());
+        Caftan caftan = child != null ? getItem(recyclerView.getChildAdapterPosition(child)) : null;
+        if (caftan != null) {
+            pressListener.onItemPressed(caftan);
+        }
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return differ.getCurrentList().get(position).getId();
+    }
+
     @Override
     public int getItemCount() {
-        return caftanList.size();
+        return differ.getCurrentList().size();
     }
 
     /**
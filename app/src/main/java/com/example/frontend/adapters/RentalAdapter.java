@@ -12,17 +12,18 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
 import com.example.frontend.R;
+import com.example.frontend.images.ImageRequests;
 import com.example.frontend.models.Rental;
+import com.example.frontend.utils.DateFormats;
 import com.google.android.material.button.MaterialButton;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 
 /**
  * Adapter for displaying rental items in RecyclerView
+ * Date and price strings are built once per rental by prepareForDisplay(),
+ * so binding a row does no parsing or formatting.
  */
 public class RentalAdapter extends RecyclerView.Adapter<RentalAdapter.RentalViewHolder> {
 
@@ -62,27 +63,12 @@ public class RentalAdapter extends RecyclerView.Adapter<RentalAdapter.RentalView
         String customerName = rental.getCustomerName() != null ? rental.getCustomerName() : "Unknown";
         holder.tvCustomerName.setText("Customer: " + customerName);
 
-        // Format dates properly
-        String startDate = formatDate(rental.getStartDate());
-        String endDate = formatDate(rental.getEndDate());
-
-        if (!startDate.isEmpty() && !endDate.isEmpty()) {
-            holder.tvDates.setText(startDate + " to " + endDate);
-        } else {
-            holder.tvDates.setText("Dates not available");
-        }
-
-        // Format price
-        if (rental.getTotalPrice() != null && !rental.getTotalPrice().isEmpty()) {
-            try {
-                double price = Double.parseDouble(rental.getTotalPrice());
-                holder.tvPrice.setText(String.format(Locale.US, "Total: %.2f DH", price));
-            } catch (NumberFormatException e) {
-                holder.tvPrice.setText("Total: " + rental.getTotalPrice() + " DH");
-            }
-        } else {
-            holder.tvPrice.setText("Price not available");
+        // Dates and price, formatted once per rental
+        if (rental.getDisplayDates() == null) {
+            prepareForDisplay(rental);
         }
+        holder.tvDates.setText(rental.getDisplayDates());
+        holder.tvPrice.setText(rental.getDisplayTotal());
 
         // Set caftan info if available
         if (rental.getCaftan() != null) {
@@ -92,10 +78,7 @@ public class RentalAdapter extends RecyclerView.Adapter<RentalAdapter.RentalView
             // Load caftan image
             String imageUrl = rental.getCaftan().getImageUrl();
             if (imageUrl != null && !imageUrl.isEmpty()) {
-                Glide.with(context)
-                        .load(imageUrl)
-                        .placeholder(R.drawable.ic_launcher_background)
-                        .error(R.drawable.ic_launcher_background)
+                ImageRequests.listThumbnail(context, Glide.with(context), rental.getCaftan())
                         .into(holder.ivCaftanImage);
             } else {
                 holder.ivCaftanImage.setImageResource(R.drawable.ic_launcher_background);
@@ -117,45 +100,43 @@ public class RentalAdapter extends RecyclerView.Adapter<RentalAdapter.RentalView
     }
 
     /**
-     * Format date string from ISO format to readable format
-     * Converts "2025-12-23T00:00:00.000000Z" to "Dec 23, 2025"
+     * Build the display strings of a batch of rentals
+     * Call when the data arrives, before handing it to the adapter
+     * @param rentals - Rentals received from the API or the local store
      */
-    private String formatDate(String dateString) {
-        if (dateString == null || dateString.isEmpty()) {
-            return "";
+    public static void prepareForDisplay(List<Rental> rentals) {
+        for (Rental rental : rentals) {
+            if (rental != null) {
+                prepareForDisplay(rental);
+            }
         }
+    }
 
-        try {
-            // Try to parse different date formats
-            SimpleDateFormat inputFormat;
+    /**
+     * Build the display strings of one rental
+     * Converts "2025-12-23T00:00:00.000000Z" to "Dec 23, 2025"
+     */
+    private static void prepareForDisplay(Rental rental) {
+        // Format dates properly
+        String startDate = DateFormats.toDisplay(rental.getStartDate());
+        String endDate = DateFormats.toDisplay(rental.getEndDate());
 
-            // Check if it contains time (ISO 8601 format)
-            if (dateString.contains("T")) {
-                inputFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", Locale.US);
-            } else {
-                inputFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.US);
-            }
+        if (!startDate.isEmpty() && !endDate.isEmpty()) {
+            rental.setDisplayDates(startDate + " to " + endDate);
+        } else {
+            rental.setDisplayDates("Dates not available");
+        }
 
-            Date date = inputFormat.parse(dateString);
-
-            // Format to readable date
-            SimpleDateFormat outputFormat = new SimpleDateFormat("MMM dd, yyyy", Locale.US);
-            return date != null ? outputFormat.format(date) : dateString;
-
-        } catch (ParseException e) {
-            // If parsing fails, try to extract just the date part
-            if (dateString.length() >= 10) {
-                String datePart = dateString.substring(0, 10);
-                try {
-                    SimpleDateFormat inputFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.US);
-                    Date date = inputFormat.parse(datePart);
-                    SimpleDateFormat outputFormat = new SimpleDateFormat("MMM dd, yyyy", Locale.US);
-                    return date != null ? outputFormat.format(date) : datePart;
-                } catch (ParseException ex) {
-                    return datePart;
-                }
+        // Format price
+        if (rental.getTotalPrice() != null && !rental.getTotalPrice().isEmpty()) {
+            try {
+                double price = Double.parseDouble(rental.getTotalPrice());
+                rental.setDisplayTotal(String.format(Locale.US, "Total: %.2f DH", price));
+            } catch (NumberFormatException e) {
+                rental.setDisplayTotal("Total: " + rental.getTotalPrice() + " DH");
             }
-            return dateString;
+        } else {
+            rental.setDisplayTotal("Price not available");
         }
     }
 
@@ -1,11 +1,46 @@
 package com.example.frontend.api;
 
+import android.content.Context;
+
+import com.example.frontend.models.ModelTypeAdapterFactory;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.brotli.BrotliInterceptor;
+import retrofit2.Invocation;
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
+import retrofit2.http.Streaming;
 
 /**
  * ApiClient - Singleton class to manage Retrofit instance
  * This handles the connection to our backend API
+ *
+ * All screens share one OkHttpClient and one ApiService proxy, so navigating
+ * between activities reuses warm keep-alive connections instead of opening new ones.
+ * Once init() has been called, GET responses are kept in a bounded disk cache and
+ * revalidated with If-None-Match / If-Modified-Since (a 304 has no body).
+ * Identical GETs enqueued while one is already in flight share its response.
+ * Models are (de)serialized by hand-written streaming adapters, not reflection.
+ * With setBinaryFormatEnabled(true), GETs ask for CBOR and JSON stays the fallback.
+ * POSTs to the routes the server deduplicates (rentals, rentals/batch) carry an
+ * Idempotency-Key, so they are retried after a network error, a 502/503/504, or a
+ * 409 with Retry-After (same key still in progress): the server answers a retried
+ * key with the first response. Other POSTs (rentals/replay) are sent once.
  */
 public class ApiClient {
 
@@ -13,20 +48,127 @@ public class ApiClient {
     // Use http://10.0.2.2:8000/api to connect to localhost from emulator
     private static final String BASE_URL = "http://10.0.2.2:8000/api/";
 
-    // Singleton instance
+    // Connection pool: idle connections kept alive between screens
+    private static final int MAX_IDLE_CONNECTIONS = 8;
+    private static final long KEEP_ALIVE_MINUTES = 5;
+
+    // Timeouts (seconds)
+    private static final long CONNECT_TIMEOUT_SECONDS = 10;
+    private static final long READ_TIMEOUT_SECONDS = 20;
+    private static final long WRITE_TIMEOUT_SECONDS = 20;
+
+    // Automatic retries of POSTs carrying an Idempotency-Key
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final int MAX_POST_RETRIES = 2;
+    private static final long RETRY_DELAY_MS = 500;
+    // Longest Retry-After (seconds) waited for on a 409, longer ones are returned as is
+    private static final long MAX_RETRY_AFTER_SECONDS = 5;
+
+    // Dispatcher limits (OkHttp defaults are 64 total / 5 per host)
+    private static final int DEFAULT_MAX_REQUESTS = 64;
+    private static final int DEFAULT_MAX_REQUESTS_PER_HOST = 6;
+
+    // Disk cache for GET responses
+    private static final String CACHE_DIR_NAME = "http_cache";
+    private static final long CACHE_SIZE_BYTES = 10L * 1024 * 1024; // 10 MB
+
+    // Cache hit / miss counters
+    private static final CacheStats cacheStats = new CacheStats();
+
+    // Shares identical in-flight GETs, counts sent and coalesced requests
+    private static final CoalescingCallAdapterFactory coalescing = new CoalescingCallAdapterFactory();
+
+    // Ask for CBOR responses (opt-in, see setBinaryFormatEnabled)
+    private static volatile boolean binaryFormatEnabled = false;
+
+    // Set by init(), used to locate the cache directory
+    private static File cacheDir = null;
+
+    // Singleton instances
+    private static Gson gson = null;
+    private static OkHttpClient httpClient = null;
     private static Retrofit retrofit = null;
+    private static ApiService apiService = null;
+
+    /**
+     * Initialize the client with the application context
+     * Must be called before the first request for the disk cache to be used
+     * @param context - Any context (the application context is kept)
+     */
+    public static synchronized void init(Context context) {
+        if (cacheDir == null) {
+            cacheDir = new File(context.getApplicationContext().getCacheDir(), CACHE_DIR_NAME);
+        }
+    }
+
+    /**
+     * Get the shared OkHttp client
+     * Creates it on first use with an explicit pool, timeouts and dispatcher
+     * @return OkHttpClient instance
+     */
+    public static synchronized OkHttpClient getHttpClient() {
+        if (httpClient == null) {
+            Dispatcher dispatcher = new Dispatcher();
+            dispatcher.setMaxRequests(DEFAULT_MAX_REQUESTS);
+            dispatcher.setMaxRequestsPerHost(DEFAULT_MAX_REQUESTS_PER_HOST);
+
+            OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                    .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+                    .dispatcher(dispatcher)
+                    // HTTP/2 is negotiated via ALPN on TLS, HTTP/1.1 is the fallback
+                    .protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                    .connectTimeout(CONNECT_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                    .readTimeout(READ_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                    .writeTimeout(WRITE_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                    .retryOnConnectionFailure(true)
+                    // Gives each deduplicated POST an Idempotency-Key (kept by every retry below)
+                    .addInterceptor(ApiClient::addIdempotencyKey)
+                    // Retries those POSTs after a network error, a 502/503/504 or a 409 with Retry-After
+                    .addInterceptor(ApiClient::retryIdempotent)
+                    // Sends "Accept-Encoding: br,gzip" and decodes either transparently
+                    .addInterceptor(BrotliInterceptor.INSTANCE)
+                    // Adds "Accept: application/cbor" to GETs when the binary format is enabled
+                    .addInterceptor(ApiClient::negotiateFormat)
+                    // Counts cache hits, 304 revalidations and misses
+                    .addInterceptor(cacheStats);
+
+            if (cacheDir != null) {
+                builder.cache(new Cache(cacheDir, CACHE_SIZE_BYTES));
+            }
+
+            httpClient = builder.build();
+        }
+        return httpClient;
+    }
+
+    /**
+     * Get the shared Gson instance
+     * Uses the streaming adapters of ModelTypeAdapterFactory for every model
+     * @return Gson instance
+     */
+    public static synchronized Gson getGson() {
+        if (gson == null) {
+            gson = new GsonBuilder()
+                    .registerTypeAdapterFactory(ModelTypeAdapterFactory.INSTANCE)
+                    .create();
+        }
+        return gson;
+    }
 
     /**
      * Get Retrofit instance
      * Creates a new instance if it doesn't exist
      * @return Retrofit instance
      */
-    public static Retrofit getClient() {
+    public static synchronized Retrofit getClient() {
         if (retrofit == null) {
             // Build Retrofit instance
             retrofit = new Retrofit.Builder()
                     .baseUrl(BASE_URL)  // Set base URL
-                    .addConverterFactory(GsonConverterFactory.create())  // Add Gson converter
+                    .client(getHttpClient())  // Use the shared, tuned client
+                    .addConverterFactory(new CborConverterFactory(getGson()))  // CBOR responses, else falls through to JSON
+                    .addConverterFactory(GsonConverterFactory.create(getGson()))  // Add Gson converter (no reflection)
+                    .addCallAdapterFactory(coalescing)  // Share identical in-flight GETs
                     .build();
         }
         return retrofit;
@@ -34,10 +176,164 @@ public class ApiClient {
 
     /**
      * Get API Service instance
+     * The proxy is created once and cached for the whole process
      * @return ApiService interface implementation
      */
-    public static ApiService getApiService() {
-        return getClient().create(ApiService.class);
+    public static synchronized ApiService getApiService() {
+        if (apiService == null) {
+            apiService = getClient().create(ApiService.class);
+        }
+        return apiService;
     }
-}
 
+    /**
+     * Get the HTTP cache counters
+     * @return Hits, revalidations, misses and bytes not downloaded
+     */
+    public static CacheStats getCacheStats() {
+        return cacheStats;
+    }
+
+    /**
+     * Get the request coalescing counters
+     * @return GET requests sent and GET calls that joined one already in flight
+     */
+    public static CoalescingCallAdapterFactory getCoalescingStats() {
+        return coalescing;
+    }
+
+    /**
+     * Ask the server for the compact binary format (CBOR) on GET requests
+     * The server answers JSON if it does not support it, both are decoded
+     * @param enabled - true to send "Accept: application/cbor"
+     */
+    public static void setBinaryFormatEnabled(boolean enabled) {
+        binaryFormatEnabled = enabled;
+    }
+
+    /**
+     * Interceptor: add the CBOR Accept header to eligible requests
+     * Streamed calls keep JSON, their body is decoded incrementally as JSON
+     */
+    private static Response negotiateFormat(Interceptor.Chain chain) throws IOException {
+        Request request = chain.request();
+        if (!binaryFormatEnabled || !"GET".equals(request.method()) || request.header("Accept") != null) {
+            return chain.proceed(request);
+        }
+
+        Invocation invocation = request.tag(Invocation.class);
+        if (invocation != null && invocation.method().isAnnotationPresent(Streaming.class)) {
+            return chain.proceed(request);
+        }
+
+        return chain.proceed(request.newBuilder()
+                .header("Accept", CborConverterFactory.ACCEPT_HEADER)
+                .build());
+    }
+
+    /**
+     * Whether the server deduplicates this request by its Idempotency-Key
+     * Only POST /rentals and POST /rentals/batch go through the server's
+     * idempotency middleware; /rentals/replay dedupes each operation by its own key.
+     * @param request - Outgoing request
+     * @return true for a POST to rentals or rentals/batch
+     */
+    private static boolean isDeduplicated(Request request) {
+        String path = request.url().encodedPath();
+        return "POST".equals(request.method())
+                && (path.endsWith("/rentals") || path.endsWith("/rentals/batch"));
+    }
+
+    /**
+     * Interceptor: add an Idempotency-Key to deduplicated POSTs that do not have one
+     * Application interceptors run once per call, so OkHttp's own retries and
+     * retryIdempotent() resend the same key. Callers that retry by enqueuing a
+     * new call (e.g. RentalMutations) pass their own key with @Header instead.
+     */
+    private static Response addIdempotencyKey(Interceptor.Chain chain) throws IOException {
+        Request request = chain.request();
+        if (!isDeduplicated(request) || request.header(IDEMPOTENCY_KEY_HEADER) != null) {
+            return chain.proceed(request);
+        }
+        return chain.proceed(request.newBuilder()
+                .header(IDEMPOTENCY_KEY_HEADER, UUID.randomUUID().toString())
+                .build());
+    }
+
+    /**
+     * Interceptor: retry a deduplicated POST up to MAX_POST_RETRIES times
+     * Safe because the server applies a key once and replays its response.
+     * Waits RETRY_DELAY_MS, then twice as long, between attempts; a 409 (first
+     * request with this key still running) waits for its Retry-After instead.
+     */
+    private static Response retryIdempotent(Interceptor.Chain chain) throws IOException {
+        Request request = chain.request();
+        if (!isDeduplicated(request) || request.header(IDEMPOTENCY_KEY_HEADER) == null) {
+            return chain.proceed(request);
+        }
+
+        for (int attempt = 0; ; attempt++) {
+            boolean lastAttempt = attempt == MAX_POST_RETRIES || chain.call().isCanceled();
+            long delayMs = RETRY_DELAY_MS << attempt;
+            try {
+                Response response = chain.proceed(request);
+                int code = response.code();
+                long retryAfter = code == 409 ? retryAfterSeconds(response) : -1;
+                boolean retryable = code == 502 || code == 503 || code == 504 || retryAfter >= 0;
+                if (lastAttempt || !retryable) {
+                    return response;
+                }
+                response.close();
+                if (retryAfter >= 0) {
+                    delayMs = TimeUnit.SECONDS.toMillis(retryAfter);
+                }
+            } catch (IOException e) {
+                if (lastAttempt || chain.call().isCanceled()) {
+                    throw e;
+                }
+            }
+
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Retry interrupted", e);
+            }
+        }
+    }
+
+    /**
+     * Read the Retry-After header of a response (delay in seconds)
+     * @param response - Server response
+     * @return Delay in seconds, or -1 if absent, not a number of seconds, or above MAX_RETRY_AFTER_SECONDS
+     */
+    private static long retryAfterSeconds(Response response) {
+        String header = response.header("Retry-After");
+        if (header == null) {
+            return -1;
+        }
+        try {
+            long seconds = Long.parseLong(header.trim());
+            return seconds >= 0 && seconds <= MAX_RETRY_AFTER_SECONDS ? seconds : -1;
+        } catch (NumberFormatException e) {
+            // HTTP-date form: not sent by our server
+            return -1;
+        }
+    }
+
+    /**
+     * Change the per-host concurrency limit of the shared client
+     * @param maxRequestsPerHost - Maximum concurrent requests to one host
+     */
+    public static void setMaxRequestsPerHost(int maxRequestsPerHost) {
+        getHttpClient().dispatcher().setMaxRequestsPerHost(maxRequestsPerHost);
+    }
+
+    /**
+     * Change the total concurrency limit of the shared client
+     * @param maxRequests - Maximum concurrent requests overall
+     */
+    public static void setMaxRequests(int maxRequests) {
+        getHttpClient().dispatcher().setMaxRequests(maxRequests);
+    }
+}
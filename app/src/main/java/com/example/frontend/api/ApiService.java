@@ -1,17 +1,27 @@
 package com.example.frontend.api;
 
+import com.example.frontend.models.AvailabilityResponse;
+import com.example.frontend.models.CaftanDeltaResponse;
 import com.example.frontend.models.CaftanResponse;
-import com.example.frontend.models.RentalListResponse;
+import com.example.frontend.models.RentalBatchRequest;
+import com.example.frontend.models.RentalDeleteBatchRequest;
+import com.example.frontend.models.RentalReplayRequest;
+import com.example.frontend.models.RentalReplayResponse;
 import com.example.frontend.models.RentalRequest;
 import com.example.frontend.models.RentalResponse;
 import com.example.frontend.models.SingleCaftanResponse;
 
+import okhttp3.ResponseBody;
 import retrofit2.Call;
 import retrofit2.http.Body;
 import retrofit2.http.DELETE;
 import retrofit2.http.GET;
+import retrofit2.http.HTTP;
+import retrofit2.http.Header;
 import retrofit2.http.POST;
 import retrofit2.http.Path;
+import retrofit2.http.Query;
+import retrofit2.http.Streaming;
 
 /**
  * API Service interface for Retrofit
@@ -20,12 +30,23 @@ import retrofit2.http.Path;
 public interface ApiService {
 
     /**
-     * Get all caftans
-     * GET /caftans
-     * @return List of all caftans
+     * Get one page of caftans (ordered by ID)
+     * GET /caftans?limit={limit}&cursor={cursor}
+     * @param cursor - next_cursor of the previous page, null for the first page
+     * @param limit - Page size (max 100)
+     * @return One page of caftans and the cursor of the next page
      */
     @GET("caftans")
-    Call<CaftanResponse> getCaftans();
+    Call<CaftanResponse> getCaftansPage(@Query("cursor") String cursor, @Query("limit") int limit);
+
+    /**
+     * Get catalogue changes since a previous sync
+     * GET /caftans?since={serverTime}
+     * @param since - server_time returned by the previous catalogue response
+     * @return Changed caftans, IDs of deleted caftans and the new server time
+     */
+    @GET("caftans")
+    Call<CaftanDeltaResponse> getCaftanChanges(@Query("since") String since);
 
     /**
      * Get a single caftan by ID
@@ -36,22 +57,66 @@ public interface ApiService {
     @GET("caftans/{id}")
     Call<SingleCaftanResponse> getCaftan(@Path("id") int id);
 
+    /**
+     * Get the booked days of a caftan over a window
+     * GET /caftans/{id}/availability?from={from}&to={to}
+     * @param id - Caftan ID
+     * @param from - First day (yyyy-MM-dd), null for today
+     * @param to - Last day, included (yyyy-MM-dd), null for 180 days
+     * @return Bitset of booked days (decode with AvailabilityCalendar)
+     */
+    @GET("caftans/{id}/availability")
+    Call<AvailabilityResponse> getAvailability(@Path("id") int id, @Query("from") String from, @Query("to") String to);
+
     /**
      * Create a rental
      * POST /rentals
+     * @param idempotencyKey - Unique key of this create: sending it again returns the same rental
+     *                       (null lets ApiClient generate one for this call only)
      * @param request - Rental request with customer name, caftan ID, and dates
      * @return Rental response
      */
     @POST("rentals")
-    Call<RentalResponse> createRental(@Body RentalRequest request);
+    Call<RentalResponse> createRental(@Header("Idempotency-Key") String idempotencyKey, @Body RentalRequest request);
+
+    /**
+     * Replay rental creates and deletes queued offline
+     * POST /rentals/replay
+     * @param request - Operations, oldest first (at most 100)
+     * @return One result per operation, with its HTTP status
+     */
+    @POST("rentals/replay")
+    Call<RentalReplayResponse> replayRentals(@Body RentalReplayRequest request);
+
+    /**
+     * Create many rentals in one request (one transaction on the server)
+     * POST /rentals/batch
+     * @param request - Creates with their idempotency keys (at most 500)
+     * @return One result per rental, in order: 201, 200 (key already used), 400 or 422
+     */
+    @POST("rentals/batch")
+    Call<RentalReplayResponse> createRentals(@Body RentalBatchRequest request);
+
+    /**
+     * Delete many rentals in one request
+     * DELETE /rentals/batch
+     * @param request - Rental IDs (at most 500)
+     * @return One result per ID, in order: 200, or 404 if already gone
+     */
+    @HTTP(method = "DELETE", path = "rentals/batch", hasBody = true)
+    Call<RentalReplayResponse> deleteRentals(@Body RentalDeleteBatchRequest request);
 
     /**
-     * Get all rentals
-     * GET /rentals
-     * @return List of all rentals
+     * Get one page of rentals as a raw stream (newest first)
+     * GET /rentals?include=caftans&limit={limit}&cursor={cursor}
+     * The body is not buffered: decode it incrementally with RentalStreamDecoder
+     * @param cursor - next_cursor of the previous page, null for the first page
+     * @param limit - Page size (max 100)
+     * @return Unread response body (one page of rentals and the cursor of the next page)
      */
-    @GET("rentals")
-    Call<RentalListResponse> getRentals();
+    @Streaming
+    @GET("rentals?include=caftans")
+    Call<ResponseBody> streamRentalsPage(@Query("cursor") String cursor, @Query("limit") int limit);
 
     /**
      * Delete a rental
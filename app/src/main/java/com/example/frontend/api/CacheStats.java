@@ -0,0 +1,92 @@
+package com.example.frontend.api;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+/**
+ * CacheStats - Counts how HTTP responses were served
+ * Registered as an application interceptor so it sees the final response
+ * produced by the OkHttp cache:
+ * - hit: served from disk without touching the network
+ * - revalidated: server answered 304, body came from disk
+ * - miss: full body downloaded from the server
+ */
+public class CacheStats implements Interceptor {
+
+    private static final String TAG = "CacheStats";
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong revalidated = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong bytesSaved = new AtomicLong();
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Response response = chain.proceed(chain.request());
+
+        Response cacheResponse = response.cacheResponse();
+        Response networkResponse = response.networkResponse();
+
+        if (cacheResponse != null && networkResponse == null) {
+            hits.incrementAndGet();
+            addSavedBytes(cacheResponse);
+        } else if (cacheResponse != null) {
+            // Conditional request answered with 304 Not Modified
+            revalidated.incrementAndGet();
+            addSavedBytes(cacheResponse);
+        } else {
+            misses.incrementAndGet();
+        }
+
+        Log.d(TAG, chain.request().url().encodedPath() + " -> " + this);
+        return response;
+    }
+
+    /**
+     * Add the size of a body we did not have to download
+     * @param cacheResponse - Response read from the disk cache
+     */
+    private void addSavedBytes(Response cacheResponse) {
+        String contentLength = cacheResponse.header("Content-Length");
+        if (contentLength != null) {
+            try {
+                bytesSaved.addAndGet(Long.parseLong(contentLength));
+            } catch (NumberFormatException e) {
+                // Unknown size, nothing to add
+            }
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getRevalidated() {
+        return revalidated.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getBytesSaved() {
+        return bytesSaved.get();
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "hits=" + hits.get()
+                + ", revalidated=" + revalidated.get()
+                + ", misses=" + misses.get()
+                + ", bytesSaved=" + bytesSaved.get();
+    }
+}
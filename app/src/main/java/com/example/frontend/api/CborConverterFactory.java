@@ -0,0 +1,84 @@
+package com.example.frontend.api;
+
+import androidx.annotation.NonNull;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+/**
+ * CborConverterFactory - Reads "application/cbor" responses, JSON otherwise
+ *
+ * The format is chosen per response from its Content-Type: a server that does
+ * not support CBOR simply answers JSON, which goes to the next (Gson) converter.
+ * CBOR bodies are decoded into a Gson tree and read by the same model adapters.
+ *
+ * Must be added before GsonConverterFactory.
+ */
+public class CborConverterFactory extends Converter.Factory {
+
+    // Sent as Accept when the binary format is enabled (JSON stays acceptable)
+    static final String ACCEPT_HEADER = "application/cbor, application/json;q=0.9";
+
+    private final Gson gson;
+
+    /**
+     * Constructor
+     * @param gson - Gson with the model adapters
+     */
+    public CborConverterFactory(Gson gson) {
+        this.gson = gson;
+    }
+
+    @Override
+    public Converter<ResponseBody, ?> responseBodyConverter(@NonNull Type type, @NonNull Annotation[] annotations,
+                                                            @NonNull Retrofit retrofit) {
+        // Raw bodies (@Streaming) are left to Retrofit's built-in converter
+        if (type == ResponseBody.class) {
+            return null;
+        }
+
+        Converter<ResponseBody, ?> jsonConverter = retrofit.nextResponseBodyConverter(this, type, annotations);
+        TypeAdapter<?> adapter = gson.getAdapter(TypeToken.get(type));
+        return new CborOrJsonConverter<>(adapter, jsonConverter);
+    }
+
+    /**
+     * Picks the decoder from the response Content-Type
+     */
+    private static final class CborOrJsonConverter<T> implements Converter<ResponseBody, Object> {
+
+        private final TypeAdapter<T> adapter;
+        private final Converter<ResponseBody, ?> jsonConverter;
+
+        CborOrJsonConverter(TypeAdapter<T> adapter, Converter<ResponseBody, ?> jsonConverter) {
+            this.adapter = adapter;
+            this.jsonConverter = jsonConverter;
+        }
+
+        @Override
+        public Object convert(@NonNull ResponseBody body) throws IOException {
+            if (!isCbor(body.contentType())) {
+                return jsonConverter.convert(body);
+            }
+            try (ResponseBody source = body) {
+                return adapter.fromJsonTree(CborReader.read(source.source()));
+            }
+        }
+
+        private static boolean isCbor(MediaType contentType) {
+            return contentType != null
+                    && "application".equals(contentType.type())
+                    && "cbor".equals(contentType.subtype());
+        }
+    }
+}
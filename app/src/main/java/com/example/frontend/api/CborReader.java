@@ -0,0 +1,214 @@
+package com.example.frontend.api;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonPrimitive;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+import okio.Buffer;
+import okio.BufferedSource;
+
+/**
+ * CborReader - Decodes one CBOR item (RFC 8949) into a Gson tree
+ *
+ * The tree is then read by the same adapters as JSON (Gson.fromJsonTree),
+ * so models need no CBOR-specific code.
+ * Supports every major type, definite and indefinite lengths, tags (ignored)
+ * and half/single/double floats. Byte strings are read as UTF-8 text.
+ * Integers beyond the long range (up to 2^64) become BigInteger values;
+ * lengths beyond the long range and unassigned simple values are rejected.
+ */
+final class CborReader {
+
+    private static final int BREAK = 0xff;
+
+    // Additional information of an indefinite-length head
+    private static final int INDEFINITE = 31;
+
+    private static final BigInteger TWO_TO_THE_64 = BigInteger.ONE.shiftLeft(64);
+
+    private CborReader() {
+    }
+
+    /**
+     * Read one item from the source
+     * @param source - CBOR bytes (e.g. a response body source)
+     * @return Equivalent JSON tree
+     */
+    static JsonElement read(BufferedSource source) throws IOException {
+        return readItem(source, source.readByte() & 0xff);
+    }
+
+    private static JsonElement readItem(BufferedSource source, int initial) throws IOException {
+        int major = initial >>> 5;
+        int info = initial & 0x1f;
+
+        switch (major) {
+            case 0: // unsigned integer
+                return new JsonPrimitive(unsigned(readArgument(source, info)));
+            case 1: // negative integer: -1 - argument
+                return new JsonPrimitive(negative(readArgument(source, info)));
+            case 2: // byte string
+            case 3: // text string
+                return new JsonPrimitive(readString(source, major, info));
+            case 4: // array
+                return readArray(source, info);
+            case 5: // map
+                return readMap(source, info);
+            case 6: // tag: the tagged item is kept as is
+                readArgument(source, info);
+                return read(source);
+            default: // simple values and floats
+                return readSimple(source, info);
+        }
+    }
+
+    private static JsonArray readArray(BufferedSource source, int info) throws IOException {
+        JsonArray array = new JsonArray();
+        if (info == INDEFINITE) {
+            int initial;
+            while ((initial = source.readByte() & 0xff) != BREAK) {
+                array.add(readItem(source, initial));
+            }
+        } else {
+            long length = readLength(source, info);
+            for (long i = 0; i < length; i++) {
+                array.add(read(source));
+            }
+        }
+        return array;
+    }
+
+    private static JsonObject readMap(BufferedSource source, int info) throws IOException {
+        JsonObject object = new JsonObject();
+        if (info == INDEFINITE) {
+            int initial;
+            while ((initial = source.readByte() & 0xff) != BREAK) {
+                String key = readItem(source, initial).getAsString();
+                object.add(key, read(source));
+            }
+        } else {
+            long length = readLength(source, info);
+            for (long i = 0; i < length; i++) {
+                String key = read(source).getAsString();
+                object.add(key, read(source));
+            }
+        }
+        return object;
+    }
+
+    private static String readString(BufferedSource source, int major, int info) throws IOException {
+        if (info != INDEFINITE) {
+            long length = readLength(source, info);
+            return major == 3 ? source.readUtf8(length) : new String(source.readByteArray(length), StandardCharsets.UTF_8);
+        }
+
+        // Indefinite length: definite chunks of the same type until "break"
+        Buffer chunks = new Buffer();
+        int initial;
+        while ((initial = source.readByte() & 0xff) != BREAK) {
+            // Chunks are definite strings of the same type
+            if (initial >>> 5 != major || (initial & 0x1f) == INDEFINITE) {
+                throw new JsonParseException("Invalid CBOR string chunk");
+            }
+            chunks.write(source, readLength(source, initial & 0x1f));
+        }
+        return chunks.readUtf8();
+    }
+
+    private static JsonElement readSimple(BufferedSource source, int info) throws IOException {
+        switch (info) {
+            case 20:
+                return new JsonPrimitive(false);
+            case 21:
+                return new JsonPrimitive(true);
+            case 22: // null
+            case 23: // undefined
+                return JsonNull.INSTANCE;
+            case 25:
+                return new JsonPrimitive(halfToFloat(source.readShort() & 0xffff));
+            case 26:
+                return new JsonPrimitive(Float.intBitsToFloat(source.readInt()));
+            case 27:
+                return new JsonPrimitive(Double.longBitsToDouble(source.readLong()));
+            default:
+                throw new JsonParseException("Unsupported CBOR simple value " + info);
+        }
+    }
+
+    /**
+     * Definite length of a string, array or map
+     * @return Length (a 64-bit argument above Long.MAX_VALUE is rejected)
+     */
+    private static long readLength(BufferedSource source, int info) throws IOException {
+        long length = readArgument(source, info);
+        if (length < 0) {
+            throw new JsonParseException("Invalid CBOR length");
+        }
+        return length;
+    }
+
+    /**
+     * Unsigned 64-bit argument as a number (BigInteger above Long.MAX_VALUE)
+     */
+    private static Number unsigned(long argument) {
+        return argument >= 0 ? (Number) argument : BigInteger.valueOf(argument).add(TWO_TO_THE_64);
+    }
+
+    /**
+     * Value of a negative integer, -1 - argument (BigInteger below Long.MIN_VALUE)
+     */
+    private static Number negative(long argument) {
+        if (argument >= 0) {
+            return -1 - argument;
+        }
+        return BigInteger.valueOf(argument).add(TWO_TO_THE_64).add(BigInteger.ONE).negate();
+    }
+
+    /**
+     * Argument of a definite item head (value or length)
+     * @return The argument, as the raw 64 bits for an 8-byte argument
+     */
+    private static long readArgument(BufferedSource source, int info) throws IOException {
+        if (info < 24) {
+            return info;
+        }
+        switch (info) {
+            case 24:
+                return source.readByte() & 0xff;
+            case 25:
+                return source.readShort() & 0xffff;
+            case 26:
+                return source.readInt() & 0xffffffffL;
+            case 27:
+                return source.readLong();
+            default:
+                throw new JsonParseException("Invalid CBOR argument " + info);
+        }
+    }
+
+    /**
+     * IEEE 754 half precision to float
+     */
+    private static float halfToFloat(int half) {
+        int sign = (half & 0x8000) << 16;
+        int exponent = (half >>> 10) & 0x1f;
+        int mantissa = half & 0x3ff;
+
+        if (exponent == 0) {
+            // Subnormal or zero
+            float value = mantissa * (float) Math.pow(2, -24);
+            return sign != 0 ? -value : value;
+        }
+        if (exponent == 0x1f) {
+            return Float.intBitsToFloat(sign | 0x7f800000 | (mantissa << 13));
+        }
+        return Float.intBitsToFloat(sign | ((exponent + 112) << 23) | (mantissa << 13));
+    }
+}
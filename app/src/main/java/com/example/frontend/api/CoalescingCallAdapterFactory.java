@@ -0,0 +1,254 @@
+package com.example.frontend.api;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Request;
+import okio.Timeout;
+import retrofit2.Call;
+import retrofit2.CallAdapter;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.http.Streaming;
+
+/**
+ * CoalescingCallAdapterFactory - Shares identical GET requests that are in flight
+ *
+ * When a GET is enqueued while an identical one (same URL and headers) is
+ * still waiting for its answer, no second request is sent: the caller joins
+ * the pending one and receives the same Response when it arrives.
+ * Other methods (POST, DELETE...), @Streaming calls (a body can only be read
+ * once) and execute() are never shared.
+ *
+ * Joined callers receive the same response body instance, which must be
+ * treated as read-only. A caller that cancels leaves the shared request
+ * (cancelled only once nobody waits for it) and receives no callback. Callbacks run where the shared call delivers them
+ * (the main thread with Retrofit's default adapter).
+ */
+public class CoalescingCallAdapterFactory extends CallAdapter.Factory {
+
+    // Pending GETs by key, guarded by "this"
+    private final Map<String, InFlight<?>> inFlight = new HashMap<>();
+
+    // Counters
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    @Override
+    public CallAdapter<?, ?> get(@NonNull Type returnType, @NonNull Annotation[] annotations, @NonNull Retrofit retrofit) {
+        if (getRawType(returnType) != Call.class) {
+            return null;
+        }
+        for (Annotation annotation : annotations) {
+            if (annotation instanceof Streaming) {
+                return null;
+            }
+        }
+
+        // Keep the behaviour of the next adapter (e.g. main-thread callbacks), then wrap it
+        @SuppressWarnings("unchecked")
+        CallAdapter<Object, Call<Object>> delegate =
+                (CallAdapter<Object, Call<Object>>) retrofit.nextCallAdapter(this, returnType, annotations);
+
+        return new CallAdapter<Object, Call<Object>>() {
+            @NonNull
+            @Override
+            public Type responseType() {
+                return delegate.responseType();
+            }
+
+            @NonNull
+            @Override
+            public Call<Object> adapt(@NonNull Call<Object> call) {
+                return new CoalescingCall<>(delegate.adapt(call));
+            }
+        };
+    }
+
+    /**
+     * @return Number of GET requests actually sent
+     */
+    public long getSentCount() {
+        return sent.get();
+    }
+
+    /**
+     * @return Number of GET calls answered by another caller's request
+     */
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "sent=" + sent.get() + " coalesced=" + coalesced.get();
+    }
+
+    /**
+     * Identifies identical requests
+     */
+    private static String keyOf(Request request) {
+        return request.method() + " " + request.url() + "\n" + request.headers();
+    }
+
+    /**
+     * One GET on the network and the callers waiting for it
+     */
+    private static final class InFlight<T> {
+        final Call<T> call;
+        final List<CoalescingCall<T>> callers = new ArrayList<>();
+
+        InFlight(Call<T> call) {
+            this.call = call;
+        }
+    }
+
+    /**
+     * Call handed to the app, shares its GET with identical pending calls
+     */
+    private final class CoalescingCall<T> implements Call<T> {
+
+        private final Call<T> delegate;
+        private Callback<T> callback;
+        private String key;
+        private volatile boolean executed;
+        private volatile boolean canceled;
+
+        CoalescingCall(Call<T> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void enqueue(@NonNull Callback<T> callback) {
+            if (executed) {
+                throw new IllegalStateException("Already executed.");
+            }
+            executed = true;
+
+            if (!"GET".equals(delegate.request().method())) {
+                delegate.enqueue(callback);
+                return;
+            }
+
+            this.callback = callback;
+            this.key = keyOf(delegate.request());
+
+            InFlight<T> shared;
+            boolean start = false;
+            synchronized (CoalescingCallAdapterFactory.this) {
+                @SuppressWarnings("unchecked")
+                InFlight<T> existing = (InFlight<T>) inFlight.get(key);
+                if (existing != null) {
+                    shared = existing;
+                    coalesced.incrementAndGet();
+                } else {
+                    shared = new InFlight<>(delegate);
+                    inFlight.put(key, shared);
+                    start = true;
+                }
+                shared.callers.add(this);
+            }
+
+            if (start) {
+                sent.incrementAndGet();
+                shared.call.enqueue(new Callback<T>() {
+                    @Override
+                    public void onResponse(@NonNull Call<T> call, @NonNull Response<T> response) {
+                        for (CoalescingCall<T> caller : finish(shared)) {
+                            caller.callback.onResponse(caller, response);
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(@NonNull Call<T> call, @NonNull Throwable t) {
+                        for (CoalescingCall<T> caller : finish(shared)) {
+                            caller.callback.onFailure(caller, t);
+                        }
+                    }
+                });
+            }
+        }
+
+        /**
+         * Remove a finished GET so later calls send a new one
+         * @return Callers still waiting for it
+         */
+        private List<CoalescingCall<T>> finish(InFlight<T> shared) {
+            synchronized (CoalescingCallAdapterFactory.this) {
+                if (inFlight.get(key) == shared) {
+                    inFlight.remove(key);
+                }
+                return new ArrayList<>(shared.callers);
+            }
+        }
+
+        @NonNull
+        @Override
+        public Response<T> execute() throws IOException {
+            executed = true;
+            return delegate.execute();
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return executed;
+        }
+
+        @Override
+        public void cancel() {
+            canceled = true;
+            if (key == null) {
+                // Not shared (not enqueued yet, not a GET, or executed synchronously)
+                delegate.cancel();
+                return;
+            }
+
+            // Leave the shared GET, cancel it only when nobody else waits for it
+            Call<T> toCancel = null;
+            synchronized (CoalescingCallAdapterFactory.this) {
+                @SuppressWarnings("unchecked")
+                InFlight<T> shared = (InFlight<T>) inFlight.get(key);
+                if (shared != null && shared.callers.remove(this) && shared.callers.isEmpty()) {
+                    inFlight.remove(key);
+                    toCancel = shared.call;
+                }
+            }
+            if (toCancel != null) {
+                toCancel.cancel();
+            }
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return canceled || delegate.isCanceled();
+        }
+
+        @NonNull
+        @Override
+        public Call<T> clone() {
+            return new CoalescingCall<>(delegate.clone());
+        }
+
+        @NonNull
+        @Override
+        public Request request() {
+            return delegate.request();
+        }
+
+        @NonNull
+        @Override
+        public Timeout timeout() {
+            return delegate.timeout();
+        }
+    }
+}
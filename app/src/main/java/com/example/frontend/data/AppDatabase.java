@@ -0,0 +1,128 @@
+package com.example.frontend.data;
+
+import android.content.Context;
+
+import androidx.room.Database;
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+/**
+ * AppDatabase - Local SQLite database (Room)
+ * Keeps the last known catalogue and rentals so screens can
+ * render before the network answers, and the rental mutations
+ * waiting to be sent (outbox)
+ */
+@Database(entities = {CaftanEntity.class, RentalEntity.class, OutboxEntity.class}, version = 5, exportSchema = false)
+public abstract class AppDatabase extends RoomDatabase {
+
+    private static final String DATABASE_NAME = "caftan_store.db";
+
+    // Singleton instance
+    private static volatile AppDatabase instance = null;
+
+    public abstract CaftanDao caftanDao();
+
+    public abstract RentalDao rentalDao();
+
+    public abstract OutboxDao outboxDao();
+
+    // 2 -> 3: add the outbox (the cached tables are kept as they are)
+    private static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `outbox` ("
+                    + "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`idempotency_key` TEXT NOT NULL, "
+                    + "`type` TEXT NOT NULL, "
+                    + "`customer_name` TEXT, "
+                    + "`caftan_id` INTEGER NOT NULL, "
+                    + "`start_date` TEXT, "
+                    + "`end_date` TEXT, "
+                    + "`rental_id` INTEGER NOT NULL)");
+            db.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_outbox_idempotency_key` "
+                    + "ON `outbox` (`idempotency_key`)");
+        }
+    };
+
+    // 3 -> 4: rebuild caftans without the price_value column and its indexes
+    // (filtering and sorting moved to CatalogueQueryEngine), keeping the rows
+    private static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `caftans_new` ("
+                    + "`id` INTEGER NOT NULL, "
+                    + "`name` TEXT, "
+                    + "`size` TEXT, "
+                    + "`price` TEXT, "
+                    + "`image_url` TEXT, "
+                    + "`image_thumb_url` TEXT, "
+                    + "`image_medium_url` TEXT, "
+                    + "`availability` INTEGER NOT NULL, "
+                    + "`created_at` TEXT, "
+                    + "`updated_at` TEXT, "
+                    + "PRIMARY KEY(`id`))");
+            db.execSQL("INSERT INTO `caftans_new` (`id`, `name`, `size`, `price`, `image_url`, "
+                    + "`image_thumb_url`, `image_medium_url`, `availability`, `created_at`, `updated_at`) "
+                    + "SELECT `id`, `name`, `size`, `price`, `image_url`, `image_thumb_url`, "
+                    + "`image_medium_url`, `availability`, `created_at`, `updated_at` FROM `caftans`");
+            db.execSQL("DROP TABLE `caftans`");
+            db.execSQL("ALTER TABLE `caftans_new` RENAME TO `caftans`");
+        }
+    };
+
+    // 4 -> 5: rebuild caftans with the price_value column and the (size, price_value)
+    // and price_value indexes again (CatalogueQueryEngine queries them), keeping the rows
+    private static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `caftans_new` ("
+                    + "`id` INTEGER NOT NULL, "
+                    + "`name` TEXT, "
+                    + "`size` TEXT COLLATE NOCASE, "
+                    + "`price` TEXT, "
+                    + "`price_value` REAL NOT NULL, "
+                    + "`image_url` TEXT, "
+                    + "`image_thumb_url` TEXT, "
+                    + "`image_medium_url` TEXT, "
+                    + "`availability` INTEGER NOT NULL, "
+                    + "`created_at` TEXT, "
+                    + "`updated_at` TEXT, "
+                    + "PRIMARY KEY(`id`))");
+            // Same value as CaftanEntity.parsePrice() for the prices the API sends
+            db.execSQL("INSERT INTO `caftans_new` (`id`, `name`, `size`, `price`, `price_value`, `image_url`, "
+                    + "`image_thumb_url`, `image_medium_url`, `availability`, `created_at`, `updated_at`) "
+                    + "SELECT `id`, `name`, `size`, `price`, IFNULL(CAST(`price` AS REAL), 0), `image_url`, "
+                    + "`image_thumb_url`, `image_medium_url`, `availability`, `created_at`, `updated_at` FROM `caftans`");
+            db.execSQL("DROP TABLE `caftans`");
+            db.execSQL("ALTER TABLE `caftans_new` RENAME TO `caftans`");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_caftans_size_price_value` "
+                    + "ON `caftans` (`size`, `price_value`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_caftans_price_value` "
+                    + "ON `caftans` (`price_value`)");
+        }
+    };
+
+    /**
+     * Get the database instance
+     * @param context - Any context (the application context is kept)
+     * @return AppDatabase instance
+     */
+    public static AppDatabase getInstance(Context context) {
+        if (instance == null) {
+            synchronized (AppDatabase.class) {
+                if (instance == null) {
+                    instance = Room.databaseBuilder(context.getApplicationContext(),
+                                    AppDatabase.class, DATABASE_NAME)
+                            // The outbox holds unsent user actions: migrate, never wipe it
+                            .addMigrations(MIGRATION_2_3, MIGRATION_3_4, MIGRATION_4_5)
+                            // Older versions only held a cache of the server, rebuild them
+                            .fallbackToDestructiveMigration()
+                            .build();
+                }
+            }
+        }
+        return instance;
+    }
+}
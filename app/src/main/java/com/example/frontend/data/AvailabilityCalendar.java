@@ -0,0 +1,140 @@
+package com.example.frontend.data;
+
+import android.util.Base64;
+
+import com.example.frontend.models.AvailabilityResponse;
+import com.example.frontend.utils.DateFormats;
+
+/**
+ * AvailabilityCalendar - Decoded GET /caftans/{id}/availability bitset
+ *
+ * The server sends one bit per day of a window (base64, least significant
+ * bit first): months of availability in a few dozen bytes instead of the
+ * rental list. The bits are kept as they are and read with shifts.
+ *
+ * Immutable, can be shared between threads.
+ */
+public final class AvailabilityCalendar {
+
+    // Window asked for by the details and rent screens
+    public static final int WINDOW_DAYS = 180;
+
+    private final int firstDay;  // epoch day of bit 0
+    private final int days;      // number of days covered
+    private final byte[] bits;
+
+    private AvailabilityCalendar(int firstDay, int days, byte[] bits) {
+        this.firstDay = firstDay;
+        this.days = days;
+        this.bits = bits;
+    }
+
+    /**
+     * Decode the data of an availability response
+     * @param data - "data" object of the response
+     * @return Calendar, or null if the data is missing or malformed
+     */
+    public static AvailabilityCalendar decode(AvailabilityResponse.AvailabilityData data) {
+        if (data == null || data.getBooked() == null) {
+            return null;
+        }
+        int firstDay = DateFormats.parseEpochDay(data.getFrom());
+        if (firstDay == DateFormats.INVALID_DAY || data.getDays() <= 0) {
+            return null;
+        }
+
+        byte[] bits;
+        try {
+            bits = Base64.decode(data.getBooked(), Base64.DEFAULT);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (bits.length * 8 < data.getDays()) {
+            return null;
+        }
+        return new AvailabilityCalendar(firstDay, data.getDays(), bits);
+    }
+
+    /**
+     * @return First epoch day covered
+     */
+    public int getFirstDay() {
+        return firstDay;
+    }
+
+    /**
+     * @return Epoch day after the last day covered
+     */
+    public int getEndDay() {
+        return firstDay + days;
+    }
+
+    /**
+     * Check whether a day is inside the window
+     * @param day - Epoch day
+     * @return true if isBooked() knows the answer for that day
+     */
+    public boolean covers(int day) {
+        return day >= firstDay && day < firstDay + days;
+    }
+
+    /**
+     * Check whether the caftan is out on a given day
+     * @param day - Epoch day
+     * @return true if booked, false if free or outside the window
+     */
+    public boolean isBooked(int day) {
+        if (!covers(day)) {
+            return false;
+        }
+        int offset = day - firstDay;
+        return (bits[offset >> 3] & (1 << (offset & 7))) != 0;
+    }
+
+    /**
+     * Find the first free day of the window on or after a day
+     * @param day - Epoch day to start from
+     * @return First free epoch day, or getEndDay() if the rest of the window is booked
+     */
+    public int nextFreeDay(int day) {
+        int current = Math.max(day, firstDay);
+        while (current < getEndDay() && isBooked(current)) {
+            current++;
+        }
+        return current;
+    }
+
+    /**
+     * Find the first booked day of the window on or after a day
+     * @param day - Epoch day to start from
+     * @return First booked epoch day, or getEndDay() if the rest of the window is free
+     */
+    public int nextBookedDay(int day) {
+        int current = Math.max(day, firstDay);
+        while (current < getEndDay() && !isBooked(current)) {
+            current++;
+        }
+        return current;
+    }
+
+    /**
+     * Convert the booked runs of the window to an interval index
+     * Consecutive booked days become one [start, end) range
+     * @return Index usable by the date picker and the conflict check
+     */
+    public RentalIntervalIndex toIntervalIndex() {
+        int[] starts = new int[(days + 1) / 2];
+        int[] ends = new int[starts.length];
+        int count = 0;
+
+        int day = nextBookedDay(firstDay);
+        while (day < getEndDay()) {
+            int free = nextFreeDay(day);
+            starts[count] = day;
+            ends[count] = free;
+            count++;
+            day = nextBookedDay(free);
+        }
+        return RentalIntervalIndex.fromRanges(starts, ends, count);
+    }
+}
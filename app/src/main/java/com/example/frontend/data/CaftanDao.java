@@ -0,0 +1,59 @@
+package com.example.frontend.data;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+/**
+ * Data access object for the local caftan catalogue
+ * Filter and sort variants match the options offered by MainActivity
+ * (run by CatalogueQueryEngine on the (size, price_value) and price_value indexes);
+ * equal prices keep catalogue order (id) in both directions.
+ * Lists are windowed with LIMIT: the screen asks for more rows as it scrolls.
+ */
+@Dao
+public interface CaftanDao {
+
+    @Query("SELECT * FROM caftans ORDER BY id LIMIT :limit")
+    List<CaftanEntity> getFirst(int limit);
+
+    @Query("SELECT * FROM caftans WHERE size = :size ORDER BY id LIMIT :limit")
+    List<CaftanEntity> getBySize(String size, int limit);
+
+    @Query("SELECT * FROM caftans ORDER BY price_value ASC, id LIMIT :limit")
+    List<CaftanEntity> getAllByPriceAsc(int limit);
+
+    @Query("SELECT * FROM caftans ORDER BY price_value DESC, id LIMIT :limit")
+    List<CaftanEntity> getAllByPriceDesc(int limit);
+
+    @Query("SELECT * FROM caftans WHERE size = :size ORDER BY price_value ASC, id LIMIT :limit")
+    List<CaftanEntity> getBySizeByPriceAsc(String size, int limit);
+
+    @Query("SELECT * FROM caftans WHERE size = :size ORDER BY price_value DESC, id LIMIT :limit")
+    List<CaftanEntity> getBySizeByPriceDesc(String size, int limit);
+
+    @Query("SELECT COUNT(*) FROM caftans")
+    int count();
+
+    @Query("SELECT COUNT(*) FROM caftans WHERE size = :size")
+    int countBySize(String size);
+
+    // Distinct sizes (NOCASE), each with the spelling of its first caftan
+    @Query("SELECT size FROM caftans WHERE size IS NOT NULL GROUP BY size ORDER BY MIN(id)")
+    List<String> getSizes();
+
+    @Query("SELECT * FROM caftans WHERE id IN (:ids)")
+    List<CaftanEntity> getByIds(List<Integer> ids);
+
+    @Query("SELECT id FROM caftans")
+    List<Integer> getAllIds();
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertAll(List<CaftanEntity> caftans);
+
+    @Query("DELETE FROM caftans WHERE id IN (:ids)")
+    void deleteByIds(List<Integer> ids);
+}
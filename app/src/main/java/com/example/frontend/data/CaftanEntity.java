@@ -0,0 +1,117 @@
+package com.example.frontend.data;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+import com.example.frontend.models.Caftan;
+
+/**
+ * Room entity for a locally stored caftan
+ * Mirrors the Caftan model, plus a numeric price column so
+ * price sorting can use an index instead of parsing strings
+ */
+@Entity(
+        tableName = "caftans",
+        indices = {
+                @Index(value = {"size", "price_value"}),
+                @Index(value = {"price_value"})
+        }
+)
+public class CaftanEntity {
+
+    @PrimaryKey
+    @ColumnInfo(name = "id")
+    public int id;
+
+    @ColumnInfo(name = "name")
+    public String name;
+
+    // NOCASE so the size filter keeps its equalsIgnoreCase behaviour
+    @ColumnInfo(name = "size", collate = ColumnInfo.NOCASE)
+    public String size;
+
+    // Price as received from the API (e.g. "500.00")
+    @ColumnInfo(name = "price")
+    public String price;
+
+    // Price parsed once, used for sorting
+    @ColumnInfo(name = "price_value")
+    public double priceValue;
+
+    @ColumnInfo(name = "image_url")
+    public String imageUrl;
+
+    @ColumnInfo(name = "image_thumb_url")
+    public String imageThumbUrl;
+
+    @ColumnInfo(name = "image_medium_url")
+    public String imageMediumUrl;
+
+    @ColumnInfo(name = "availability")
+    public boolean availability;
+
+    @ColumnInfo(name = "created_at")
+    public String createdAt;
+
+    @ColumnInfo(name = "updated_at")
+    public String updatedAt;
+
+    /**
+     * Build an entity from an API model
+     * @param caftan - Caftan received from the API
+     * @return Entity ready to be stored
+     */
+    @NonNull
+    public static CaftanEntity fromModel(@NonNull Caftan caftan) {
+        CaftanEntity entity = new CaftanEntity();
+        entity.id = caftan.getId();
+        entity.name = caftan.getName();
+        entity.size = caftan.getSize();
+        entity.price = caftan.getPrice();
+        entity.priceValue = parsePrice(caftan.getPrice());
+        entity.imageUrl = caftan.getImageUrl();
+        entity.imageThumbUrl = caftan.getImageThumbUrl();
+        entity.imageMediumUrl = caftan.getImageMediumUrl();
+        entity.availability = caftan.isAvailability();
+        entity.createdAt = caftan.getCreatedAt();
+        entity.updatedAt = caftan.getUpdatedAt();
+        return entity;
+    }
+
+    /**
+     * Convert back to the model used by the UI
+     * @return Caftan model
+     */
+    @NonNull
+    public Caftan toModel() {
+        Caftan caftan = new Caftan();
+        caftan.setId(id);
+        caftan.setName(name);
+        caftan.setSize(size);
+        caftan.setPrice(price);
+        caftan.setImageUrl(imageUrl);
+        caftan.setImageThumbUrl(imageThumbUrl);
+        caftan.setImageMediumUrl(imageMediumUrl);
+        caftan.setAvailability(availability);
+        caftan.setCreatedAt(createdAt);
+        caftan.setUpdatedAt(updatedAt);
+        return caftan;
+    }
+
+    /**
+     * Parse a price string, unparseable prices sort as 0
+     */
+    private static double parsePrice(String price) {
+        if (price == null) {
+            return 0;
+        }
+        try {
+            return Double.parseDouble(price);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.frontend.data;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.frontend.api.ApiClient;
+import com.example.frontend.images.ImageRequests;
+import com.example.frontend.models.Caftan;
+import com.example.frontend.models.SingleCaftanResponse;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * CaftanHandoff - Hands the caftan shown in the list over to DetailsActivity
+ *
+ * When a list row is pressed (before the click is even confirmed):
+ * - the Caftan object the list already holds is kept for the details screen
+ * - the detail-size image starts downloading into Glide's disk cache
+ * - GET /caftans/{id} starts, unless the caftan is known to be fresh
+ *
+ * DetailsActivity renders the handed-over caftan immediately, then joins the
+ * request already in flight instead of starting a second one.
+ *
+ * Must be used from the main thread (Retrofit callbacks already are).
+ */
+public class CaftanHandoff {
+
+    private static final String TAG = "CaftanHandoff";
+
+    // A caftan confirmed by the server less than this long ago is not fetched again
+    private static final long FRESH_MILLIS = 30_000;
+
+    // Caftans kept for the details screen (most recently pressed)
+    private static final int MAX_ENTRIES = 8;
+
+    /**
+     * Receives the up-to-date caftan
+     */
+    public interface Listener {
+        void onCaftan(Caftan caftan);
+
+        void onError(String message, Throwable t);
+    }
+
+    /**
+     * What is known about one caftan
+     */
+    private static final class Entry {
+        Caftan caftan;
+        long confirmedAt;                                 // elapsedRealtime of the last server confirmation, 0 if never
+        Call<SingleCaftanResponse> inFlight;              // pending revalidation, or null
+        final List<Listener> waiting = new ArrayList<>(); // listeners of the pending revalidation
+    }
+
+    // Singleton instance
+    private static CaftanHandoff instance = null;
+
+    // Access-ordered so the least recently pressed caftan is dropped first
+    private final Map<Integer, Entry> entries = new LinkedHashMap<Integer, Entry>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Entry> eldest) {
+            return size() > MAX_ENTRIES && eldest.getValue().inFlight == null;
+        }
+    };
+
+    // elapsedRealtime of the last complete catalogue sync, 0 if none yet
+    private long catalogueSyncedAt = 0;
+
+    private CaftanHandoff() {
+    }
+
+    /**
+     * Get the handoff instance
+     * @return CaftanHandoff instance
+     */
+    public static CaftanHandoff getInstance() {
+        if (instance == null) {
+            instance = new CaftanHandoff();
+        }
+        return instance;
+    }
+
+    /**
+     * Record that the whole catalogue was just confirmed by the server
+     * (full page walk finished or delta applied)
+     */
+    public void markCatalogueSynced() {
+        catalogueSyncedAt = SystemClock.elapsedRealtime();
+    }
+
+    /**
+     * A list row was pressed: start everything the details screen will need
+     * @param context - Any context
+     * @param caftan - Caftan shown by the row
+     */
+    public void prefetch(@NonNull Context context, @NonNull Caftan caftan) {
+        Entry entry = offer(caftan);
+
+        ImageRequests.prefetchDetailImage(context, caftan);
+
+        if (!isFresh(entry) && entry.inFlight == null) {
+            revalidate(caftan.getId(), entry);
+        }
+    }
+
+    /**
+     * Caftan handed over by the list
+     * @param id - Caftan ID
+     * @return Last known caftan, or null if none
+     */
+    @Nullable
+    public Caftan peek(int id) {
+        Entry entry = entries.get(id);
+        return entry != null ? entry.caftan : null;
+    }
+
+    /**
+     * Get the up-to-date caftan
+     * Answers immediately when fresh, joins a pending request, or starts one
+     * @param id - Caftan ID
+     * @param listener - Receives the caftan (possibly synchronously)
+     */
+    public void get(int id, @NonNull Listener listener) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            entry = new Entry();
+            entries.put(id, entry);
+        }
+
+        if (entry.caftan != null && isFresh(entry)) {
+            Log.d(TAG, "Caftan " + id + " is fresh, no request");
+            listener.onCaftan(entry.caftan);
+            return;
+        }
+
+        entry.waiting.add(listener);
+        if (entry.inFlight == null) {
+            revalidate(id, entry);
+        }
+    }
+
+    /**
+     * Stop delivering to a listener (e.g. its activity is destroyed)
+     * The request itself continues and still updates the handoff
+     * @param listener - Listener given to get()
+     */
+    public void removeListener(@NonNull Listener listener) {
+        for (Entry entry : entries.values()) {
+            entry.waiting.remove(listener);
+        }
+    }
+
+    private Entry offer(Caftan caftan) {
+        Entry entry = entries.get(caftan.getId());
+        if (entry == null) {
+            entry = new Entry();
+            entries.put(caftan.getId(), entry);
+        }
+
+        // The list copy is as fresh as the last catalogue sync
+        if (entry.caftan == null || catalogueSyncedAt >= entry.confirmedAt) {
+            entry.caftan = caftan;
+            entry.confirmedAt = catalogueSyncedAt;
+        }
+        return entry;
+    }
+
+    private boolean isFresh(Entry entry) {
+        return entry.confirmedAt > 0
+                && SystemClock.elapsedRealtime() - entry.confirmedAt < FRESH_MILLIS;
+    }
+
+    /**
+     * Fetch GET /caftans/{id} (the HTTP cache turns it into a conditional request)
+     */
+    private void revalidate(int id, Entry entry) {
+        Call<SingleCaftanResponse> call = ApiClient.getApiService().getCaftan(id);
+        entry.inFlight = call;
+
+        call.enqueue(new Callback<SingleCaftanResponse>() {
+            @Override
+            public void onResponse(Call<SingleCaftanResponse> call, Response<SingleCaftanResponse> response) {
+                entry.inFlight = null;
+                SingleCaftanResponse body = response.body();
+
+                if (response.isSuccessful() && body != null && body.isSuccess() && body.getData() != null) {
+                    entry.caftan = body.getData();
+                    entry.confirmedAt = SystemClock.elapsedRealtime();
+                    for (Listener listener : drain(entry)) {
+                        listener.onCaftan(entry.caftan);
+                    }
+                } else {
+                    Log.e(TAG, "Revalidation of caftan " + id + " failed: " + response.code());
+                    for (Listener listener : drain(entry)) {
+                        listener.onError("Failed to load caftan details", null);
+                    }
+                }
+            }
+
+            @Override
+            public void onFailure(Call<SingleCaftanResponse> call, Throwable t) {
+                entry.inFlight = null;
+                Log.e(TAG, "Revalidation of caftan " + id + " failed: " + t.getMessage(), t);
+                for (Listener listener : drain(entry)) {
+                    listener.onError("Network error. Please check your connection.", t);
+                }
+            }
+        });
+    }
+
+    private static List<Listener> drain(Entry entry) {
+        List<Listener> listeners = new ArrayList<>(entry.waiting);
+        entry.waiting.clear();
+        return listeners;
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.frontend.data;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+
+import com.example.frontend.models.Caftan;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * CatalogueQueryEngine - Answers the size filter and price sort of MainActivity
+ *
+ * Runs indexed queries on the local store, off the main thread:
+ * - prices are parsed once, when a caftan is written, into the price_value column
+ * - the size filter uses the (size, price_value) index (NOCASE, like equalsIgnoreCase)
+ * - price sorting walks the price_value index instead of comparing strings
+ *
+ * Equal prices keep catalogue order (by ID) in both sort directions.
+ * A query returns only the first rows of the result (a window the screen
+ * grows while scrolling) and the number of matching caftans, so memory stays
+ * bounded by what is shown, not by the size of the catalogue.
+ * Results are delivered on the main thread.
+ */
+public class CatalogueQueryEngine {
+
+    // Sort orders for query()
+    public static final int SORT_NONE = 0;
+    public static final int SORT_PRICE_ASC = 1;
+    public static final int SORT_PRICE_DESC = 2;
+
+    /**
+     * First rows of a query, and how many caftans match in total
+     */
+    public static final class Result {
+        private final List<Caftan> caftans;
+        private final int total;
+
+        Result(List<Caftan> caftans, int total) {
+            this.caftans = caftans;
+            this.total = total;
+        }
+
+        public List<Caftan> getCaftans() {
+            return caftans;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+    }
+
+    // Shared by every engine: one query thread for the process, not one per activity
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private final CaftanDao dao;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    /**
+     * Constructor
+     * @param context - Any context (used to open the local store)
+     */
+    public CatalogueQueryEngine(Context context) {
+        this.dao = AppDatabase.getInstance(context).caftanDao();
+    }
+
+    /**
+     * Filter by size and sort by price with an indexed query
+     * @param size - Size to keep (case-insensitive), or null for all sizes
+     * @param sortOrder - SORT_NONE, SORT_PRICE_ASC or SORT_PRICE_DESC
+     * @param limit - Number of rows to return (the window shown by the screen)
+     * @param callback - Receives the first matching caftans and their total on the main thread
+     */
+    public void query(String size, int sortOrder, int limit, LocalStore.Callback<Result> callback) {
+        executor.execute(() -> {
+            List<CaftanEntity> entities;
+            int total;
+
+            if (size == null) {
+                if (sortOrder == SORT_PRICE_ASC) {
+                    entities = dao.getAllByPriceAsc(limit);
+                } else if (sortOrder == SORT_PRICE_DESC) {
+                    entities = dao.getAllByPriceDesc(limit);
+                } else {
+                    entities = dao.getFirst(limit);
+                }
+                total = dao.count();
+            } else {
+                if (sortOrder == SORT_PRICE_ASC) {
+                    entities = dao.getBySizeByPriceAsc(size, limit);
+                } else if (sortOrder == SORT_PRICE_DESC) {
+                    entities = dao.getBySizeByPriceDesc(size, limit);
+                } else {
+                    entities = dao.getBySize(size, limit);
+                }
+                total = dao.countBySize(size);
+            }
+
+            List<Caftan> caftans = new ArrayList<>(entities.size());
+            for (CaftanEntity entity : entities) {
+                caftans.add(entity.toModel());
+            }
+            Result result = new Result(caftans, total);
+            mainHandler.post(() -> callback.onResult(result));
+        });
+    }
+
+    /**
+     * Load the distinct sizes of the stored catalogue, in catalogue order
+     * @param callback - Receives the size labels on the main thread (empty before the first sync)
+     */
+    public void loadSizes(LocalStore.Callback<List<String>> callback) {
+        executor.execute(() -> {
+            List<String> sizes = dao.getSizes();
+            mainHandler.post(() -> callback.onResult(sizes));
+        });
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.frontend.data;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.List;
+
+/**
+ * CursorPager - Loads a cursor-paginated endpoint page by page
+ * When attached to a RecyclerView, the next page is requested as soon as the
+ * user scrolls within prefetchDistance rows of the end of the list.
+ *
+ * Must be used from the main thread (Retrofit callbacks already are).
+ *
+ * @param <T> Item type of a page
+ */
+public class CursorPager<T> {
+
+    /**
+     * Fetches one page, e.g. by calling an ApiService *Page() method
+     */
+    public interface PageLoader<T> {
+        void load(String cursor, int limit, PageResult<T> result);
+    }
+
+    /**
+     * Outcome of one page request
+     */
+    public interface PageResult<T> {
+        void onSuccess(List<T> items, String nextCursor);
+
+        void onError(String message, Throwable t);
+    }
+
+    /**
+     * Receives the pages in order
+     */
+    public interface Listener<T> {
+        /**
+         * @param items - Items of this page
+         * @param firstPage - true for the first page after refresh(), the caller should replace its list
+         * @param lastPage - true when there is nothing more to load
+         */
+        void onPageLoaded(List<T> items, boolean firstPage, boolean lastPage);
+
+        void onPageError(String message, Throwable t);
+    }
+
+    private final PageLoader<T> loader;
+    private final Listener<T> listener;
+    private final int pageSize;
+    private final int prefetchDistance;
+
+    // Paging state
+    private String nextCursor = null;
+    private int pagesLoaded = 0;
+    private boolean loading = false;
+    private boolean endReached = false;
+
+    // Incremented by refresh() so late answers for an old pass are dropped
+    private int generation = 0;
+
+    private RecyclerView recyclerView;
+
+    /**
+     * Constructor
+     * @param pageSize - Items requested per page
+     * @param prefetchDistance - Rows before the end of the list at which the next page is requested
+     * @param loader - Fetches a page
+     * @param listener - Receives the pages
+     */
+    public CursorPager(int pageSize, int prefetchDistance,
+                       @NonNull PageLoader<T> loader, @NonNull Listener<T> listener) {
+        this.pageSize = pageSize;
+        this.prefetchDistance = prefetchDistance;
+        this.loader = loader;
+        this.listener = listener;
+    }
+
+    /**
+     * Load more pages automatically while scrolling this list
+     * @param recyclerView - List using a LinearLayoutManager
+     */
+    public void attachTo(@NonNull RecyclerView recyclerView) {
+        this.recyclerView = recyclerView;
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView rv, int dx, int dy) {
+                if (dy > 0) {
+                    checkPrefetch();
+                }
+            }
+        });
+    }
+
+    /**
+     * Start again from the first page
+     */
+    public void refresh() {
+        generation++;
+        nextCursor = null;
+        pagesLoaded = 0;
+        loading = false;
+        endReached = false;
+        loadNextPage();
+    }
+
+    /**
+     * Request the next page, ignored while a page is loading or after the last page
+     */
+    public void loadNextPage() {
+        if (loading || endReached) {
+            return;
+        }
+
+        loading = true;
+        final int requestGeneration = generation;
+        final boolean firstPage = pagesLoaded == 0;
+
+        loader.load(nextCursor, pageSize, new PageResult<T>() {
+            @Override
+            public void onSuccess(List<T> items, String cursor) {
+                if (requestGeneration != generation) {
+                    return;
+                }
+                loading = false;
+                pagesLoaded++;
+                nextCursor = cursor;
+                endReached = cursor == null;
+
+                listener.onPageLoaded(items, firstPage, endReached);
+
+                // A short page may not fill the screen, so no scroll would trigger the next one
+                if (recyclerView != null) {
+                    recyclerView.post(CursorPager.this::checkPrefetch);
+                }
+            }
+
+            @Override
+            public void onError(String message, Throwable t) {
+                if (requestGeneration != generation) {
+                    return;
+                }
+                loading = false;
+                listener.onPageError(message, t);
+            }
+        });
+    }
+
+    /**
+     * @return true once the last page has been delivered
+     */
+    public boolean isEndReached() {
+        return endReached;
+    }
+
+    /**
+     * Load the next page if the last visible row is close to the end
+     */
+    private void checkPrefetch() {
+        // Nothing to continue until refresh() has started a page walk
+        if (pagesLoaded == 0) {
+            return;
+        }
+        if (recyclerView == null || !(recyclerView.getLayoutManager() instanceof LinearLayoutManager)) {
+            return;
+        }
+        LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+        int lastVisible = layoutManager.findLastVisibleItemPosition();
+        if (lastVisible >= layoutManager.getItemCount() - prefetchDistance) {
+            loadNextPage();
+        }
+    }
+}
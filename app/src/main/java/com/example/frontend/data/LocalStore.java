@@ -0,0 +1,352 @@
+package com.example.frontend.data;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.example.frontend.models.Caftan;
+import com.example.frontend.models.Rental;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * LocalStore - Offline-first access to caftans and rentals
+ * All database work runs on a single background thread,
+ * results are delivered on the main thread.
+ *
+ * Screens render from the store first (the catalogue through the indexed
+ * queries of CatalogueQueryEngine), then merge each page of fresh API
+ * data as it arrives (only the rows that changed are written) and call
+ * retain*() once the last page has been seen, to drop rows deleted on the server.
+ */
+public class LocalStore {
+
+    private static final String TAG = "LocalStore";
+
+    // Sync bookkeeping (server time of the last complete catalogue sync)
+    private static final String PREFS_NAME = "local_store";
+    private static final String KEY_CAFTAN_SYNC_TIME = "caftan_sync_time";
+
+    // IDs bound per "IN (...)" query (SQLite allows 999 variables on older devices)
+    private static final int MAX_QUERY_IDS = 500;
+
+    /**
+     * Result callback, always called on the main thread
+     */
+    public interface Callback<T> {
+        void onResult(T result);
+    }
+
+    // Singleton instance
+    private static volatile LocalStore instance = null;
+
+    private final AppDatabase database;
+    private final SharedPreferences prefs;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private LocalStore(Context context) {
+        this.database = AppDatabase.getInstance(context);
+        this.prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    /**
+     * Get the store instance
+     * @param context - Any context (the application context is kept)
+     * @return LocalStore instance
+     */
+    public static LocalStore getInstance(Context context) {
+        if (instance == null) {
+            synchronized (LocalStore.class) {
+                if (instance == null) {
+                    instance = new LocalStore(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Merge one page of caftans into the store (nothing is deleted)
+     * @param page - Caftans received from the API
+     * @param callback - Receives the number of rows inserted or updated
+     */
+    public void mergeCaftans(List<Caftan> page, Callback<Integer> callback) {
+        executor.execute(() -> {
+            int[] upserted = new int[1];
+            database.runInTransaction(() -> upserted[0] = mergeCaftansNow(page));
+            deliver(callback, upserted[0]);
+        });
+    }
+
+    /**
+     * Delete every stored caftan whose ID is not in keepIds
+     * Called once all pages of the catalogue have been seen
+     * @param keepIds - IDs returned by the API
+     * @param callback - Receives the number of rows deleted
+     */
+    public void retainCaftans(Set<Integer> keepIds, Callback<Integer> callback) {
+        executor.execute(() -> {
+            int[] deleted = new int[1];
+            database.runInTransaction(() -> deleted[0] = retainCaftansNow(keepIds));
+            deliver(callback, deleted[0]);
+        });
+    }
+
+    /**
+     * Apply a catalogue delta (GET /caftans?since=) to the store
+     * @param changed - Caftans created or modified on the server
+     * @param deletedIds - IDs of caftans deleted on the server
+     * @param callback - Receives the number of rows inserted, updated or deleted
+     */
+    public void applyCaftanDelta(List<Caftan> changed, List<Integer> deletedIds, Callback<Integer> callback) {
+        executor.execute(() -> {
+            int[] counts = new int[2];
+            database.runInTransaction(() -> {
+                counts[0] = mergeCaftansNow(changed);
+                if (!deletedIds.isEmpty()) {
+                    database.caftanDao().deleteByIds(deletedIds);
+                    counts[1] = deletedIds.size();
+                }
+            });
+
+            Log.d(TAG, "Caftan delta: " + counts[0] + " upserted, " + counts[1] + " deleted");
+            deliver(callback, counts[0] + counts[1]);
+        });
+    }
+
+    /**
+     * @return Server time of the last complete catalogue sync, or null if the store was never filled
+     */
+    public String getCaftanSyncTime() {
+        return prefs.getString(KEY_CAFTAN_SYNC_TIME, null);
+    }
+
+    /**
+     * Remember the server time to send as "since" on the next delta sync
+     * @param serverTime - server_time of the API response, or null to force a full sync
+     */
+    public void setCaftanSyncTime(String serverTime) {
+        prefs.edit().putString(KEY_CAFTAN_SYNC_TIME, serverTime).apply();
+    }
+
+    /**
+     * Load every stored rental, with its caftan attached when known
+     * @param callback - Receives the cached rentals (newest first)
+     */
+    public void loadRentals(Callback<List<Rental>> callback) {
+        executor.execute(() -> {
+            List<Rental> rentals = toRentalModels(database.rentalDao().getAll());
+            mainHandler.post(() -> callback.onResult(rentals));
+        });
+    }
+
+    /**
+     * Index the stored rentals of one caftan by date, for availability checks
+     * @param caftanId - Caftan ID
+     * @param callback - Receives the booked days of that caftan
+     */
+    public void loadRentalIndex(int caftanId, Callback<RentalIntervalIndex> callback) {
+        executor.execute(() -> {
+            RentalIntervalIndex index = RentalIntervalIndex.fromEntities(database.rentalDao().getByCaftan(caftanId));
+            mainHandler.post(() -> callback.onResult(index));
+        });
+    }
+
+    /**
+     * Merge one page of rentals into the store (nothing is deleted)
+     * @param page - Rentals received from the API
+     * @param callback - Receives the number of rows inserted or updated
+     */
+    public void mergeRentals(List<Rental> page, Callback<Integer> callback) {
+        executor.execute(() -> {
+            int[] upserted = new int[1];
+            database.runInTransaction(() -> upserted[0] = mergeRentalsNow(page));
+            deliver(callback, upserted[0]);
+        });
+    }
+
+    /**
+     * Delete every stored rental whose ID is not in keepIds
+     * Called once all pages of rentals have been seen
+     * @param keepIds - IDs returned by the API
+     * @param callback - Receives the number of rows deleted
+     */
+    public void retainRentals(Set<Integer> keepIds, Callback<Integer> callback) {
+        executor.execute(() -> {
+            int[] deleted = new int[1];
+            database.runInTransaction(() -> deleted[0] = retainRentalsNow(keepIds));
+            deliver(callback, deleted[0]);
+        });
+    }
+
+    /**
+     * Remove a single rental (after a successful delete)
+     * @param rentalId - ID of the deleted rental
+     */
+    public void deleteRental(int rentalId) {
+        executor.execute(() -> {
+            List<Integer> ids = new ArrayList<>();
+            ids.add(rentalId);
+            database.rentalDao().deleteByIds(ids);
+        });
+    }
+
+    // Write helpers (run on the background thread, inside a transaction)
+
+    private int mergeCaftansNow(List<Caftan> caftans) {
+        CaftanDao dao = database.caftanDao();
+
+        // Index the rows we already have for this batch by ID
+        Map<Integer, CaftanEntity> existing = new HashMap<>();
+        for (CaftanEntity entity : dao.getByIds(new ArrayList<>(idsOfCaftans(caftans)))) {
+            existing.put(entity.id, entity);
+        }
+
+        List<CaftanEntity> changed = new ArrayList<>();
+        for (Caftan caftan : caftans) {
+            CaftanEntity entity = CaftanEntity.fromModel(caftan);
+            CaftanEntity old = existing.get(entity.id);
+            if (old == null || !sameContent(old, entity)) {
+                changed.add(entity);
+            }
+        }
+
+        if (!changed.isEmpty()) {
+            dao.upsertAll(changed);
+        }
+        return changed.size();
+    }
+
+    private int retainCaftansNow(Set<Integer> keepIds) {
+        List<Integer> removed = new ArrayList<>();
+        for (Integer id : database.caftanDao().getAllIds()) {
+            if (!keepIds.contains(id)) {
+                removed.add(id);
+            }
+        }
+
+        if (!removed.isEmpty()) {
+            database.caftanDao().deleteByIds(removed);
+        }
+        return removed.size();
+    }
+
+    private int mergeRentalsNow(List<Rental> rentals) {
+        RentalDao dao = database.rentalDao();
+
+        Map<Integer, RentalEntity> existing = new HashMap<>();
+        for (RentalEntity entity : dao.getByIds(new ArrayList<>(idsOfRentals(rentals)))) {
+            existing.put(entity.id, entity);
+        }
+
+        List<RentalEntity> changed = new ArrayList<>();
+        for (Rental rental : rentals) {
+            RentalEntity entity = RentalEntity.fromModel(rental);
+            RentalEntity old = existing.get(entity.id);
+            if (old == null || !sameContent(old, entity)) {
+                changed.add(entity);
+            }
+        }
+
+        if (!changed.isEmpty()) {
+            dao.upsertAll(changed);
+        }
+        return changed.size();
+    }
+
+    private int retainRentalsNow(Set<Integer> keepIds) {
+        List<Integer> removed = new ArrayList<>();
+        for (Integer id : database.rentalDao().getAllIds()) {
+            if (!keepIds.contains(id)) {
+                removed.add(id);
+            }
+        }
+
+        if (!removed.isEmpty()) {
+            database.rentalDao().deleteByIds(removed);
+        }
+        return removed.size();
+    }
+
+    private <T> void deliver(Callback<T> callback, T result) {
+        if (callback != null) {
+            mainHandler.post(() -> callback.onResult(result));
+        }
+    }
+
+    // Conversion helpers (run on the background thread)
+
+    private static Set<Integer> idsOfCaftans(List<Caftan> caftans) {
+        Set<Integer> ids = new HashSet<>();
+        for (Caftan caftan : caftans) {
+            ids.add(caftan.getId());
+        }
+        return ids;
+    }
+
+    private static Set<Integer> idsOfRentals(List<Rental> rentals) {
+        Set<Integer> ids = new HashSet<>();
+        for (Rental rental : rentals) {
+            ids.add(rental.getId());
+        }
+        return ids;
+    }
+
+    private List<Rental> toRentalModels(List<RentalEntity> entities) {
+        // Join caftans in memory so each caftan is converted once; only the
+        // caftans these rentals reference are read, not the whole catalogue
+        Set<Integer> caftanIds = new HashSet<>();
+        for (RentalEntity entity : entities) {
+            caftanIds.add(entity.caftanId);
+        }
+        List<Integer> pending = new ArrayList<>(caftanIds);
+        Map<Integer, Caftan> caftansById = new HashMap<>();
+        for (int from = 0; from < pending.size(); from += MAX_QUERY_IDS) {
+            List<Integer> chunk = pending.subList(from, Math.min(from + MAX_QUERY_IDS, pending.size()));
+            for (CaftanEntity entity : database.caftanDao().getByIds(chunk)) {
+                caftansById.put(entity.id, entity.toModel());
+            }
+        }
+
+        List<Rental> rentals = new ArrayList<>(entities.size());
+        for (RentalEntity entity : entities) {
+            Rental rental = entity.toModel();
+            rental.setCaftan(caftansById.get(entity.caftanId));
+            rentals.add(rental);
+        }
+        return rentals;
+    }
+
+    private static boolean sameContent(CaftanEntity a, CaftanEntity b) {
+        return a.availability == b.availability
+                && Objects.equals(a.updatedAt, b.updatedAt)
+                && Objects.equals(a.name, b.name)
+                && Objects.equals(a.size, b.size)
+                && Objects.equals(a.price, b.price)
+                && Objects.equals(a.imageUrl, b.imageUrl)
+                && Objects.equals(a.imageThumbUrl, b.imageThumbUrl)
+                && Objects.equals(a.imageMediumUrl, b.imageMediumUrl)
+                && Objects.equals(a.createdAt, b.createdAt);
+    }
+
+    private static boolean sameContent(RentalEntity a, RentalEntity b) {
+        return a.caftanId == b.caftanId
+                && Objects.equals(a.updatedAt, b.updatedAt)
+                && Objects.equals(a.customerName, b.customerName)
+                && Objects.equals(a.startDate, b.startDate)
+                && Objects.equals(a.endDate, b.endDate)
+                && Objects.equals(a.totalPrice, b.totalPrice)
+                && Objects.equals(a.createdAt, b.createdAt);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.frontend.data;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+/**
+ * Data access object for queued rental mutations
+ */
+@Dao
+public interface OutboxDao {
+
+    // Oldest first, the order they were made in
+    @Query("SELECT * FROM outbox ORDER BY id")
+    List<OutboxEntity> getAll();
+
+    @Query("SELECT * FROM outbox ORDER BY id LIMIT :limit")
+    List<OutboxEntity> getOldest(int limit);
+
+    @Query("SELECT COUNT(*) FROM outbox WHERE type = 'delete' AND rental_id = :rentalId")
+    int countDeletes(int rentalId);
+
+    // A key already queued is ignored (returns -1)
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    long insert(OutboxEntity entry);
+
+    @Query("DELETE FROM outbox WHERE idempotency_key IN (:keys)")
+    void deleteByKeys(List<String> keys);
+}
@@ -0,0 +1,85 @@
+package com.example.frontend.data;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+import com.example.frontend.models.RentalOperation;
+
+/**
+ * Room entity for a rental mutation waiting to be sent (outbox)
+ * Rows are replayed in insertion order and removed once the server
+ * has given a final answer
+ */
+@Entity(
+        tableName = "outbox",
+        indices = {
+                @Index(value = {"idempotency_key"}, unique = true)
+        }
+)
+public class OutboxEntity {
+
+    @PrimaryKey(autoGenerate = true)
+    @ColumnInfo(name = "id")
+    public long id;
+
+    @NonNull
+    @ColumnInfo(name = "idempotency_key")
+    public String idempotencyKey = "";
+
+    @NonNull
+    @ColumnInfo(name = "type")
+    public String type = "";
+
+    @ColumnInfo(name = "customer_name")
+    public String customerName;
+
+    @ColumnInfo(name = "caftan_id")
+    public int caftanId;
+
+    @ColumnInfo(name = "start_date")
+    public String startDate;
+
+    @ColumnInfo(name = "end_date")
+    public String endDate;
+
+    @ColumnInfo(name = "rental_id")
+    public int rentalId;
+
+    /**
+     * Build an entity from an operation
+     * @param operation - Create or delete to queue
+     * @return Entity ready to be stored
+     */
+    @NonNull
+    public static OutboxEntity fromOperation(@NonNull RentalOperation operation) {
+        OutboxEntity entity = new OutboxEntity();
+        entity.idempotencyKey = operation.getKey();
+        entity.type = operation.getType();
+        entity.customerName = operation.getCustomerName();
+        entity.caftanId = operation.getCaftanId();
+        entity.startDate = operation.getStartDate();
+        entity.endDate = operation.getEndDate();
+        entity.rentalId = operation.getRentalId();
+        return entity;
+    }
+
+    /**
+     * Convert back to the operation sent to the API
+     * @return Rental operation
+     */
+    @NonNull
+    public RentalOperation toOperation() {
+        RentalOperation operation = new RentalOperation();
+        operation.setKey(idempotencyKey);
+        operation.setType(type);
+        operation.setCustomerName(customerName);
+        operation.setCaftanId(caftanId);
+        operation.setStartDate(startDate);
+        operation.setEndDate(endDate);
+        operation.setRentalId(rentalId);
+        return operation;
+    }
+}
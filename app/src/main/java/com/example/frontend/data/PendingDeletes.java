@@ -0,0 +1,88 @@
+package com.example.frontend.data;
+
+import androidx.annotation.Nullable;
+
+import com.example.frontend.models.Rental;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * PendingDeletes - Rentals deleted optimistically and not yet confirmed
+ *
+ * Each delete is known by its idempotency key and hides one rental ID until
+ * the server confirms or refuses it. The rental itself is kept when the delete
+ * was made in this run, so a refused delete can put it back; a delete restored
+ * from the outbox after a restart only has the ID.
+ *
+ * Not thread-safe: used from the main thread by RentalMutations.
+ */
+final class PendingDeletes {
+
+    // Rental ID hidden by each key, and the rental object when it is still known
+    private final Map<String, Integer> idsByKey = new HashMap<>();
+    private final Map<String, Rental> rentalsByKey = new HashMap<>();
+    private final Set<Integer> hiddenIds = new HashSet<>();
+
+    /**
+     * Hide a rental until its delete is confirmed or refused
+     * @param key - Idempotency key of the delete
+     * @param rentalId - ID of the deleted rental
+     * @param rental - Deleted rental, or null if only the ID is known (restored from the outbox)
+     */
+    void add(String key, int rentalId, @Nullable Rental rental) {
+        idsByKey.put(key, rentalId);
+        if (rental != null) {
+            rentalsByKey.put(key, rental);
+        }
+        hiddenIds.add(rentalId);
+    }
+
+    /**
+     * @param key - Idempotency key of the delete
+     * @return true if this delete is still pending
+     */
+    boolean containsKey(String key) {
+        return idsByKey.containsKey(key);
+    }
+
+    /**
+     * @param rentalId - Rental ID
+     * @return true if the rental is being deleted and must stay hidden
+     */
+    boolean isHidden(int rentalId) {
+        return hiddenIds.contains(rentalId);
+    }
+
+    /**
+     * Forget a delete the server accepted
+     * @param key - Idempotency key of the delete
+     * @return Deleted rental ID, or null if the key is unknown
+     */
+    @Nullable
+    Integer confirm(String key) {
+        rentalsByKey.remove(key);
+        Integer rentalId = idsByKey.remove(key);
+        if (rentalId != null) {
+            hiddenIds.remove(rentalId);
+        }
+        return rentalId;
+    }
+
+    /**
+     * Forget a delete the server refused, the rental is shown again
+     * @param key - Idempotency key of the delete
+     * @return Rental to put back, or null if only its ID was known (or the key is unknown)
+     */
+    @Nullable
+    Rental rollBack(String key) {
+        Rental rental = rentalsByKey.remove(key);
+        Integer rentalId = idsByKey.remove(key);
+        if (rentalId != null) {
+            hiddenIds.remove(rentalId);
+        }
+        return rental;
+    }
+}
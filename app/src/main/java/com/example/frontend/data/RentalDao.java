@@ -0,0 +1,34 @@
+package com.example.frontend.data;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+/**
+ * Data access object for locally stored rentals
+ */
+@Dao
+public interface RentalDao {
+
+    // Same order as GET /rentals (newest first)
+    @Query("SELECT * FROM rentals ORDER BY created_at DESC, id DESC")
+    List<RentalEntity> getAll();
+
+    @Query("SELECT * FROM rentals WHERE caftan_id = :caftanId ORDER BY start_date")
+    List<RentalEntity> getByCaftan(int caftanId);
+
+    @Query("SELECT * FROM rentals WHERE id IN (:ids)")
+    List<RentalEntity> getByIds(List<Integer> ids);
+
+    @Query("SELECT id FROM rentals")
+    List<Integer> getAllIds();
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertAll(List<RentalEntity> rentals);
+
+    @Query("DELETE FROM rentals WHERE id IN (:ids)")
+    void deleteByIds(List<Integer> ids);
+}
@@ -0,0 +1,86 @@
+package com.example.frontend.data;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+import com.example.frontend.models.Rental;
+
+/**
+ * Room entity for a locally stored rental
+ * The embedded caftan is not duplicated here, it is joined
+ * from the caftans table by caftan_id when rentals are loaded
+ */
+@Entity(
+        tableName = "rentals",
+        indices = {
+                @Index(value = {"caftan_id"}),
+                @Index(value = {"created_at"})
+        }
+)
+public class RentalEntity {
+
+    @PrimaryKey
+    @ColumnInfo(name = "id")
+    public int id;
+
+    @ColumnInfo(name = "customer_name")
+    public String customerName;
+
+    @ColumnInfo(name = "caftan_id")
+    public int caftanId;
+
+    @ColumnInfo(name = "start_date")
+    public String startDate;
+
+    @ColumnInfo(name = "end_date")
+    public String endDate;
+
+    @ColumnInfo(name = "total_price")
+    public String totalPrice;
+
+    @ColumnInfo(name = "created_at")
+    public String createdAt;
+
+    @ColumnInfo(name = "updated_at")
+    public String updatedAt;
+
+    /**
+     * Build an entity from an API model
+     * @param rental - Rental received from the API
+     * @return Entity ready to be stored
+     */
+    @NonNull
+    public static RentalEntity fromModel(@NonNull Rental rental) {
+        RentalEntity entity = new RentalEntity();
+        entity.id = rental.getId();
+        entity.customerName = rental.getCustomerName();
+        entity.caftanId = rental.getCaftanId();
+        entity.startDate = rental.getStartDate();
+        entity.endDate = rental.getEndDate();
+        entity.totalPrice = rental.getTotalPrice();
+        entity.createdAt = rental.getCreatedAt();
+        entity.updatedAt = rental.getUpdatedAt();
+        return entity;
+    }
+
+    /**
+     * Convert back to the model used by the UI (without its caftan)
+     * @return Rental model
+     */
+    @NonNull
+    public Rental toModel() {
+        Rental rental = new Rental();
+        rental.setId(id);
+        rental.setCustomerName(customerName);
+        rental.setCaftanId(caftanId);
+        rental.setStartDate(startDate);
+        rental.setEndDate(endDate);
+        rental.setTotalPrice(totalPrice);
+        rental.setCreatedAt(createdAt);
+        rental.setUpdatedAt(updatedAt);
+        return rental;
+    }
+}
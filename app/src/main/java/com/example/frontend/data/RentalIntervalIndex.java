@@ -0,0 +1,184 @@
+package com.example.frontend.data;
+
+import com.example.frontend.utils.DateFormats;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * RentalIntervalIndex - Booked days of one caftan, answers overlap queries in O(log n)
+ *
+ * A rental from start_date to end_date books the days [start, end): the end
+ * day is the return day, so a new rental may start on it (same rule as the
+ * overlap check of the API).
+ *
+ * The intervals are sorted by start once, and maxEnd[i] keeps the latest end
+ * among the first i + 1 intervals. [from, to) overlaps a rental if and only if
+ * one of the rentals starting before "to" ends after "from": a binary search
+ * for the last start before "to" and one lookup in maxEnd answer it.
+ *
+ * Immutable, can be shared between threads.
+ */
+public final class RentalIntervalIndex {
+
+    public static final RentalIntervalIndex EMPTY = new RentalIntervalIndex(new int[0], new int[0]);
+
+    private final int[] starts;  // epoch days, ascending
+    private final int[] maxEnd;  // maxEnd[i] = max(end[0..i])
+
+    private RentalIntervalIndex(int[] starts, int[] maxEnd) {
+        this.starts = starts;
+        this.maxEnd = maxEnd;
+    }
+
+    /**
+     * Build the index from the stored rentals of one caftan
+     * Rows with unreadable or empty date ranges are ignored
+     * @param rentals - Rentals of the caftan, in any order
+     * @return Index of their booked days
+     */
+    public static RentalIntervalIndex fromEntities(List<RentalEntity> rentals) {
+        long[] packed = new long[rentals.size()];
+        int count = 0;
+        for (RentalEntity rental : rentals) {
+            int start = DateFormats.parseEpochDay(rental.startDate);
+            int end = DateFormats.parseEpochDay(rental.endDate);
+            if (start == DateFormats.INVALID_DAY || end == DateFormats.INVALID_DAY || end <= start) {
+                continue;
+            }
+            packed[count++] = pack(start, end);
+        }
+        return fromPacked(packed, count);
+    }
+
+    /**
+     * Build an index from raw day ranges
+     * @param starts - First booked day of each range
+     * @param ends - Return day of each range (exclusive)
+     * @param count - Number of ranges to read
+     * @return Index of the ranges
+     */
+    public static RentalIntervalIndex fromRanges(int[] starts, int[] ends, int count) {
+        long[] packed = new long[count];
+        for (int i = 0; i < count; i++) {
+            packed[i] = pack(starts[i], ends[i]);
+        }
+        return fromPacked(packed, count);
+    }
+
+    /**
+     * Rebuild an index from the arrays written by toArrays()
+     * @param starts - Sorted start days
+     * @param maxEnd - Running maximum of the end days
+     * @return Index over the same intervals
+     */
+    public static RentalIntervalIndex fromArrays(int[] starts, int[] maxEnd) {
+        return new RentalIntervalIndex(starts, maxEnd);
+    }
+
+    /**
+     * @return { starts, maxEnd }, e.g. to put the index in a Parcel
+     */
+    public int[][] toArrays() {
+        return new int[][] { starts, maxEnd };
+    }
+
+    /**
+     * Combine two indexes, e.g. stored rentals and the server calendar
+     * (start, maxEnd) pairs cover exactly the same days as the original
+     * intervals, so they can be re-indexed as intervals
+     * @param other - Index to add
+     * @return Index of the days booked in either one
+     */
+    public RentalIntervalIndex merge(RentalIntervalIndex other) {
+        if (other.size() == 0) {
+            return this;
+        }
+        if (size() == 0) {
+            return other;
+        }
+        long[] packed = new long[size() + other.size()];
+        int count = 0;
+        for (int i = 0; i < starts.length; i++) {
+            packed[count++] = pack(starts[i], maxEnd[i]);
+        }
+        for (int i = 0; i < other.starts.length; i++) {
+            packed[count++] = pack(other.starts[i], other.maxEnd[i]);
+        }
+        return fromPacked(packed, count);
+    }
+
+    /**
+     * Check whether [from, to) shares at least one day with a rental
+     * @param from - First requested day (epoch day)
+     * @param to - Return day (epoch day, exclusive)
+     * @return true if the range is already booked, even partly
+     */
+    public boolean overlaps(int from, int to) {
+        if (to <= from) {
+            return false;
+        }
+        int last = lastStartBefore(to);
+        return last >= 0 && maxEnd[last] > from;
+    }
+
+    /**
+     * Check whether the caftan is out on a given day
+     * @param day - Epoch day
+     * @return true if a rental covers that day
+     */
+    public boolean isBooked(int day) {
+        return overlaps(day, day + 1);
+    }
+
+    /**
+     * @return Number of indexed rentals
+     */
+    public int size() {
+        return starts.length;
+    }
+
+    /**
+     * Start in the high bits, so sorting the longs sorts by start
+     */
+    private static long pack(int start, int end) {
+        return ((long) start << 32) | (end & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Sort packed intervals and compute the running maximum of their ends
+     */
+    private static RentalIntervalIndex fromPacked(long[] packed, int count) {
+        Arrays.sort(packed, 0, count);
+
+        int[] starts = new int[count];
+        int[] maxEnd = new int[count];
+        int latest = Integer.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            starts[i] = (int) (packed[i] >> 32);
+            latest = Math.max(latest, (int) packed[i]);
+            maxEnd[i] = latest;
+        }
+        return new RentalIntervalIndex(starts, maxEnd);
+    }
+
+    /**
+     * Binary search: index of the last rental starting strictly before a day
+     * @return Position in starts, or -1 if every rental starts on or after it
+     */
+    private int lastStartBefore(int day) {
+        int low = 0;
+        int high = starts.length - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] < day) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,348 @@
+package com.example.frontend.data;
+
+import android.content.Context;
+import android.util.Log;
+import android.widget.Toast;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.frontend.api.ApiClient;
+import com.example.frontend.models.Caftan;
+import com.example.frontend.models.Rental;
+import com.example.frontend.models.RentalOperation;
+import com.example.frontend.models.RentalReplayResponse;
+import com.example.frontend.models.RentalRequest;
+import com.example.frontend.models.RentalResponse;
+import com.example.frontend.utils.DateFormats;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * RentalMutations - Optimistic rental creation and deletion
+ *
+ * A mutation is applied to the local state first, the screen moves on
+ * without waiting, and the server response is reconciled afterwards:
+ * - create: a pending rental (negative temporary ID) is shown at once,
+ *   then replaced by the server copy, or removed if the server refuses it
+ * - delete: the rental leaves the list and the local store at once,
+ *   and is put back if the server refuses the delete
+ *
+ * Every mutation has an idempotency key. Without network, or when the
+ * server still reports that key in progress (409), it goes to the
+ * RentalOutbox with that key and stays pending until it is replayed, even
+ * across restarts; while the outbox is not empty, new mutations queue
+ * behind it so they are applied in order.
+ *
+ * Listeners receive the reconciliation to update only the affected row.
+ * Errors are shown with the application context, since the screen that
+ * started the mutation may already be closed.
+ *
+ * Must be used from the main thread (Retrofit callbacks already are).
+ */
+public class RentalMutations {
+
+    private static final String TAG = "RentalMutations";
+
+    /**
+     * Receives the outcome of optimistic mutations
+     */
+    public interface Listener {
+        // A pending rental was accepted, "confirmed" is the server copy
+        void onCreateConfirmed(Rental pending, Rental confirmed);
+
+        // A pending rental was refused and must disappear
+        void onCreateRolledBack(Rental pending);
+
+        // A deleted rental was refused and must reappear
+        void onDeleteRolledBack(Rental rental);
+    }
+
+    // Singleton instance
+    private static RentalMutations instance = null;
+
+    private final Context appContext;
+    private final LocalStore localStore;
+    private final RentalOutbox outbox;
+    private final List<Listener> listeners = new ArrayList<>();
+
+    // Pending creations by idempotency key, oldest first
+    private final Map<String, Rental> pendingCreates = new LinkedHashMap<>();
+
+    // Pending deletions by idempotency key, and the IDs they hide
+    private final PendingDeletes pendingDeletes = new PendingDeletes();
+
+    // Temporary IDs are negative, server IDs positive
+    private int nextTemporaryId = -1;
+
+    private RentalMutations(Context context) {
+        this.appContext = context.getApplicationContext();
+        this.localStore = LocalStore.getInstance(appContext);
+        this.outbox = RentalOutbox.getInstance(appContext);
+
+        // Operations queued before a restart are still pending
+        outbox.setListener(this::onReplayed);
+        outbox.loadPending(this::restorePending);
+    }
+
+    /**
+     * Get the mutations instance
+     * @param context - Any context (the application context is kept)
+     * @return RentalMutations instance
+     */
+    public static RentalMutations getInstance(Context context) {
+        if (instance == null) {
+            instance = new RentalMutations(context);
+        }
+        return instance;
+    }
+
+    public void addListener(@NonNull Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(@NonNull Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Create a rental optimistically
+     * @param request - Rental to create
+     * @param caftan - Caftan being rented, shown in the pending row (may be null)
+     * @param pricePerDay - Used for the estimated total of the pending row
+     * @return Pending rental, already visible through getPendingCreates()
+     */
+    public Rental createRental(@NonNull RentalRequest request, @Nullable Caftan caftan, double pricePerDay) {
+        String key = UUID.randomUUID().toString();
+        Rental pending = pendingRental(request.getCustomerName(), request.getCaftanId(),
+                request.getStartDate(), request.getEndDate());
+        pending.setCaftan(caftan);
+
+        // Start and end days are both charged, like Rental::totalPriceFor() on the server
+        int days = DateFormats.parseEpochDay(request.getEndDate()) - DateFormats.parseEpochDay(request.getStartDate()) + 1;
+        pending.setTotalPrice(String.format(Locale.US, "%.2f", days * pricePerDay));
+
+        pendingCreates.put(key, pending);
+
+        // Keep the order of what is already queued
+        if (outbox.hasPending()) {
+            outbox.enqueue(RentalOperation.create(key, request));
+            return pending;
+        }
+
+        ApiClient.getApiService().createRental(key, request).enqueue(new Callback<RentalResponse>() {
+            @Override
+            public void onResponse(Call<RentalResponse> call, Response<RentalResponse> response) {
+                RentalResponse body = response.body();
+                if (response.isSuccessful() && body != null && body.isSuccess()) {
+                    RentalResponse.RentalData data = body.getData();
+                    confirmCreate(key, data != null ? data.getRental() : null, data != null ? data.getCaftan() : null);
+                } else if (response.code() == 409) {
+                    // Same key still being processed after ApiClient's retries: it may
+                    // succeed, so keep it pending and let the outbox replay it by key
+                    outbox.enqueue(RentalOperation.create(key, request));
+                } else {
+                    rollBackCreate(key, createError(response.code()));
+                }
+                Log.d(TAG, "Create " + key + ": " + response.code());
+            }
+
+            @Override
+            public void onFailure(Call<RentalResponse> call, Throwable t) {
+                if (t instanceof IOException) {
+                    // Offline: keep it pending, the outbox sends it later
+                    outbox.enqueue(RentalOperation.create(key, request));
+                    Toast.makeText(appContext, "No connection. The rental will be sent automatically.",
+                            Toast.LENGTH_LONG).show();
+                } else {
+                    rollBackCreate(key, "Failed to create rental");
+                }
+                Log.e(TAG, "Create failed: " + t.getMessage(), t);
+            }
+        });
+        return pending;
+    }
+
+    /**
+     * Delete a rental optimistically
+     * The caller has already removed it from its list
+     * @param rental - Rental to delete
+     */
+    public void deleteRental(@NonNull Rental rental) {
+        String key = UUID.randomUUID().toString();
+        pendingDeletes.add(key, rental.getId(), rental);
+        localStore.deleteRental(rental.getId());
+
+        if (outbox.hasPending()) {
+            outbox.enqueue(RentalOperation.delete(key, rental.getId()));
+            return;
+        }
+
+        ApiClient.getApiService().deleteRental(rental.getId()).enqueue(new Callback<RentalResponse>() {
+            @Override
+            public void onResponse(Call<RentalResponse> call, Response<RentalResponse> response) {
+                // Already gone on the server: nothing to undo
+                if ((response.isSuccessful() && response.body() != null && response.body().isSuccess())
+                        || response.code() == 404) {
+                    confirmDelete(key);
+                } else {
+                    rollBackDelete(key, "Failed to delete rental");
+                }
+            }
+
+            @Override
+            public void onFailure(Call<RentalResponse> call, Throwable t) {
+                if (t instanceof IOException) {
+                    outbox.enqueue(RentalOperation.delete(key, rental.getId()));
+                    Toast.makeText(appContext, "No connection. The rental will be deleted automatically.",
+                            Toast.LENGTH_LONG).show();
+                } else {
+                    rollBackDelete(key, "Failed to delete rental");
+                }
+                Log.e(TAG, "Delete failed: " + t.getMessage(), t);
+            }
+        });
+    }
+
+    /**
+     * @return Rentals created but not yet confirmed, newest first
+     */
+    public List<Rental> getPendingCreates() {
+        List<Rental> pending = new ArrayList<>(pendingCreates.values());
+        Collections.reverse(pending);
+        return pending;
+    }
+
+    /**
+     * @param rentalId - Rental ID
+     * @return true if the rental is being deleted and must stay hidden
+     */
+    public boolean isPendingDelete(int rentalId) {
+        return pendingDeletes.isHidden(rentalId);
+    }
+
+    /**
+     * Outbox result: same reconciliation as a direct response
+     */
+    private void onReplayed(RentalOperation operation, RentalReplayResponse.Result result) {
+        int status = result.getStatus();
+        if (operation.isCreate()) {
+            Rental confirmed = result.getRental();
+            if (status == 200 || status == 201) {
+                confirmCreate(operation.getKey(), confirmed, confirmed != null ? confirmed.getCaftan() : null);
+            } else {
+                rollBackCreate(operation.getKey(), createError(status));
+            }
+        } else if (status == 200 || status == 404) {
+            confirmDelete(operation.getKey());
+        } else {
+            rollBackDelete(operation.getKey(), "Failed to delete rental");
+        }
+    }
+
+    /**
+     * Show the operations left in the outbox by a previous run as pending
+     */
+    private void restorePending(List<RentalOperation> operations) {
+        for (RentalOperation operation : operations) {
+            if (operation.isCreate()) {
+                if (!pendingCreates.containsKey(operation.getKey())) {
+                    pendingCreates.put(operation.getKey(), pendingRental(operation.getCustomerName(),
+                            operation.getCaftanId(), operation.getStartDate(), operation.getEndDate()));
+                }
+            } else if (!pendingDeletes.containsKey(operation.getKey())) {
+                // Only the ID is known after a restart, the key still confirms or refuses it
+                pendingDeletes.add(operation.getKey(), operation.getRentalId(), null);
+            }
+        }
+    }
+
+    private Rental pendingRental(String customerName, int caftanId, String startDate, String endDate) {
+        Rental pending = new Rental();
+        pending.setId(nextTemporaryId--);
+        pending.setCustomerName(customerName);
+        pending.setCaftanId(caftanId);
+        pending.setStartDate(startDate);
+        pending.setEndDate(endDate);
+        return pending;
+    }
+
+    private static String createError(int status) {
+        if (status == 422) {
+            return "Validation error. Please check your inputs.";
+        } else if (status == 400) {
+            return "This caftan is not available for the selected dates.";
+        }
+        return "Failed to create rental";
+    }
+
+    private void confirmCreate(String key, @Nullable Rental confirmed, @Nullable Caftan caftan) {
+        Rental pending = pendingCreates.remove(key);
+
+        if (confirmed == null) {
+            // Accepted but not echoed back: the next refresh brings it
+            if (pending != null) {
+                for (Listener listener : new ArrayList<>(listeners)) {
+                    listener.onCreateRolledBack(pending);
+                }
+            }
+            return;
+        }
+        if (confirmed.getCaftan() == null) {
+            confirmed.setCaftan(caftan != null ? caftan : pending != null ? pending.getCaftan() : null);
+        }
+
+        localStore.mergeRentals(Collections.singletonList(confirmed), null);
+
+        if (pending != null) {
+            for (Listener listener : new ArrayList<>(listeners)) {
+                listener.onCreateConfirmed(pending, confirmed);
+            }
+        }
+    }
+
+    private void rollBackCreate(String key, String message) {
+        Rental pending = pendingCreates.remove(key);
+        Toast.makeText(appContext, message, Toast.LENGTH_LONG).show();
+
+        if (pending != null) {
+            for (Listener listener : new ArrayList<>(listeners)) {
+                listener.onCreateRolledBack(pending);
+            }
+        }
+    }
+
+    private void confirmDelete(String key) {
+        Integer rentalId = pendingDeletes.confirm(key);
+        if (rentalId != null) {
+            Log.d(TAG, "Rental deleted: " + rentalId);
+        }
+    }
+
+    private void rollBackDelete(String key, String message) {
+        Rental rental = pendingDeletes.rollBack(key);
+        Toast.makeText(appContext, message, Toast.LENGTH_LONG).show();
+
+        // Queued before a restart: the ID is no longer hidden, but the rental
+        // object is gone, so the next refresh shows it again
+        if (rental == null) {
+            return;
+        }
+        localStore.mergeRentals(Collections.singletonList(rental), null);
+
+        for (Listener listener : new ArrayList<>(listeners)) {
+            listener.onDeleteRolledBack(rental);
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.example.frontend.data;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.example.frontend.api.ApiClient;
+import com.example.frontend.models.RentalOperation;
+import com.example.frontend.models.RentalReplayRequest;
+import com.example.frontend.models.RentalReplayResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import retrofit2.Response;
+
+/**
+ * RentalOutbox - Durable queue of rental creates and deletes made offline
+ *
+ * Operations are stored in the outbox table with their idempotency key, so
+ * they survive the app being closed. They are replayed oldest first through
+ * POST /rentals/replay, up to MAX_BATCH per request: a burst of bookings made
+ * offline costs one round-trip. The server recognizes keys it has already
+ * applied, so an operation sent twice (lost response) is applied once.
+ *
+ * Replay starts when the network comes back, when an operation is queued,
+ * and after a failure with exponential backoff (BASE_DELAY_MS doubled up to
+ * MAX_DELAY_MS). An operation leaves the outbox once the server has given it
+ * a final status; network errors, 5xx and 429 are retried. A whole batch
+ * refused with another 4xx (e.g. 413, 422) would be refused again on every
+ * retry: its operations are answered with that status and leave the outbox.
+ *
+ * Results are delivered on the main thread. Public methods must be called
+ * from the main thread.
+ */
+public class RentalOutbox {
+
+    private static final String TAG = "RentalOutbox";
+
+    // Operations per POST /rentals/replay (server limit)
+    private static final int MAX_BATCH = 100;
+
+    // Retry delays after a failed replay
+    private static final long BASE_DELAY_MS = 1_000;
+    private static final long MAX_DELAY_MS = 5 * 60_000;
+
+    /**
+     * Receives the final result of each replayed operation (main thread)
+     */
+    public interface Listener {
+        void onReplayed(RentalOperation operation, RentalReplayResponse.Result result);
+    }
+
+    // Singleton instance
+    private static RentalOutbox instance = null;
+
+    private final Context appContext;
+    private final OutboxDao dao;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Runnable retry = this::replay;
+
+    private Listener listener;
+
+    // Keys queued and not answered yet (main thread)
+    private final Set<String> queuedKeys = new HashSet<>();
+
+    private boolean started = false;
+    private boolean replaying = false;
+    private boolean replayAgain = false;
+    private int failedAttempts = 0;
+
+    private RentalOutbox(Context context) {
+        this.appContext = context.getApplicationContext();
+        this.dao = AppDatabase.getInstance(appContext).outboxDao();
+    }
+
+    /**
+     * Get the outbox instance
+     * @param context - Any context (the application context is kept)
+     * @return RentalOutbox instance
+     */
+    public static RentalOutbox getInstance(Context context) {
+        if (instance == null) {
+            instance = new RentalOutbox(context);
+        }
+        return instance;
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Watch connectivity and replay what is left from a previous run
+     * Called once at application start
+     */
+    public void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+
+        ConnectivityManager connectivity = appContext.getSystemService(ConnectivityManager.class);
+        if (connectivity != null) {
+            connectivity.registerDefaultNetworkCallback(new ConnectivityManager.NetworkCallback() {
+                @Override
+                public void onAvailable(@NonNull Network network) {
+                    mainHandler.post(RentalOutbox.this::onNetworkAvailable);
+                }
+            });
+        }
+        replay();
+    }
+
+    /**
+     * Load the operations still queued (e.g. to show them after a restart)
+     * @param callback - Receives the operations, oldest first
+     */
+    public void loadPending(LocalStore.Callback<List<RentalOperation>> callback) {
+        executor.execute(() -> {
+            List<RentalOperation> operations = new ArrayList<>();
+            for (OutboxEntity entry : dao.getAll()) {
+                operations.add(entry.toOperation());
+            }
+            mainHandler.post(() -> {
+                for (RentalOperation operation : operations) {
+                    queuedKeys.add(operation.getKey());
+                }
+                callback.onResult(operations);
+            });
+        });
+    }
+
+    /**
+     * Store an operation and replay the outbox
+     * A second delete of the same rental is ignored
+     * @param operation - Create or delete to send
+     */
+    public void enqueue(@NonNull RentalOperation operation) {
+        queuedKeys.add(operation.getKey());
+
+        executor.execute(() -> {
+            boolean duplicate = !operation.isCreate() && dao.countDeletes(operation.getRentalId()) > 0;
+            if (duplicate || dao.insert(OutboxEntity.fromOperation(operation)) == -1) {
+                mainHandler.post(() -> queuedKeys.remove(operation.getKey()));
+                Log.d(TAG, "Already queued: " + operation.getKey());
+            }
+        });
+        replay();
+    }
+
+    /**
+     * @return true while operations are waiting: new ones should be queued
+     *         behind them rather than sent directly, to keep their order
+     */
+    public boolean hasPending() {
+        return !queuedKeys.isEmpty();
+    }
+
+    /**
+     * Send everything queued now (skipped if a replay is already running)
+     */
+    public void replay() {
+        mainHandler.removeCallbacks(retry);
+        if (replaying) {
+            replayAgain = true;
+            return;
+        }
+        replaying = true;
+        replayAgain = false;
+        executor.execute(this::drain);
+    }
+
+    private void onNetworkAvailable() {
+        // A new network: retry at once, not after the current backoff
+        failedAttempts = 0;
+        replay();
+    }
+
+    /**
+     * Replay batches until the outbox is empty or a batch fails (background thread)
+     */
+    private void drain() {
+        boolean failed = false;
+        try {
+            while (true) {
+                List<OutboxEntity> entries = dao.getOldest(MAX_BATCH);
+                if (entries.isEmpty()) {
+                    break;
+                }
+
+                Map<String, RentalOperation> operations = new HashMap<>();
+                List<RentalOperation> batch = new ArrayList<>(entries.size());
+                for (OutboxEntity entry : entries) {
+                    RentalOperation operation = entry.toOperation();
+                    operations.put(operation.getKey(), operation);
+                    batch.add(operation);
+                }
+
+                Response<RentalReplayResponse> response = ApiClient.getApiService()
+                        .replayRentals(new RentalReplayRequest(batch))
+                        .execute();
+                if (!response.isSuccessful() && !isRetryable(response.code())) {
+                    // Permanent refusal: roll the batch back instead of retrying it forever
+                    Log.e(TAG, "Replay rejected: " + response.code() + ", dropping " + batch.size() + " operations");
+                    List<RentalReplayResponse.Result> rejected = rejectAll(batch, response.code());
+                    dao.deleteByKeys(new ArrayList<>(operations.keySet()));
+                    mainHandler.post(() -> deliver(operations, rejected));
+                    continue;
+                }
+
+                RentalReplayResponse body = response.body();
+                if (!response.isSuccessful() || body == null || body.getData() == null) {
+                    Log.e(TAG, "Replay refused: " + response.code());
+                    failed = true;
+                    break;
+                }
+
+                // Drop the operations with a final answer, keep the others for the retry
+                List<String> done = new ArrayList<>();
+                List<RentalReplayResponse.Result> delivered = new ArrayList<>();
+                for (RentalReplayResponse.Result result : body.getData()) {
+                    if (isRetryable(result.getStatus())) {
+                        failed = true;
+                    } else if (operations.containsKey(result.getKey())) {
+                        done.add(result.getKey());
+                        delivered.add(result);
+                    }
+                }
+                if (!done.isEmpty()) {
+                    dao.deleteByKeys(done);
+                }
+                mainHandler.post(() -> deliver(operations, delivered));
+
+                Log.d(TAG, "Replayed " + done.size() + " of " + batch.size() + " operations");
+                if (failed || done.isEmpty()) {
+                    failed = true;
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            // Still offline: the network callback or the backoff will retry
+            Log.e(TAG, "Replay failed: " + e.getMessage());
+            failed = true;
+        }
+
+        boolean retryLater = failed;
+        mainHandler.post(() -> onDrained(retryLater));
+    }
+
+    /**
+     * @return true for statuses worth sending again later (server errors, rate limit)
+     */
+    private static boolean isRetryable(int status) {
+        return status >= 500 || status == 429;
+    }
+
+    /**
+     * One result per operation of a batch refused as a whole
+     * @param batch - Operations sent
+     * @param status - HTTP status of the replay request
+     * @return Results carrying that status
+     */
+    private static List<RentalReplayResponse.Result> rejectAll(List<RentalOperation> batch, int status) {
+        List<RentalReplayResponse.Result> results = new ArrayList<>(batch.size());
+        for (RentalOperation operation : batch) {
+            RentalReplayResponse.Result result = new RentalReplayResponse.Result();
+            result.setKey(operation.getKey());
+            result.setRentalId(operation.getRentalId());
+            result.setStatus(status);
+            result.setMessage("Replay rejected by the server (" + status + ")");
+            results.add(result);
+        }
+        return results;
+    }
+
+    private void deliver(Map<String, RentalOperation> operations, List<RentalReplayResponse.Result> results) {
+        for (RentalReplayResponse.Result result : results) {
+            queuedKeys.remove(result.getKey());
+            if (listener != null) {
+                listener.onReplayed(operations.get(result.getKey()), result);
+            }
+        }
+    }
+
+    private void onDrained(boolean retryLater) {
+        replaying = false;
+
+        if (!retryLater) {
+            failedAttempts = 0;
+            if (replayAgain) {
+                replay();
+            }
+            return;
+        }
+
+        // 1 s, 2 s, 4 s, ... up to MAX_DELAY_MS
+        long delay = Math.min(BASE_DELAY_MS << Math.min(failedAttempts, 20), MAX_DELAY_MS);
+        failedAttempts++;
+        mainHandler.postDelayed(retry, delay);
+        Log.d(TAG, "Next replay in " + delay + " ms");
+    }
+}
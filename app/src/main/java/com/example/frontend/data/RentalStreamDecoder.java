@@ -0,0 +1,251 @@
+package com.example.frontend.data;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+
+import com.example.frontend.models.Caftan;
+import com.example.frontend.models.ModelTypeAdapterFactory;
+import com.example.frontend.models.Rental;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * RentalStreamDecoder - Decodes a page of GET /rentals while it is still downloading
+ *
+ * The "data" array is read rental by rental straight from the response
+ * source (the call must be @Streaming, so Retrofit does not buffer it).
+ * Every batchSize rentals, the batch is handed to the main thread: the first
+ * screen of rentals is shown while the rest of the page is still arriving.
+ * One decoder reads one page; the caller follows next_cursor for the next one.
+ *
+ * In the normalized format, the "caftans" dictionary comes before "data":
+ * each rental is linked to its shared caftan as soon as it is decoded.
+ */
+public class RentalStreamDecoder {
+
+    /**
+     * Receives the rentals on the main thread, in response order
+     */
+    public interface Listener {
+        /**
+         * @param batch - Next rentals of the response
+         * @param firstBatch - true for the first batch, the caller should replace its list
+         */
+        void onBatch(List<Rental> batch, boolean firstBatch);
+
+        /**
+         * @param total - Number of rentals decoded
+         * @param nextCursor - Cursor of the next page, null on the last page
+         */
+        void onComplete(int total, String nextCursor);
+
+        void onError(String message, Throwable t);
+    }
+
+    // Decoding runs off the main thread, one body at a time
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final int batchSize;
+    private final Listener listener;
+
+    // Set by cancel(), checked between rentals and before each delivery
+    private volatile boolean canceled = false;
+
+    // Call being decoded, canceled by cancel() to stop the download itself
+    private Call<ResponseBody> call;
+
+    /**
+     * Constructor
+     * @param batchSize - Rentals per delivered batch (e.g. one screen)
+     * @param listener - Receives the batches
+     */
+    public RentalStreamDecoder(int batchSize, @NonNull Listener listener) {
+        this.batchSize = batchSize;
+        this.listener = listener;
+    }
+
+    /**
+     * Send the call and decode its body in the background as it arrives
+     * Must be called from the main thread, once per decoder
+     * @param call - @Streaming GET /rentals page call
+     */
+    public void start(@NonNull Call<ResponseBody> call) {
+        this.call = call;
+        call.enqueue(new Callback<ResponseBody>() {
+            @Override
+            public void onResponse(@NonNull Call<ResponseBody> call, @NonNull Response<ResponseBody> response) {
+                ResponseBody body = response.body();
+                if (response.isSuccessful() && body != null) {
+                    // Only the headers have arrived, the body is read in the background
+                    decode(body);
+                    return;
+                }
+                if (body != null) {
+                    body.close();
+                }
+                post(() -> listener.onError("Failed to load rentals", null));
+            }
+
+            @Override
+            public void onFailure(@NonNull Call<ResponseBody> call, @NonNull Throwable t) {
+                post(() -> listener.onError("Network error. Please check your connection.", t));
+            }
+        });
+    }
+
+    /**
+     * Stop downloading and delivering batches
+     * The connection is closed, so a body being read fails at once and is
+     * closed by the decoding thread; a body not read yet is closed unread
+     */
+    public void cancel() {
+        canceled = true;
+        if (call != null) {
+            call.cancel();
+        }
+    }
+
+    private void decode(ResponseBody body) {
+        executor.execute(() -> {
+            try (ResponseBody source = body; JsonReader reader = new JsonReader(source.charStream())) {
+                if (!canceled) {
+                    readEnvelope(reader);
+                }
+            } catch (IOException | IllegalStateException | NumberFormatException e) {
+                // IllegalStateException / NumberFormatException: malformed JSON
+                post(() -> listener.onError("Failed to load rentals", e));
+            }
+        });
+    }
+
+    private void readEnvelope(JsonReader reader) throws IOException {
+        boolean success = true;
+        String message = null;
+        int total = 0;
+        boolean sawData = false;
+        String nextCursor = null;
+        Map<Integer, Caftan> caftans = Collections.emptyMap();
+
+        reader.beginObject();
+        while (reader.hasNext() && !canceled) {
+            switch (reader.nextName()) {
+                case "success":
+                    if (reader.peek() == JsonToken.BOOLEAN) {
+                        success = reader.nextBoolean();
+                    } else {
+                        reader.skipValue();
+                    }
+                    break;
+                case "message":
+                    if (reader.peek() == JsonToken.STRING) {
+                        message = reader.nextString();
+                    } else {
+                        reader.skipValue();
+                    }
+                    break;
+                case "caftans":
+                    caftans = ModelTypeAdapterFactory.readCaftanMap(reader);
+                    break;
+                case "data":
+                    // "success" comes first in the API envelope, stop early on a failure
+                    if (!success || reader.peek() != JsonToken.BEGIN_ARRAY) {
+                        reader.skipValue();
+                        break;
+                    }
+                    sawData = true;
+                    total = readRentals(reader, caftans);
+                    break;
+                case "next_cursor":
+                    if (reader.peek() == JsonToken.STRING) {
+                        nextCursor = reader.nextString();
+                    } else {
+                        reader.skipValue();
+                    }
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+
+        if (canceled) {
+            return;
+        }
+        if (!success || !sawData) {
+            String error = message != null ? message : "No rentals found";
+            post(() -> listener.onError(error, null));
+            return;
+        }
+
+        final int decoded = total;
+        final String cursor = nextCursor;
+        post(() -> listener.onComplete(decoded, cursor));
+    }
+
+    /**
+     * Read the "data" array, delivering a batch every batchSize rentals
+     * @param caftans - Shared caftans of a normalized response (empty otherwise)
+     * @return Number of rentals read
+     */
+    private int readRentals(JsonReader reader, Map<Integer, Caftan> caftans) throws IOException {
+        int total = 0;
+        boolean first = true;
+        List<Rental> batch = new ArrayList<>(batchSize);
+
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (canceled) {
+                return total;
+            }
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+
+            Rental rental = ModelTypeAdapterFactory.readRental(reader);
+            ModelTypeAdapterFactory.resolveCaftan(rental, caftans);
+            batch.add(rental);
+            total++;
+
+            if (batch.size() == batchSize) {
+                deliver(batch, first);
+                first = false;
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        reader.endArray();
+
+        // Last partial batch, or an empty first batch so the caller clears its list
+        if (!batch.isEmpty() || first) {
+            deliver(batch, first);
+        }
+        return total;
+    }
+
+    private void deliver(List<Rental> batch, boolean firstBatch) {
+        post(() -> listener.onBatch(batch, firstBatch));
+    }
+
+    private void post(Runnable runnable) {
+        mainHandler.post(() -> {
+            if (!canceled) {
+                runnable.run();
+            }
+        });
+    }
+}
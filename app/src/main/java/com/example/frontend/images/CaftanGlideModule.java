@@ -0,0 +1,57 @@
+package com.example.frontend.images;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.GlideBuilder;
+import com.bumptech.glide.annotation.GlideModule;
+import com.bumptech.glide.load.DecodeFormat;
+import com.bumptech.glide.load.engine.DiskCacheStrategy;
+import com.bumptech.glide.load.engine.bitmap_recycle.LruBitmapPool;
+import com.bumptech.glide.load.engine.cache.InternalCacheDiskCacheFactory;
+import com.bumptech.glide.load.engine.cache.LruResourceCache;
+import com.bumptech.glide.load.engine.cache.MemorySizeCalculator;
+import com.bumptech.glide.module.AppGlideModule;
+import com.bumptech.glide.request.RequestOptions;
+
+/**
+ * CaftanGlideModule - App-wide Glide configuration
+ * - memory cache and bitmap pool sized in screens of pixels
+ * - a dedicated disk cache for decoded (downsampled) images
+ * - RGB_565 decoding: caftan photos have no alpha, this halves bitmap memory
+ */
+@GlideModule
+public class CaftanGlideModule extends AppGlideModule {
+
+    // Disk cache for resized images
+    private static final String DISK_CACHE_NAME = "image_cache";
+    private static final long DISK_CACHE_SIZE_BYTES = 150L * 1024 * 1024; // 150 MB
+
+    // Memory budget, in full screens of pixels
+    private static final float MEMORY_CACHE_SCREENS = 3;
+    private static final float BITMAP_POOL_SCREENS = 3;
+
+    @Override
+    public void applyOptions(@NonNull Context context, @NonNull GlideBuilder builder) {
+        MemorySizeCalculator calculator = new MemorySizeCalculator.Builder(context)
+                .setMemoryCacheScreens(MEMORY_CACHE_SCREENS)
+                .setBitmapPoolScreens(BITMAP_POOL_SCREENS)
+                .build();
+
+        builder.setMemoryCache(new LruResourceCache(calculator.getMemoryCacheSize()));
+        builder.setBitmapPool(new LruBitmapPool(calculator.getBitmapPoolSize()));
+        builder.setDiskCache(new InternalCacheDiskCacheFactory(context, DISK_CACHE_NAME, DISK_CACHE_SIZE_BYTES));
+
+        builder.setDefaultRequestOptions(new RequestOptions()
+                .format(DecodeFormat.PREFER_RGB_565)
+                // Keeps the original and the resized versions of remote images
+                .diskCacheStrategy(DiskCacheStrategy.ALL));
+    }
+
+    @Override
+    public boolean isManifestParsingEnabled() {
+        // No library modules declared in the manifest, skip the lookup
+        return false;
+    }
+}
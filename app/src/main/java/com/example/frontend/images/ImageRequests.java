@@ -0,0 +1,108 @@
+package com.example.frontend.images;
+
+import android.content.Context;
+import android.graphics.drawable.Drawable;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+import com.example.frontend.R;
+import com.example.frontend.models.Caftan;
+
+/**
+ * ImageRequests - Shared Glide requests for caftan images
+ *
+ * List rows decode images at exactly the list cell size, so a multi-MB
+ * photo becomes a small bitmap. The details screen uses the same request
+ * as its thumbnail: it is already in the memory cache and shows instantly
+ * while the full-size image loads.
+ *
+ * When the server provides resized WebP variants, the smallest variant
+ * that still covers the target size is downloaded instead of the original.
+ */
+public final class ImageRequests {
+
+    // Longest side of the server variants (Caftan::IMAGE_VARIANTS in the backend)
+    private static final int THUMB_MAX_PX = 400;
+    private static final int MEDIUM_MAX_PX = 1080;
+
+    private ImageRequests() {
+    }
+
+    /**
+     * Pick the image URL to download for a target size
+     * Falls back to a larger variant, then to the original, when a variant is missing
+     * @param caftan - Caftan to display
+     * @param targetPx - Largest side of the target view in pixels
+     * @return Image URL, or null if the caftan has no image
+     */
+    public static String urlFor(Caftan caftan, int targetPx) {
+        if (targetPx <= THUMB_MAX_PX && notEmpty(caftan.getImageThumbUrl())) {
+            return caftan.getImageThumbUrl();
+        }
+        if (targetPx <= MEDIUM_MAX_PX && notEmpty(caftan.getImageMediumUrl())) {
+            return caftan.getImageMediumUrl();
+        }
+        return caftan.getImageUrl();
+    }
+
+    /**
+     * Image downsampled to the list cell size (centre-cropped)
+     * @param context - Context used to read the cell size
+     * @param requestManager - Glide.with(...) of the calling screen
+     * @param caftan - Caftan to display
+     * @return Request ready for into()
+     */
+    public static RequestBuilder<Drawable> listThumbnail(Context context, RequestManager requestManager, Caftan caftan) {
+        int size = listThumbnailSize(context);
+        return requestManager
+                .load(urlFor(caftan, size))
+                .override(size, size)
+                .centerCrop()
+                .placeholder(R.drawable.ic_launcher_background)  // Placeholder while loading
+                .error(R.drawable.ic_launcher_background);  // Error image if load fails
+    }
+
+    /**
+     * Detail image sized for the screen width, with the list thumbnail as instant placeholder
+     * @param context - Context used to read the screen and cell sizes
+     * @param requestManager - Glide.with(...) of the calling screen
+     * @param caftan - Caftan to display
+     * @return Request ready for into()
+     */
+    public static RequestBuilder<Drawable> detailImage(Context context, RequestManager requestManager, Caftan caftan) {
+        int screenWidth = context.getResources().getDisplayMetrics().widthPixels;
+        return requestManager
+                .load(urlFor(caftan, screenWidth))
+                .thumbnail(listThumbnail(context, requestManager, caftan))
+                .error(R.drawable.ic_launcher_background);
+    }
+
+    /**
+     * @return List cell size in pixels
+     */
+    public static int listThumbnailSize(Context context) {
+        return context.getResources().getDimensionPixelSize(R.dimen.list_thumbnail_size);
+    }
+
+    /**
+     * Download the detail image into the disk cache (no decoding)
+     * Started when a list row is pressed, before the details screen exists
+     * @param context - Any context
+     * @param caftan - Caftan whose detail image is prefetched
+     */
+    public static void prefetchDetailImage(Context context, Caftan caftan) {
+        int screenWidth = context.getResources().getDisplayMetrics().widthPixels;
+        String url = urlFor(caftan, screenWidth);
+        if (notEmpty(url)) {
+            Glide.with(context.getApplicationContext())
+                    .downloadOnly()
+                    .load(url)
+                    .preload();
+        }
+    }
+
+    private static boolean notEmpty(String url) {
+        return url != null && !url.isEmpty();
+    }
+}
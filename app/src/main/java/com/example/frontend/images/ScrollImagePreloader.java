@@ -0,0 +1,176 @@
+package com.example.frontend.images;
+
+import android.content.Context;
+import android.graphics.drawable.Drawable;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.request.target.CustomTarget;
+import com.bumptech.glide.request.transition.Transition;
+import com.example.frontend.models.Caftan;
+
+/**
+ * ScrollImagePreloader - Loads list images ahead of the scroll
+ *
+ * While the list scrolls, the images of the next maxPreload rows in the
+ * scroll direction are requested with exactly the same Glide request as
+ * the rows use (ImageRequests.listThumbnail), so they are downloaded and
+ * decoded at cell size before the rows are bound.
+ *
+ * - At most maxPreload preloads are in flight: a fixed set of targets is
+ *   reused in turn, and reusing a target cancels its previous request
+ * - When the scroll direction reverses, every pending preload is cancelled
+ *
+ * Must be used from the main thread.
+ */
+public class ScrollImagePreloader extends RecyclerView.OnScrollListener {
+
+    /**
+     * Gives the caftan shown at an adapter position
+     */
+    public interface ItemSource {
+        int getItemCount();
+
+        @Nullable
+        Caftan getCaftanAt(int position);
+    }
+
+    private final Context context;
+    private final RequestManager requestManager;
+    private final ItemSource itemSource;
+    private final int maxPreload;
+
+    // Reused targets, one per in-flight preload
+    private final PreloadTarget[] targets;
+    private int nextTarget = 0;
+
+    // Rows already requested in the current direction: [requestedStart, requestedEnd)
+    private int requestedStart = 0;
+    private int requestedEnd = 0;
+    private boolean scrollingDown = true;
+
+    /**
+     * Constructor
+     * @param context - Context used for request sizes
+     * @param requestManager - Glide.with(...) of the screen (preloads stop with it)
+     * @param itemSource - Rows of the list
+     * @param maxPreload - Rows loaded ahead, also the number of concurrent preloads
+     */
+    public ScrollImagePreloader(@NonNull Context context, @NonNull RequestManager requestManager,
+                                @NonNull ItemSource itemSource, int maxPreload) {
+        this.context = context;
+        this.requestManager = requestManager;
+        this.itemSource = itemSource;
+        this.maxPreload = maxPreload;
+
+        int size = ImageRequests.listThumbnailSize(context);
+        targets = new PreloadTarget[maxPreload];
+        for (int i = 0; i < maxPreload; i++) {
+            targets[i] = new PreloadTarget(size);
+        }
+    }
+
+    @Override
+    public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+        if (dy == 0 || !(recyclerView.getLayoutManager() instanceof LinearLayoutManager)) {
+            return;
+        }
+        LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+
+        boolean down = dy > 0;
+        if (down != scrollingDown) {
+            // Rows that were ahead are now behind: stop loading them
+            cancelAll();
+            scrollingDown = down;
+        }
+
+        if (down) {
+            int lastVisible = layoutManager.findLastVisibleItemPosition();
+            if (lastVisible != RecyclerView.NO_POSITION) {
+                preload(lastVisible + 1, lastVisible + 1 + maxPreload);
+            }
+        } else {
+            int firstVisible = layoutManager.findFirstVisibleItemPosition();
+            if (firstVisible != RecyclerView.NO_POSITION) {
+                preload(firstVisible - maxPreload, firstVisible);
+            }
+        }
+    }
+
+    /**
+     * Cancel every pending preload (e.g. when the list content is replaced)
+     */
+    public void cancelAll() {
+        for (PreloadTarget target : targets) {
+            requestManager.clear(target);
+        }
+        requestedStart = 0;
+        requestedEnd = 0;
+    }
+
+    /**
+     * Request the rows of [from, to) that were not requested yet
+     */
+    private void preload(int from, int to) {
+        from = Math.max(0, from);
+        to = Math.min(itemSource.getItemCount(), to);
+        if (from >= to) {
+            return;
+        }
+
+        if (scrollingDown) {
+            // Skip the part of the window requested by a previous scroll event
+            int start = Math.max(from, requestedEnd);
+            for (int position = start; position < to; position++) {
+                load(position);
+            }
+        } else {
+            // Closest rows first when scrolling up
+            int end = requestedEnd > requestedStart ? Math.min(to, requestedStart) : to;
+            for (int position = end - 1; position >= from; position--) {
+                load(position);
+            }
+        }
+
+        requestedStart = from;
+        requestedEnd = to;
+    }
+
+    private void load(int position) {
+        Caftan caftan = itemSource.getCaftanAt(position);
+        if (caftan == null) {
+            return;
+        }
+
+        // Reusing a target cancels its previous preload: the budget stays bounded
+        PreloadTarget target = targets[nextTarget];
+        nextTarget = (nextTarget + 1) % targets.length;
+        requestManager.clear(target);
+
+        ImageRequests.listThumbnail(context, requestManager, caftan).into(target);
+    }
+
+    /**
+     * Target that only keeps the decoded image in Glide's caches
+     */
+    private static final class PreloadTarget extends CustomTarget<Drawable> {
+
+        PreloadTarget(int size) {
+            super(size, size);
+        }
+
+        @Override
+        public void onResourceReady(@NonNull Drawable resource, @Nullable Transition<? super Drawable> transition) {
+            // Nothing to display, the image is now cached for the row
+        }
+
+        @Override
+        public void onLoadCleared(@Nullable Drawable placeholder) {
+            // Nothing to release
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.frontend.models;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * Response model for the availability calendar of a caftan
+ * Matches the API response for GET /caftans/{id}/availability
+ */
+public class AvailabilityResponse {
+
+    @SerializedName("success")
+    private boolean success;
+
+    @SerializedName("message")
+    private String message;
+
+    @SerializedName("data")
+    private AvailabilityData data;
+
+    // Constructor
+    public AvailabilityResponse() {
+    }
+
+    // Getters and Setters
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public AvailabilityData getData() {
+        return data;
+    }
+
+    public void setData(AvailabilityData data) {
+        this.data = data;
+    }
+
+    /**
+     * Inner class representing the booked days of a window
+     * booked is a base64 bitset: bit i (byte i / 8, least significant bit first)
+     * is set when day from + i is booked
+     */
+    public static class AvailabilityData {
+        @SerializedName("caftan_id")
+        private int caftanId;
+
+        @SerializedName("from")
+        private String from;
+
+        @SerializedName("to")
+        private String to;
+
+        @SerializedName("days")
+        private int days;
+
+        @SerializedName("booked")
+        private String booked;
+
+        // Getters and Setters
+        public int getCaftanId() {
+            return caftanId;
+        }
+
+        public void setCaftanId(int caftanId) {
+            this.caftanId = caftanId;
+        }
+
+        public String getFrom() {
+            return from;
+        }
+
+        public void setFrom(String from) {
+            this.from = from;
+        }
+
+        public String getTo() {
+            return to;
+        }
+
+        public void setTo(String to) {
+            this.to = to;
+        }
+
+        public int getDays() {
+            return days;
+        }
+
+        public void setDays(int days) {
+            this.days = days;
+        }
+
+        public String getBooked() {
+            return booked;
+        }
+
+        public void setBooked(String booked) {
+            this.booked = booked;
+        }
+    }
+}
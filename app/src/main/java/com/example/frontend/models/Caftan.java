@@ -24,6 +24,13 @@ public class Caftan {
     @SerializedName("image_url")
     private String imageUrl;
 
+    // Resized WebP variants, null until the server has generated them
+    @SerializedName("image_thumb_url")
+    private String imageThumbUrl;
+
+    @SerializedName("image_medium_url")
+    private String imageMediumUrl;
+
     @SerializedName("availability")
     private boolean availability;
 
@@ -78,6 +85,22 @@ public class Caftan {
         this.imageUrl = imageUrl;
     }
 
+    public String getImageThumbUrl() {
+        return imageThumbUrl;
+    }
+
+    public void setImageThumbUrl(String imageThumbUrl) {
+        this.imageThumbUrl = imageThumbUrl;
+    }
+
+    public String getImageMediumUrl() {
+        return imageMediumUrl;
+    }
+
+    public void setImageMediumUrl(String imageMediumUrl) {
+        this.imageMediumUrl = imageMediumUrl;
+    }
+
     public boolean isAvailability() {
         return availability;
     }
@@ -0,0 +1,74 @@
+package com.example.frontend.models;
+
+import com.google.gson.annotations.SerializedName;
+import java.util.List;
+
+/**
+ * Response model for catalogue changes
+ * Matches the API response for GET /caftans?since={serverTime}
+ */
+public class CaftanDeltaResponse {
+
+    @SerializedName("success")
+    private boolean success;
+
+    @SerializedName("message")
+    private String message;
+
+    // Caftans created or modified since the requested time
+    @SerializedName("data")
+    private List<Caftan> data;
+
+    // IDs of caftans deleted since the requested time
+    @SerializedName("deleted")
+    private List<Integer> deleted;
+
+    // Value to send as "since" on the next sync
+    @SerializedName("server_time")
+    private String serverTime;
+
+    // Constructor
+    public CaftanDeltaResponse() {
+    }
+
+    // Getters and Setters
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public List<Caftan> getData() {
+        return data;
+    }
+
+    public void setData(List<Caftan> data) {
+        this.data = data;
+    }
+
+    public List<Integer> getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(List<Integer> deleted) {
+        this.deleted = deleted;
+    }
+
+    public String getServerTime() {
+        return serverTime;
+    }
+
+    public void setServerTime(String serverTime) {
+        this.serverTime = serverTime;
+    }
+}
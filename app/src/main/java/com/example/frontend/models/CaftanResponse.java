@@ -18,6 +18,14 @@ public class CaftanResponse {
     @SerializedName("data")
     private List<Caftan> data;
 
+    // Cursor of the next page (paginated requests only, null on the last page)
+    @SerializedName("next_cursor")
+    private String nextCursor;
+
+    // Server time when the list was read, used as "since" for the next delta sync
+    @SerializedName("server_time")
+    private String serverTime;
+
     // Constructor
     public CaftanResponse() {
     }
@@ -46,5 +54,21 @@ public class CaftanResponse {
     public void setData(List<Caftan> data) {
         this.data = data;
     }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public String getServerTime() {
+        return serverTime;
+    }
+
+    public void setServerTime(String serverTime) {
+        this.serverTime = serverTime;
+    }
 }
 
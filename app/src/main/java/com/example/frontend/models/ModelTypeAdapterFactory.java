@@ -0,0 +1,1094 @@
+package com.example.frontend.models;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ModelTypeAdapterFactory - Hand-written streaming Gson adapters for every model
+ *
+ * Gson's default adapters read fields through reflection: the first parse of
+ * each class pays for scanning its fields, and every field of every object is
+ * then set reflectively. These adapters read the JSON tokens straight into the
+ * setters instead, and read nested caftans/rentals directly without another
+ * adapter lookup.
+ *
+ * Behaviour matches the reflective adapters:
+ * - unknown keys are skipped, missing keys keep the default value
+ * - null for an int/boolean keeps the default, strings accept numbers ("price": 500)
+ * - booleans accept "true"/"false" strings, numbers are rejected
+ * - nulls are not written (Gson's default)
+ *
+ * Two deliberate additions for normalized rental lists (RentalListResponse):
+ * an empty "caftans" array is read as an empty dictionary, and rentals that
+ * only carry caftan_id get the caftan of the dictionary.
+ *
+ * Register with GsonBuilder.registerTypeAdapterFactory(ModelTypeAdapterFactory.INSTANCE).
+ * A new field in a model must also be added here: ModelTypeAdapterFactoryTest
+ * compares every registered type with the reflective adapters and fails otherwise.
+ */
+public final class ModelTypeAdapterFactory implements TypeAdapterFactory {
+
+    public static final ModelTypeAdapterFactory INSTANCE = new ModelTypeAdapterFactory();
+
+    private ModelTypeAdapterFactory() {
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        Class<? super T> rawType = type.getRawType();
+        TypeAdapter<?> adapter;
+
+        if (rawType == Caftan.class) {
+            adapter = CAFTAN;
+        } else if (rawType == Rental.class) {
+            adapter = RENTAL;
+        } else if (rawType == CaftanResponse.class) {
+            adapter = CAFTAN_RESPONSE;
+        } else if (rawType == CaftanDeltaResponse.class) {
+            adapter = CAFTAN_DELTA_RESPONSE;
+        } else if (rawType == SingleCaftanResponse.class) {
+            adapter = SINGLE_CAFTAN_RESPONSE;
+        } else if (rawType == RentalListResponse.class) {
+            adapter = RENTAL_LIST_RESPONSE;
+        } else if (rawType == RentalResponse.class) {
+            adapter = RENTAL_RESPONSE;
+        } else if (rawType == RentalResponse.RentalData.class) {
+            adapter = RENTAL_DATA;
+        } else if (rawType == AvailabilityResponse.class) {
+            adapter = AVAILABILITY_RESPONSE;
+        } else if (rawType == AvailabilityResponse.AvailabilityData.class) {
+            adapter = AVAILABILITY_DATA;
+        } else if (rawType == RentalReplayResponse.class) {
+            adapter = RENTAL_REPLAY_RESPONSE;
+        } else if (rawType == RentalReplayResponse.Result.class) {
+            adapter = REPLAY_RESULT;
+        } else if (rawType == RentalRequest.class) {
+            adapter = RENTAL_REQUEST;
+        } else if (rawType == RentalOperation.class) {
+            adapter = RENTAL_OPERATION;
+        } else if (rawType == RentalReplayRequest.class) {
+            adapter = RENTAL_REPLAY_REQUEST;
+        } else if (rawType == RentalBatchRequest.class) {
+            adapter = RENTAL_BATCH_REQUEST;
+        } else if (rawType == RentalDeleteBatchRequest.class) {
+            adapter = RENTAL_DELETE_BATCH_REQUEST;
+        } else {
+            return null;
+        }
+        return (TypeAdapter<T>) adapter.nullSafe();
+    }
+
+    // Models
+
+    /**
+     * Read one caftan object (the reader is positioned on its BEGIN_OBJECT)
+     * @param in - JSON reader
+     * @return Caftan
+     */
+    public static Caftan readCaftan(JsonReader in) throws IOException {
+        Caftan caftan = new Caftan();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id":
+                    caftan.setId(readInt(in, caftan.getId()));
+                    break;
+                case "name":
+                    caftan.setName(readString(in));
+                    break;
+                case "size":
+                    caftan.setSize(readString(in));
+                    break;
+                case "price":
+                    caftan.setPrice(readString(in));
+                    break;
+                case "image_url":
+                    caftan.setImageUrl(readString(in));
+                    break;
+                case "image_thumb_url":
+                    caftan.setImageThumbUrl(readString(in));
+                    break;
+                case "image_medium_url":
+                    caftan.setImageMediumUrl(readString(in));
+                    break;
+                case "availability":
+                    caftan.setAvailability(readBoolean(in, caftan.isAvailability()));
+                    break;
+                case "created_at":
+                    caftan.setCreatedAt(readString(in));
+                    break;
+                case "updated_at":
+                    caftan.setUpdatedAt(readString(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return caftan;
+    }
+
+    /**
+     * Read one rental object, including its nested caftan
+     * @param in - JSON reader
+     * @return Rental
+     */
+    public static Rental readRental(JsonReader in) throws IOException {
+        Rental rental = new Rental();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id":
+                    rental.setId(readInt(in, rental.getId()));
+                    break;
+                case "customer_name":
+                    rental.setCustomerName(readString(in));
+                    break;
+                case "caftan_id":
+                    rental.setCaftanId(readInt(in, rental.getCaftanId()));
+                    break;
+                case "start_date":
+                    rental.setStartDate(readString(in));
+                    break;
+                case "end_date":
+                    rental.setEndDate(readString(in));
+                    break;
+                case "total_price":
+                    rental.setTotalPrice(readString(in));
+                    break;
+                case "caftan":
+                    rental.setCaftan(readNullableCaftan(in));
+                    break;
+                case "created_at":
+                    rental.setCreatedAt(readString(in));
+                    break;
+                case "updated_at":
+                    rental.setUpdatedAt(readString(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return rental;
+    }
+
+    private static final TypeAdapter<Caftan> CAFTAN = new TypeAdapter<Caftan>() {
+        @Override
+        public void write(JsonWriter out, Caftan caftan) throws IOException {
+            writeCaftan(out, caftan);
+        }
+
+        @Override
+        public Caftan read(JsonReader in) throws IOException {
+            return readCaftan(in);
+        }
+    };
+
+    private static final TypeAdapter<Rental> RENTAL = new TypeAdapter<Rental>() {
+        @Override
+        public void write(JsonWriter out, Rental rental) throws IOException {
+            writeRental(out, rental);
+        }
+
+        @Override
+        public Rental read(JsonReader in) throws IOException {
+            return readRental(in);
+        }
+    };
+
+    // Response envelopes
+
+    private static final TypeAdapter<CaftanResponse> CAFTAN_RESPONSE = new TypeAdapter<CaftanResponse>() {
+        @Override
+        public void write(JsonWriter out, CaftanResponse response) throws IOException {
+            out.beginObject();
+            out.name("success").value(response.isSuccess());
+            writeString(out, "message", response.getMessage());
+            if (response.getData() != null) {
+                out.name("data").beginArray();
+                for (Caftan caftan : response.getData()) {
+                    writeCaftan(out, caftan);
+                }
+                out.endArray();
+            }
+            writeString(out, "next_cursor", response.getNextCursor());
+            writeString(out, "server_time", response.getServerTime());
+            out.endObject();
+        }
+
+        @Override
+        public CaftanResponse read(JsonReader in) throws IOException {
+            CaftanResponse response = new CaftanResponse();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "success":
+                        response.setSuccess(readBoolean(in, response.isSuccess()));
+                        break;
+                    case "message":
+                        response.setMessage(readString(in));
+                        break;
+                    case "data":
+                        response.setData(readCaftanList(in));
+                        break;
+                    case "next_cursor":
+                        response.setNextCursor(readString(in));
+                        break;
+                    case "server_time":
+                        response.setServerTime(readString(in));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return response;
+        }
+    };
+
+    private static final TypeAdapter<CaftanDeltaResponse> CAFTAN_DELTA_RESPONSE = new TypeAdapter<CaftanDeltaResponse>() {
+        @Override
+        public void write(JsonWriter out, CaftanDeltaResponse response) throws IOException {
+            out.beginObject();
+            out.name("success").value(response.isSuccess());
+            writeString(out, "message", response.getMessage());
+            if (response.getData() != null) {
+                out.name("data").beginArray();
+                for (Caftan caftan : response.getData()) {
+                    writeCaftan(out, caftan);
+                }
+                out.endArray();
+            }
+            if (response.getDeleted() != null) {
+                out.name("deleted").beginArray();
+                for (Integer id : response.getDeleted()) {
+                    out.value(id);
+                }
+                out.endArray();
+            }
+            writeString(out, "server_time", response.getServerTime());
+            out.endObject();
+        }
+
+        @Override
+        public CaftanDeltaResponse read(JsonReader in) throws IOException {
+            CaftanDeltaResponse response = new CaftanDeltaResponse();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "success":
+                        response.setSuccess(readBoolean(in, response.isSuccess()));
+                        break;
+                    case "message":
+                        response.setMessage(readString(in));
+                        break;
+                    case "data":
+                        response.setData(readCaftanList(in));
+                        break;
+                    case "deleted":
+                        response.setDeleted(readIntegerList(in));
+                        break;
+                    case "server_time":
+                        response.setServerTime(readString(in));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return response;
+        }
+    };
+
+    private static final TypeAdapter<SingleCaftanResponse> SINGLE_CAFTAN_RESPONSE = new TypeAdapter<SingleCaftanResponse>() {
+        @Override
+        public void write(JsonWriter out, SingleCaftanResponse response) throws IOException {
+            out.beginObject();
+            out.name("success").value(response.isSuccess());
+            writeString(out, "message", response.getMessage());
+            if (response.getData() != null) {
+                out.name("data");
+                writeCaftan(out, response.getData());
+            }
+            out.endObject();
+        }
+
+        @Override
+        public SingleCaftanResponse read(JsonReader in) throws IOException {
+            SingleCaftanResponse response = new SingleCaftanResponse();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "success":
+                        response.setSuccess(readBoolean(in, response.isSuccess()));
+                        break;
+                    case "message":
+                        response.setMessage(readString(in));
+                        break;
+                    case "data":
+                        response.setData(readNullableCaftan(in));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return response;
+        }
+    };
+
+    private static final TypeAdapter<RentalListResponse> RENTAL_LIST_RESPONSE = new TypeAdapter<RentalListResponse>() {
+        @Override
+        public void write(JsonWriter out, RentalListResponse response) throws IOException {
+            out.beginObject();
+            out.name("success").value(response.isSuccess());
+            writeString(out, "message", response.getMessage());
+            if (response.getCaftans() != null) {
+                out.name("caftans").beginObject();
+                for (Map.Entry<Integer, Caftan> entry : response.getCaftans().entrySet()) {
+                    out.name(String.valueOf(entry.getKey()));
+                    writeCaftan(out, entry.getValue());
+                }
+                out.endObject();
+            }
+            if (response.getData() != null) {
+                out.name("data").beginArray();
+                for (Rental rental : response.getData()) {
+                    writeRental(out, rental);
+                }
+                out.endArray();
+            }
+            writeString(out, "next_cursor", response.getNextCursor());
+            out.endObject();
+        }
+
+        @Override
+        public RentalListResponse read(JsonReader in) throws IOException {
+            RentalListResponse response = new RentalListResponse();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "success":
+                        response.setSuccess(readBoolean(in, response.isSuccess()));
+                        break;
+                    case "message":
+                        response.setMessage(readString(in));
+                        break;
+                    case "caftans":
+                        response.setCaftans(readNullableCaftanMap(in));
+                        break;
+                    case "data":
+                        response.setData(readRentalList(in));
+                        break;
+                    case "next_cursor":
+                        response.setNextCursor(readString(in));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+
+            // Normalized format: point every rental at the shared caftan instance
+            if (response.getData() != null && response.getCaftans() != null) {
+                for (Rental rental : response.getData()) {
+                    resolveCaftan(rental, response.getCaftans());
+                }
+            }
+            return response;
+        }
+    };
+
+    private static final TypeAdapter<RentalResponse> RENTAL_RESPONSE = new TypeAdapter<RentalResponse>() {
+        @Override
+        public void write(JsonWriter out, RentalResponse response) throws IOException {
+            out.beginObject();
+            out.name("success").value(response.isSuccess());
+            writeString(out, "message", response.getMessage());
+            if (response.getData() != null) {
+                out.name("data");
+                RENTAL_DATA.write(out, response.getData());
+            }
+            out.endObject();
+        }
+
+        @Override
+        public RentalResponse read(JsonReader in) throws IOException {
+            RentalResponse response = new RentalResponse();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "success":
+                        response.setSuccess(readBoolean(in, response.isSuccess()));
+                        break;
+                    case "message":
+                        response.setMessage(readString(in));
+                        break;
+                    case "data":
+                        if (in.peek() == JsonToken.NULL) {
+                            in.nextNull();
+                        } else {
+                            response.setData(RENTAL_DATA.read(in));
+                        }
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return response;
+        }
+    };
+
+    private static final TypeAdapter<RentalResponse.RentalData> RENTAL_DATA = new TypeAdapter<RentalResponse.RentalData>() {
+        @Override
+        public void write(JsonWriter out, RentalResponse.RentalData data) throws IOException {
+            out.beginObject();
+            out.name("id").value(data.getId());
+            writeString(out, "customer_name", data.getCustomerName());
+            out.name("caftan_id").value(data.getCaftanId());
+            writeString(out, "start_date", data.getStartDate());
+            writeString(out, "end_date", data.getEndDate());
+            if (data.getRental() != null) {
+                out.name("rental");
+                writeRental(out, data.getRental());
+            }
+            if (data.getCaftan() != null) {
+                out.name("caftan");
+                writeCaftan(out, data.getCaftan());
+            }
+            out.endObject();
+        }
+
+        @Override
+        public RentalResponse.RentalData read(JsonReader in) throws IOException {
+            RentalResponse.RentalData data = new RentalResponse.RentalData();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id":
+                        data.setId(readInt(in, data.getId()));
+                        break;
+                    case "customer_name":
+                        data.setCustomerName(readString(in));
+                        break;
+                    case "caftan_id":
+                        data.setCaftanId(readInt(in, data.getCaftanId()));
+                        break;
+                    case "start_date":
+                        data.setStartDate(readString(in));
+                        break;
+                    case "end_date":
+                        data.setEndDate(readString(in));
+                        break;
+                    case "rental":
+                        data.setRental(readNullableRental(in));
+                        break;
+                    case "caftan":
+                        data.setCaftan(readNullableCaftan(in));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return data;
+        }
+    };
+
+    private static final TypeAdapter<AvailabilityResponse> AVAILABILITY_RESPONSE = new TypeAdapter<AvailabilityResponse>() {
+        @Override
+        public void write(JsonWriter out, AvailabilityResponse response) throws IOException {
+            out.beginObject();
+            out.name("success").value(response.isSuccess());
+            writeString(out, "message", response.getMessage());
+            if (response.getData() != null) {
+                out.name("data");
+                AVAILABILITY_DATA.write(out, response.getData());
+            }
+            out.endObject();
+        }
+
+        @Override
+        public AvailabilityResponse read(JsonReader in) throws IOException {
+            AvailabilityResponse response = new AvailabilityResponse();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "success":
+                        response.setSuccess(readBoolean(in, response.isSuccess()));
+                        break;
+                    case "message":
+                        response.setMessage(readString(in));
+                        break;
+                    case "data":
+                        if (in.peek() == JsonToken.NULL) {
+                            in.nextNull();
+                        } else {
+                            response.setData(AVAILABILITY_DATA.read(in));
+                        }
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return response;
+        }
+    };
+
+    private static final TypeAdapter<AvailabilityResponse.AvailabilityData> AVAILABILITY_DATA = new TypeAdapter<AvailabilityResponse.AvailabilityData>() {
+        @Override
+        public void write(JsonWriter out, AvailabilityResponse.AvailabilityData data) throws IOException {
+            out.beginObject();
+            out.name("caftan_id").value(data.getCaftanId());
+            writeString(out, "from", data.getFrom());
+            writeString(out, "to", data.getTo());
+            out.name("days").value(data.getDays());
+            writeString(out, "booked", data.getBooked());
+            out.endObject();
+        }
+
+        @Override
+        public AvailabilityResponse.AvailabilityData read(JsonReader in) throws IOException {
+            AvailabilityResponse.AvailabilityData data = new AvailabilityResponse.AvailabilityData();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "caftan_id":
+                        data.setCaftanId(readInt(in, data.getCaftanId()));
+                        break;
+                    case "from":
+                        data.setFrom(readString(in));
+                        break;
+                    case "to":
+                        data.setTo(readString(in));
+                        break;
+                    case "days":
+                        data.setDays(readInt(in, data.getDays()));
+                        break;
+                    case "booked":
+                        data.setBooked(readString(in));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return data;
+        }
+    };
+
+    private static final TypeAdapter<RentalReplayResponse> RENTAL_REPLAY_RESPONSE = new TypeAdapter<RentalReplayResponse>() {
+        @Override
+        public void write(JsonWriter out, RentalReplayResponse response) throws IOException {
+            out.beginObject();
+            out.name("success").value(response.isSuccess());
+            writeString(out, "message", response.getMessage());
+            if (response.getData() != null) {
+                out.name("data").beginArray();
+                for (RentalReplayResponse.Result result : response.getData()) {
+                    REPLAY_RESULT.write(out, result);
+                }
+                out.endArray();
+            }
+            out.endObject();
+        }
+
+        @Override
+        public RentalReplayResponse read(JsonReader in) throws IOException {
+            RentalReplayResponse response = new RentalReplayResponse();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "success":
+                        response.setSuccess(readBoolean(in, response.isSuccess()));
+                        break;
+                    case "message":
+                        response.setMessage(readString(in));
+                        break;
+                    case "data":
+                        response.setData(readReplayResults(in));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return response;
+        }
+    };
+
+    private static final TypeAdapter<RentalReplayResponse.Result> REPLAY_RESULT = new TypeAdapter<RentalReplayResponse.Result>() {
+        @Override
+        public void write(JsonWriter out, RentalReplayResponse.Result result) throws IOException {
+            out.beginObject();
+            writeString(out, "key", result.getKey());
+            out.name("rental_id").value(result.getRentalId());
+            out.name("status").value(result.getStatus());
+            writeString(out, "message", result.getMessage());
+            if (result.getRental() != null) {
+                out.name("rental");
+                writeRental(out, result.getRental());
+            }
+            out.endObject();
+        }
+
+        @Override
+        public RentalReplayResponse.Result read(JsonReader in) throws IOException {
+            RentalReplayResponse.Result result = new RentalReplayResponse.Result();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "key":
+                        result.setKey(readString(in));
+                        break;
+                    case "rental_id":
+                        result.setRentalId(readInt(in, result.getRentalId()));
+                        break;
+                    case "status":
+                        result.setStatus(readInt(in, result.getStatus()));
+                        break;
+                    case "message":
+                        result.setMessage(readString(in));
+                        break;
+                    case "rental":
+                        result.setRental(readNullableRental(in));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return result;
+        }
+    };
+
+    // Request bodies
+
+    private static final TypeAdapter<RentalRequest> RENTAL_REQUEST = new TypeAdapter<RentalRequest>() {
+        @Override
+        public void write(JsonWriter out, RentalRequest request) throws IOException {
+            out.beginObject();
+            writeString(out, "customer_name", request.getCustomerName());
+            out.name("caftan_id").value(request.getCaftanId());
+            writeString(out, "start_date", request.getStartDate());
+            writeString(out, "end_date", request.getEndDate());
+            out.endObject();
+        }
+
+        @Override
+        public RentalRequest read(JsonReader in) throws IOException {
+            RentalRequest request = new RentalRequest(null, 0, null, null);
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "customer_name":
+                        request.setCustomerName(readString(in));
+                        break;
+                    case "caftan_id":
+                        request.setCaftanId(readInt(in, request.getCaftanId()));
+                        break;
+                    case "start_date":
+                        request.setStartDate(readString(in));
+                        break;
+                    case "end_date":
+                        request.setEndDate(readString(in));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return request;
+        }
+    };
+
+    private static final TypeAdapter<RentalOperation> RENTAL_OPERATION = new TypeAdapter<RentalOperation>() {
+        @Override
+        public void write(JsonWriter out, RentalOperation operation) throws IOException {
+            out.beginObject();
+            writeString(out, "key", operation.getKey());
+            writeString(out, "type", operation.getType());
+            writeString(out, "customer_name", operation.getCustomerName());
+            out.name("caftan_id").value(operation.getCaftanId());
+            writeString(out, "start_date", operation.getStartDate());
+            writeString(out, "end_date", operation.getEndDate());
+            out.name("rental_id").value(operation.getRentalId());
+            out.endObject();
+        }
+
+        @Override
+        public RentalOperation read(JsonReader in) throws IOException {
+            RentalOperation operation = new RentalOperation();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "key":
+                        operation.setKey(readString(in));
+                        break;
+                    case "type":
+                        operation.setType(readString(in));
+                        break;
+                    case "customer_name":
+                        operation.setCustomerName(readString(in));
+                        break;
+                    case "caftan_id":
+                        operation.setCaftanId(readInt(in, operation.getCaftanId()));
+                        break;
+                    case "start_date":
+                        operation.setStartDate(readString(in));
+                        break;
+                    case "end_date":
+                        operation.setEndDate(readString(in));
+                        break;
+                    case "rental_id":
+                        operation.setRentalId(readInt(in, operation.getRentalId()));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return operation;
+        }
+    };
+
+    private static final TypeAdapter<RentalReplayRequest> RENTAL_REPLAY_REQUEST = new TypeAdapter<RentalReplayRequest>() {
+        @Override
+        public void write(JsonWriter out, RentalReplayRequest request) throws IOException {
+            out.beginObject();
+            if (request.getOperations() != null) {
+                out.name("operations").beginArray();
+                for (RentalOperation operation : request.getOperations()) {
+                    RENTAL_OPERATION.write(out, operation);
+                }
+                out.endArray();
+            }
+            out.endObject();
+        }
+
+        @Override
+        public RentalReplayRequest read(JsonReader in) throws IOException {
+            RentalReplayRequest request = new RentalReplayRequest(null);
+            in.beginObject();
+            while (in.hasNext()) {
+                if ("operations".equals(in.nextName()) && in.peek() != JsonToken.NULL) {
+                    List<RentalOperation> operations = new ArrayList<>();
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        operations.add(RENTAL_OPERATION.read(in));
+                    }
+                    in.endArray();
+                    request.setOperations(operations);
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            return request;
+        }
+    };
+
+    private static final TypeAdapter<RentalBatchRequest> RENTAL_BATCH_REQUEST = new TypeAdapter<RentalBatchRequest>() {
+        @Override
+        public void write(JsonWriter out, RentalBatchRequest request) throws IOException {
+            out.beginObject();
+            if (request.getRentals() != null) {
+                out.name("rentals").beginArray();
+                for (RentalOperation rental : request.getRentals()) {
+                    RENTAL_OPERATION.write(out, rental);
+                }
+                out.endArray();
+            }
+            out.endObject();
+        }
+
+        @Override
+        public RentalBatchRequest read(JsonReader in) throws IOException {
+            RentalBatchRequest request = new RentalBatchRequest(null);
+            in.beginObject();
+            while (in.hasNext()) {
+                if ("rentals".equals(in.nextName()) && in.peek() != JsonToken.NULL) {
+                    List<RentalOperation> rentals = new ArrayList<>();
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        rentals.add(RENTAL_OPERATION.read(in));
+                    }
+                    in.endArray();
+                    request.setRentals(rentals);
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            return request;
+        }
+    };
+
+    private static final TypeAdapter<RentalDeleteBatchRequest> RENTAL_DELETE_BATCH_REQUEST = new TypeAdapter<RentalDeleteBatchRequest>() {
+        @Override
+        public void write(JsonWriter out, RentalDeleteBatchRequest request) throws IOException {
+            out.beginObject();
+            if (request.getIds() != null) {
+                out.name("ids").beginArray();
+                for (Integer id : request.getIds()) {
+                    out.value(id);
+                }
+                out.endArray();
+            }
+            out.endObject();
+        }
+
+        @Override
+        public RentalDeleteBatchRequest read(JsonReader in) throws IOException {
+            RentalDeleteBatchRequest request = new RentalDeleteBatchRequest(null);
+            in.beginObject();
+            while (in.hasNext()) {
+                if ("ids".equals(in.nextName())) {
+                    request.setIds(readIntegerList(in));
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            return request;
+        }
+    };
+
+    // Normalized rental lists
+
+    /**
+     * Read the "caftans" dictionary of a normalized rental list ({"<id>": caftan})
+     * @param in - JSON reader
+     * @return Caftans by ID (empty if the dictionary is empty or null)
+     */
+    public static Map<Integer, Caftan> readCaftanMap(JsonReader in) throws IOException {
+        Map<Integer, Caftan> caftans = new HashMap<>();
+        JsonToken token = in.peek();
+        if (token != JsonToken.BEGIN_OBJECT) {
+            // null, or an empty dictionary encoded as an empty array
+            in.skipValue();
+            return caftans;
+        }
+
+        in.beginObject();
+        while (in.hasNext()) {
+            int id = Integer.parseInt(in.nextName());
+            Caftan caftan = readNullableCaftan(in);
+            if (caftan != null) {
+                caftans.put(id, caftan);
+            }
+        }
+        in.endObject();
+        return caftans;
+    }
+
+    private static Map<Integer, Caftan> readNullableCaftanMap(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return readCaftanMap(in);
+    }
+
+    /**
+     * Attach the shared caftan to a rental that only carries caftan_id
+     * Rentals that embed their own caftan are left untouched
+     * @param rental - Rental to resolve (may be null)
+     * @param caftans - Dictionary of the response
+     */
+    public static void resolveCaftan(Rental rental, Map<Integer, Caftan> caftans) {
+        if (rental != null && rental.getCaftan() == null) {
+            rental.setCaftan(caftans.get(rental.getCaftanId()));
+        }
+    }
+
+    // Shared readers and writers
+
+    private static Caftan readNullableCaftan(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return readCaftan(in);
+    }
+
+    private static Rental readNullableRental(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return readRental(in);
+    }
+
+    private static List<Caftan> readCaftanList(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        List<Caftan> caftans = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            caftans.add(readNullableCaftan(in));
+        }
+        in.endArray();
+        return caftans;
+    }
+
+    private static List<Rental> readRentalList(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        List<Rental> rentals = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                rentals.add(null);
+            } else {
+                rentals.add(readRental(in));
+            }
+        }
+        in.endArray();
+        return rentals;
+    }
+
+    private static List<RentalReplayResponse.Result> readReplayResults(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        List<RentalReplayResponse.Result> results = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            results.add(REPLAY_RESULT.read(in));
+        }
+        in.endArray();
+        return results;
+    }
+
+    private static List<Integer> readIntegerList(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        List<Integer> values = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                values.add(null);
+            } else {
+                values.add(in.nextInt());
+            }
+        }
+        in.endArray();
+        return values;
+    }
+
+    /**
+     * String value, numbers and booleans are accepted as their text (like Gson)
+     */
+    private static String readString(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        if (token == JsonToken.BOOLEAN) {
+            return Boolean.toString(in.nextBoolean());
+        }
+        return in.nextString();
+    }
+
+    /**
+     * Int value, null keeps the current value (like Gson for primitive fields)
+     */
+    private static int readInt(JsonReader in, int current) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return current;
+        }
+        return in.nextInt();
+    }
+
+    /**
+     * Boolean value, also accepts "true"/"false" strings (like Gson)
+     * null keeps the current value
+     */
+    private static boolean readBoolean(JsonReader in, boolean current) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return current;
+        }
+        if (token == JsonToken.STRING) {
+            return Boolean.parseBoolean(in.nextString());
+        }
+        return in.nextBoolean();
+    }
+
+    private static void writeCaftan(JsonWriter out, Caftan caftan) throws IOException {
+        if (caftan == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("id").value(caftan.getId());
+        writeString(out, "name", caftan.getName());
+        writeString(out, "size", caftan.getSize());
+        writeString(out, "price", caftan.getPrice());
+        writeString(out, "image_url", caftan.getImageUrl());
+        writeString(out, "image_thumb_url", caftan.getImageThumbUrl());
+        writeString(out, "image_medium_url", caftan.getImageMediumUrl());
+        out.name("availability").value(caftan.isAvailability());
+        writeString(out, "created_at", caftan.getCreatedAt());
+        writeString(out, "updated_at", caftan.getUpdatedAt());
+        out.endObject();
+    }
+
+    private static void writeRental(JsonWriter out, Rental rental) throws IOException {
+        if (rental == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("id").value(rental.getId());
+        writeString(out, "customer_name", rental.getCustomerName());
+        out.name("caftan_id").value(rental.getCaftanId());
+        writeString(out, "start_date", rental.getStartDate());
+        writeString(out, "end_date", rental.getEndDate());
+        writeString(out, "total_price", rental.getTotalPrice());
+        if (rental.getCaftan() != null) {
+            out.name("caftan");
+            writeCaftan(out, rental.getCaftan());
+        }
+        writeString(out, "created_at", rental.getCreatedAt());
+        writeString(out, "updated_at", rental.getUpdatedAt());
+        out.endObject();
+    }
+
+    /**
+     * Write "name": value, skipping nulls like Gson's default
+     */
+    private static void writeString(JsonWriter out, String name, String value) throws IOException {
+        if (value != null) {
+            out.name(name).value(value);
+        }
+    }
+}
@@ -34,6 +34,10 @@ public class Rental {
     @SerializedName("updated_at")
     private String updatedAt;
 
+    // Display strings computed once when the data arrives (not part of the JSON)
+    private transient String displayDates;
+    private transient String displayTotal;
+
     // Constructor
     public Rental() {
     }
@@ -110,5 +114,20 @@ public class Rental {
     public void setUpdatedAt(String updatedAt) {
         this.updatedAt = updatedAt;
     }
-}
 
+    public String getDisplayDates() {
+        return displayDates;
+    }
+
+    public void setDisplayDates(String displayDates) {
+        this.displayDates = displayDates;
+    }
+
+    public String getDisplayTotal() {
+        return displayTotal;
+    }
+
+    public void setDisplayTotal(String displayTotal) {
+        this.displayTotal = displayTotal;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.frontend.models;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.List;
+
+/**
+ * Request model for POST /rentals/batch
+ * Rentals to create in one request, each with its idempotency key
+ */
+public class RentalBatchRequest {
+
+    // Rentals per request (server limit)
+    public static final int MAX_SIZE = 500;
+
+    @SerializedName("rentals")
+    private List<RentalOperation> rentals;
+
+    /**
+     * Constructor
+     * @param rentals - Creates built with RentalOperation.create() (at most MAX_SIZE)
+     */
+    public RentalBatchRequest(List<RentalOperation> rentals) {
+        this.rentals = rentals;
+    }
+
+    // Getters and Setters
+    public List<RentalOperation> getRentals() {
+        return rentals;
+    }
+
+    public void setRentals(List<RentalOperation> rentals) {
+        this.rentals = rentals;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.frontend.models;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.List;
+
+/**
+ * Request model for DELETE /rentals/batch
+ * IDs of the rentals to delete in one request
+ */
+public class RentalDeleteBatchRequest {
+
+    @SerializedName("ids")
+    private List<Integer> ids;
+
+    /**
+     * Constructor
+     * @param ids - Rental IDs (at most RentalBatchRequest.MAX_SIZE)
+     */
+    public RentalDeleteBatchRequest(List<Integer> ids) {
+        this.ids = ids;
+    }
+
+    // Getters and Setters
+    public List<Integer> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Integer> ids) {
+        this.ids = ids;
+    }
+}
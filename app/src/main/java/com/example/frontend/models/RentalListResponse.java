@@ -2,6 +2,7 @@ package com.example.frontend.models;
 
 import com.google.gson.annotations.SerializedName;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Response model for list of rentals
@@ -14,9 +15,17 @@ public class RentalListResponse {
     @SerializedName("message")
     private String message;
 
+    // Normalized format only: each caftan once, by ID (rentals then carry only caftan_id)
+    @SerializedName("caftans")
+    private Map<Integer, Caftan> caftans;
+
     @SerializedName("data")
     private List<Rental> data;
 
+    // Cursor of the next page (paginated requests only, null on the last page)
+    @SerializedName("next_cursor")
+    private String nextCursor;
+
     // Constructor
     public RentalListResponse() {
     }
@@ -38,6 +47,14 @@ public class RentalListResponse {
         this.message = message;
     }
 
+    public Map<Integer, Caftan> getCaftans() {
+        return caftans;
+    }
+
+    public void setCaftans(Map<Integer, Caftan> caftans) {
+        this.caftans = caftans;
+    }
+
     public List<Rental> getData() {
         return data;
     }
@@ -45,5 +62,13 @@ public class RentalListResponse {
     public void setData(List<Rental> data) {
         this.data = data;
     }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
 }
 
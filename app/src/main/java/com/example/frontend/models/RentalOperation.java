@@ -0,0 +1,131 @@
+package com.example.frontend.models;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * One queued rental mutation, as sent to POST /rentals/replay
+ * A create carries the rental fields, a delete carries rental_id
+ */
+public class RentalOperation {
+
+    // Operation types
+    public static final String TYPE_CREATE = "create";
+    public static final String TYPE_DELETE = "delete";
+
+    @SerializedName("key")
+    private String key;
+
+    @SerializedName("type")
+    private String type;
+
+    @SerializedName("customer_name")
+    private String customerName;
+
+    @SerializedName("caftan_id")
+    private int caftanId;
+
+    @SerializedName("start_date")
+    private String startDate;
+
+    @SerializedName("end_date")
+    private String endDate;
+
+    @SerializedName("rental_id")
+    private int rentalId;
+
+    // Constructor
+    public RentalOperation() {
+    }
+
+    /**
+     * Operation creating a rental
+     * @param key - Idempotency key of the create
+     * @param request - Rental to create
+     * @return Create operation
+     */
+    public static RentalOperation create(String key, RentalRequest request) {
+        RentalOperation operation = new RentalOperation();
+        operation.key = key;
+        operation.type = TYPE_CREATE;
+        operation.customerName = request.getCustomerName();
+        operation.caftanId = request.getCaftanId();
+        operation.startDate = request.getStartDate();
+        operation.endDate = request.getEndDate();
+        return operation;
+    }
+
+    /**
+     * Operation deleting a rental
+     * @param key - Idempotency key of the delete
+     * @param rentalId - Rental to delete
+     * @return Delete operation
+     */
+    public static RentalOperation delete(String key, int rentalId) {
+        RentalOperation operation = new RentalOperation();
+        operation.key = key;
+        operation.type = TYPE_DELETE;
+        operation.rentalId = rentalId;
+        return operation;
+    }
+
+    public boolean isCreate() {
+        return TYPE_CREATE.equals(type);
+    }
+
+    // Getters and Setters
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public void setCustomerName(String customerName) {
+        this.customerName = customerName;
+    }
+
+    public int getCaftanId() {
+        return caftanId;
+    }
+
+    public void setCaftanId(int caftanId) {
+        this.caftanId = caftanId;
+    }
+
+    public String getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(String startDate) {
+        this.startDate = startDate;
+    }
+
+    public String getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(String endDate) {
+        this.endDate = endDate;
+    }
+
+    public int getRentalId() {
+        return rentalId;
+    }
+
+    public void setRentalId(int rentalId) {
+        this.rentalId = rentalId;
+    }
+}
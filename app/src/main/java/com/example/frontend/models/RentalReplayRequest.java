@@ -0,0 +1,32 @@
+package com.example.frontend.models;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.List;
+
+/**
+ * Request model for POST /rentals/replay
+ * Queued creates and deletes, applied by the server in order
+ */
+public class RentalReplayRequest {
+
+    @SerializedName("operations")
+    private List<RentalOperation> operations;
+
+    /**
+     * Constructor
+     * @param operations - Operations to replay (at most 100)
+     */
+    public RentalReplayRequest(List<RentalOperation> operations) {
+        this.operations = operations;
+    }
+
+    // Getters and Setters
+    public List<RentalOperation> getOperations() {
+        return operations;
+    }
+
+    public void setOperations(List<RentalOperation> operations) {
+        this.operations = operations;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.frontend.models;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.List;
+
+/**
+ * Response model for POST /rentals/replay and the batch endpoints
+ * (POST and DELETE /rentals/batch)
+ * One result per operation, in the order they were sent
+ */
+public class RentalReplayResponse {
+
+    @SerializedName("success")
+    private boolean success;
+
+    @SerializedName("message")
+    private String message;
+
+    @SerializedName("data")
+    private List<Result> data;
+
+    // Constructor
+    public RentalReplayResponse() {
+    }
+
+    // Getters and Setters
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public List<Result> getData() {
+        return data;
+    }
+
+    public void setData(List<Result> data) {
+        this.data = data;
+    }
+
+    /**
+     * Inner class representing the outcome of one operation
+     * status is the HTTP status the single request would have returned
+     * Creates carry the created rental, deletes the rental ID
+     */
+    public static class Result {
+        @SerializedName("key")
+        private String key;
+
+        @SerializedName("rental_id")
+        private int rentalId;
+
+        @SerializedName("status")
+        private int status;
+
+        @SerializedName("message")
+        private String message;
+
+        @SerializedName("rental")
+        private Rental rental;
+
+        // Getters and Setters
+        public String getKey() {
+            return key;
+        }
+
+        public void setKey(String key) {
+            this.key = key;
+        }
+
+        public int getRentalId() {
+            return rentalId;
+        }
+
+        public void setRentalId(int rentalId) {
+            this.rentalId = rentalId;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public void setStatus(int status) {
+            this.status = status;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+
+        public Rental getRental() {
+            return rental;
+        }
+
+        public void setRental(Rental rental) {
+            this.rental = rental;
+        }
+    }
+}
@@ -65,6 +65,13 @@ public class RentalResponse {
         @SerializedName("end_date")
         private String endDate;
 
+        // POST /rentals answers { "rental": {...}, "caftan": {...} }
+        @SerializedName("rental")
+        private Rental rental;
+
+        @SerializedName("caftan")
+        private Caftan caftan;
+
         // Getters and Setters
         public int getId() {
             return id;
@@ -105,6 +112,22 @@ public class RentalResponse {
         public void setEndDate(String endDate) {
             this.endDate = endDate;
         }
+
+        public Rental getRental() {
+            return rental;
+        }
+
+        public void setRental(Rental rental) {
+            this.rental = rental;
+        }
+
+        public Caftan getCaftan() {
+            return caftan;
+        }
+
+        public void setCaftan(Caftan caftan) {
+            this.caftan = caftan;
+        }
     }
 }
 
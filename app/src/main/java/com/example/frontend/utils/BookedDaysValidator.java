@@ -0,0 +1,120 @@
+package com.example.frontend.utils;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+
+import androidx.annotation.NonNull;
+
+import com.example.frontend.data.RentalIntervalIndex;
+import com.google.android.material.datepicker.CalendarConstraints;
+
+/**
+ * BookedDaysValidator - Greys out the days a caftan cannot be rented in MaterialDatePicker
+ *
+ * The picker works with UTC midnights, so a selection divided by the length
+ * of a day is directly an epoch day, the unit of RentalIntervalIndex.
+ * Each visible day costs one O(log n) index lookup.
+ *
+ * - forStart(): today or later, and not booked
+ * - forEnd(): after the start day, within maxDays, and no booking in between
+ */
+public final class BookedDaysValidator implements CalendarConstraints.DateValidator {
+
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+    private final RentalIntervalIndex index;
+    private final int firstDay;    // earliest selectable day
+    private final int lastDay;     // latest selectable day
+    private final int rangeStart;  // start of the rental when picking the end, else -1
+
+    private BookedDaysValidator(RentalIntervalIndex index, int firstDay, int lastDay, int rangeStart) {
+        this.index = index;
+        this.firstDay = firstDay;
+        this.lastDay = lastDay;
+        this.rangeStart = rangeStart;
+    }
+
+    /**
+     * Validator for the start date
+     * @param index - Booked days of the caftan
+     * @param today - Current epoch day
+     * @return Validator allowing free days from today on
+     */
+    public static BookedDaysValidator forStart(RentalIntervalIndex index, int today) {
+        return new BookedDaysValidator(index, today, Integer.MAX_VALUE, -1);
+    }
+
+    /**
+     * Validator for the end (return) date
+     * @param index - Booked days of the caftan
+     * @param startDay - Selected start epoch day
+     * @param maxDays - Longest rental allowed
+     * @return Validator allowing return days that keep the whole range free
+     */
+    public static BookedDaysValidator forEnd(RentalIntervalIndex index, int startDay, int maxDays) {
+        return new BookedDaysValidator(index, startDay + 1, startDay + maxDays, startDay);
+    }
+
+    /**
+     * Convert a MaterialDatePicker selection to an epoch day
+     * @param utcMillis - Selection (UTC midnight)
+     * @return Days since 1970-01-01
+     */
+    public static int toEpochDay(long utcMillis) {
+        return (int) Math.floorDiv(utcMillis, MILLIS_PER_DAY);
+    }
+
+    /**
+     * Convert an epoch day to a MaterialDatePicker selection
+     * @param epochDay - Days since 1970-01-01
+     * @return UTC midnight of that day
+     */
+    public static long toUtcMillis(int epochDay) {
+        return epochDay * MILLIS_PER_DAY;
+    }
+
+    @Override
+    public boolean isValid(long date) {
+        int day = toEpochDay(date);
+        if (day < firstDay || day > lastDay) {
+            return false;
+        }
+        if (rangeStart < 0) {
+            return !index.isBooked(day);
+        }
+        // The return day itself may be the start of the next rental
+        return !index.overlaps(rangeStart, day);
+    }
+
+    // Parcelable: the picker saves its constraints with the fragment state
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    @Override
+    public void writeToParcel(@NonNull Parcel dest, int flags) {
+        int[][] arrays = index.toArrays();
+        dest.writeIntArray(arrays[0]);
+        dest.writeIntArray(arrays[1]);
+        dest.writeInt(firstDay);
+        dest.writeInt(lastDay);
+        dest.writeInt(rangeStart);
+    }
+
+    public static final Parcelable.Creator<BookedDaysValidator> CREATOR = new Parcelable.Creator<BookedDaysValidator>() {
+        @Override
+        public BookedDaysValidator createFromParcel(Parcel source) {
+            int[] starts = source.createIntArray();
+            int[] maxEnd = source.createIntArray();
+            return new BookedDaysValidator(RentalIntervalIndex.fromArrays(starts, maxEnd),
+                    source.readInt(), source.readInt(), source.readInt());
+        }
+
+        @Override
+        public BookedDaysValidator[] newArray(int size) {
+            return new BookedDaysValidator[size];
+        }
+    };
+}
@@ -0,0 +1,194 @@
+package com.example.frontend.utils;
+
+import java.util.Calendar;
+
+/**
+ * DateFormats - Thread-safe date parsing and formatting
+ *
+ * The API sends dates either as "2025-12-23" or as ISO timestamps
+ * ("2025-12-23T00:00:00.000000Z"). Only the leading yyyy-MM-dd part matters,
+ * so it is read directly from the characters: no SimpleDateFormat instances,
+ * no exceptions, and nothing shared between threads.
+ *
+ * Days are exchanged as "epoch days" (days since 1970-01-01), which makes
+ * durations and comparisons plain integer arithmetic.
+ */
+public final class DateFormats {
+
+    // Returned by parseEpochDay() when the text is not a valid date
+    public static final int INVALID_DAY = Integer.MIN_VALUE;
+
+    private static final String[] MONTHS = {
+            "Jan", "Feb", "Mar", "Apr", "May", "Jun",
+            "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"
+    };
+
+    private DateFormats() {
+    }
+
+    /**
+     * Parse the leading yyyy-MM-dd of a date or ISO timestamp
+     * @param text - e.g. "2025-12-23" or "2025-12-23T00:00:00.000000Z"
+     * @return Epoch day, or INVALID_DAY if the text does not start with a valid date
+     */
+    public static int parseEpochDay(String text) {
+        if (text == null || text.length() < 10 || text.charAt(4) != '-' || text.charAt(7) != '-') {
+            return INVALID_DAY;
+        }
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 7);
+        int day = digits(text, 8, 10);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)) {
+            return INVALID_DAY;
+        }
+        return toEpochDay(year, month, day);
+    }
+
+    /**
+     * Convert a calendar date to an epoch day
+     * @param year - e.g. 2025
+     * @param month - 1 to 12
+     * @param day - 1 to 31
+     * @return Days since 1970-01-01
+     */
+    public static int toEpochDay(int year, int month, int day) {
+        // Days-from-civil algorithm (proleptic Gregorian calendar)
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    /**
+     * @return Today's local date as an epoch day
+     */
+    public static int today() {
+        Calendar calendar = Calendar.getInstance();
+        return toEpochDay(calendar.get(Calendar.YEAR),
+                calendar.get(Calendar.MONTH) + 1,
+                calendar.get(Calendar.DAY_OF_MONTH));
+    }
+
+    /**
+     * Format an epoch day as yyyy-MM-dd (the format the API expects)
+     * @param epochDay - Days since 1970-01-01
+     * @return e.g. "2025-12-23"
+     */
+    public static String formatIso(int epochDay) {
+        int[] ymd = fromEpochDay(epochDay);
+        return formatIso(ymd[0], ymd[1], ymd[2]);
+    }
+
+    /**
+     * Format a calendar date as yyyy-MM-dd
+     * @param year - e.g. 2025
+     * @param month - 1 to 12
+     * @param day - 1 to 31
+     * @return e.g. "2025-12-23"
+     */
+    public static String formatIso(int year, int month, int day) {
+        char[] out = new char[10];
+        writeDigits(out, 0, year, 4);
+        out[4] = '-';
+        writeDigits(out, 5, month, 2);
+        out[7] = '-';
+        writeDigits(out, 8, day, 2);
+        return new String(out);
+    }
+
+    /**
+     * Format an epoch day for display
+     * @param epochDay - Days since 1970-01-01
+     * @return e.g. "Dec 23, 2025"
+     */
+    public static String formatDisplay(int epochDay) {
+        int[] ymd = fromEpochDay(epochDay);
+        char[] out = new char[12];
+        String month = MONTHS[ymd[1] - 1];
+        out[0] = month.charAt(0);
+        out[1] = month.charAt(1);
+        out[2] = month.charAt(2);
+        out[3] = ' ';
+        writeDigits(out, 4, ymd[2], 2);
+        out[6] = ',';
+        out[7] = ' ';
+        writeDigits(out, 8, ymd[0], 4);
+        return new String(out);
+    }
+
+    /**
+     * Convert an API date to display format
+     * Converts "2025-12-23T00:00:00.000000Z" to "Dec 23, 2025"
+     * @param text - Date or ISO timestamp from the API
+     * @return Display date, the date part if it cannot be parsed, or "" for null/empty input
+     */
+    public static String toDisplay(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        int epochDay = parseEpochDay(text);
+        if (epochDay != INVALID_DAY) {
+            return formatDisplay(epochDay);
+        }
+        return text.length() >= 10 ? text.substring(0, 10) : text;
+    }
+
+    /**
+     * Convert an epoch day back to a calendar date
+     * @param epochDay - Days since 1970-01-01
+     * @return {year, month (1-12), day}
+     */
+    public static int[] fromEpochDay(int epochDay) {
+        // Civil-from-days algorithm (inverse of toEpochDay)
+        int z = epochDay + 719468;
+        int era = (z >= 0 ? z : z - 146096) / 146097;
+        int dayOfEra = z - era * 146097;
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int mp = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * mp + 2) / 5 + 1;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        int year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return new int[]{year, month, day};
+    }
+
+    private static int daysInMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+                return leap ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * Read a run of ASCII digits
+     * @return The number, or -1 if a character is not a digit
+     */
+    private static int digits(String text, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static void writeDigits(char[] out, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            out[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.frontend.api;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import org.junit.Test;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigInteger;
+
+import okio.Buffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Decodes the examples of RFC 8949 Appendix A with CborReader.
+ *
+ * Each example is given as its hex encoding and the JSON the tree must
+ * equal (byte strings are read as UTF-8 text, tags are dropped).
+ */
+public class CborReaderTest {
+
+    @Test
+    public void integers() throws IOException {
+        assertDecodes("00", "0");
+        assertDecodes("01", "1");
+        assertDecodes("0a", "10");
+        assertDecodes("17", "23");
+        assertDecodes("1818", "24");
+        assertDecodes("1819", "25");
+        assertDecodes("1864", "100");
+        assertDecodes("1903e8", "1000");
+        assertDecodes("1a000f4240", "1000000");
+        assertDecodes("1b000000e8d4a51000", "1000000000000");
+        assertDecodes("1bffffffffffffffff", "18446744073709551615");
+        assertDecodes("3bffffffffffffffff", "-18446744073709551616");
+        assertDecodes("20", "-1");
+        assertDecodes("29", "-10");
+        assertDecodes("3863", "-100");
+        assertDecodes("3903e7", "-1000");
+
+        // Beyond the long range
+        assertEquals(new BigInteger("18446744073709551615"), decode("1bffffffffffffffff").getAsBigInteger());
+        assertEquals(new BigInteger("-18446744073709551616"), decode("3bffffffffffffffff").getAsBigInteger());
+        assertEquals(Long.MIN_VALUE, decode("3b7fffffffffffffff").getAsLong());
+    }
+
+    @Test
+    public void halfFloats() throws IOException {
+        assertFloat("f90000", 0.0);
+        assertFloat("f98000", -0.0);
+        assertFloat("f93c00", 1.0);
+        assertFloat("f93e00", 1.5);
+        assertFloat("f97bff", 65504.0);
+        assertFloat("f90001", 5.960464477539063e-8);
+        assertFloat("f90400", 0.00006103515625);
+        assertFloat("f9c400", -4.0);
+        assertFloat("f97c00", Double.POSITIVE_INFINITY);
+        assertFloat("f9fc00", Double.NEGATIVE_INFINITY);
+        assertTrue(Double.isNaN(decode("f97e00").getAsDouble()));
+    }
+
+    @Test
+    public void singleAndDoubleFloats() throws IOException {
+        assertFloat("fb3ff199999999999a", 1.1);
+        assertFloat("fa47c35000", 100000.0);
+        assertFloat("fa7f7fffff", 3.4028234663852886e+38);
+        assertFloat("fb7e37e43c8800759c", 1.0e+300);
+        assertFloat("fbc010666666666666", -4.1);
+        assertFloat("fa7f800000", Double.POSITIVE_INFINITY);
+        assertFloat("faff800000", Double.NEGATIVE_INFINITY);
+        assertFloat("fb7ff0000000000000", Double.POSITIVE_INFINITY);
+        assertFloat("fbfff0000000000000", Double.NEGATIVE_INFINITY);
+        assertTrue(Double.isNaN(decode("fa7fc00000").getAsDouble()));
+        assertTrue(Double.isNaN(decode("fb7ff8000000000000").getAsDouble()));
+    }
+
+    @Test
+    public void simpleValues() throws IOException {
+        assertDecodes("f4", "false");
+        assertDecodes("f5", "true");
+        assertDecodes("f6", "null");
+        assertDecodes("f7", "null");
+        assertRejected("f0");
+        assertRejected("f8ff");
+    }
+
+    @Test
+    public void tagsAreDropped() throws IOException {
+        assertDecodes("c074323031332d30332d32315432303a30343a30305a", "\"2013-03-21T20:04:00Z\"");
+        assertDecodes("c11a514b67b0", "1363896240");
+        assertDecodes("c1fb41d452d9ec200000", "1363896240.5");
+        assertDecodes("d82076687474703a2f2f7777772e6578616d706c652e636f6d", "\"http://www.example.com\"");
+    }
+
+    @Test
+    public void strings() throws IOException {
+        assertDecodes("40", "\"\"");
+        assertDecodes("4401020304", "\"\\u0001\\u0002\\u0003\\u0004\"");
+        assertDecodes("60", "\"\"");
+        assertDecodes("6161", "\"a\"");
+        assertDecodes("6449455446", "\"IETF\"");
+        assertDecodes("62225c", "\"\\\"\\\\\"");
+        assertDecodes("62c3bc", "\"ü\"");
+        assertDecodes("63e6b0b4", "\"水\"");
+        assertDecodes("64f0908591", "\"𐅑\"");
+    }
+
+    @Test
+    public void arraysAndMaps() throws IOException {
+        assertDecodes("80", "[]");
+        assertDecodes("83010203", "[1,2,3]");
+        assertDecodes("8301820203820405", "[1,[2,3],[4,5]]");
+        assertDecodes("98190102030405060708090a0b0c0d0e0f101112131415161718181819",
+                "[1,2,3,4,5,6,7,8,9,10,11,12,13,14,15,16,17,18,19,20,21,22,23,24,25]");
+        assertDecodes("a0", "{}");
+        assertDecodes("a201020304", "{\"1\":2,\"3\":4}");
+        assertDecodes("a26161016162820203", "{\"a\":1,\"b\":[2,3]}");
+        assertDecodes("826161a161626163", "[\"a\",{\"b\":\"c\"}]");
+        assertDecodes("a56161614161626142616361436164614461656145",
+                "{\"a\":\"A\",\"b\":\"B\",\"c\":\"C\",\"d\":\"D\",\"e\":\"E\"}");
+    }
+
+    @Test
+    public void indefiniteLengths() throws IOException {
+        assertDecodes("5f42010243030405ff", "\"\\u0001\\u0002\\u0003\\u0004\\u0005\"");
+        assertDecodes("7f657374726561646d696e67ff", "\"streaming\"");
+        assertDecodes("9fff", "[]");
+        assertDecodes("9f018202039f0405ffff", "[1,[2,3],[4,5]]");
+        assertDecodes("9f01820203820405ff", "[1,[2,3],[4,5]]");
+        assertDecodes("83018202039f0405ff", "[1,[2,3],[4,5]]");
+        assertDecodes("83019f0203ff820405", "[1,[2,3],[4,5]]");
+        assertDecodes("9f0102030405060708090a0b0c0d0e0f101112131415161718181819ff",
+                "[1,2,3,4,5,6,7,8,9,10,11,12,13,14,15,16,17,18,19,20,21,22,23,24,25]");
+        assertDecodes("bf61610161629f0203ffff", "{\"a\":1,\"b\":[2,3]}");
+        assertDecodes("826161bf61626163ff", "[\"a\",{\"b\":\"c\"}]");
+        assertDecodes("bf6346756ef563416d7421ff", "{\"Fun\":true,\"Amt\":-2}");
+    }
+
+    @Test
+    public void invalidIndefiniteStrings() throws IOException {
+        // Chunk of another type, and a nested indefinite chunk
+        assertRejected("7f4161ff");
+        assertRejected("7f7fffff");
+        // Indefinite integers and tags do not exist
+        assertRejected("1f");
+        assertRejected("3f");
+        assertRejected("df01");
+        // Reserved additional information
+        assertRejected("1c");
+    }
+
+    @Test
+    public void sixtyFourBitLengths() throws IOException {
+        assertDecodes("7b000000000000000161", "\"a\"");
+        assertDecodes("5b00000000000000026869", "\"hi\"");
+        assertDecodes("9b00000000000000020102", "[1,2]");
+        assertDecodes("bb000000000000000161610f", "{\"a\":15}");
+        assertDecodes("7a0000000161", "\"a\"");
+    }
+
+    @Test
+    public void negativeLengthsAreRejected() throws IOException {
+        // Lengths of 2^63 and more do not fit a long
+        assertRejected("7bffffffffffffffff61");
+        assertRejected("5b8000000000000000");
+        assertRejected("9bffffffffffffffff");
+        assertRejected("bb8000000000000000");
+        assertRejected("7f7bffffffffffffffffff");
+    }
+
+    @Test
+    public void truncatedInput() throws IOException {
+        try {
+            decode("6461");
+            fail("accepted a truncated string");
+        } catch (EOFException expected) {
+            // Reading past the end of the body
+        }
+    }
+
+    private static void assertDecodes(String hex, String json) throws IOException {
+        assertEquals(hex, JsonParser.parseString(json), decode(hex));
+    }
+
+    private static void assertFloat(String hex, double expected) throws IOException {
+        double actual = decode(hex).getAsDouble();
+        // Compare bits so that 0.0 and -0.0 differ
+        assertEquals(hex, Double.doubleToLongBits(expected), Double.doubleToLongBits(actual));
+    }
+
+    private static void assertRejected(String hex) throws IOException {
+        try {
+            decode(hex);
+            fail("accepted " + hex);
+        } catch (JsonParseException expected) {
+            // Invalid or unsupported item
+        }
+    }
+
+    private static JsonElement decode(String hex) throws IOException {
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) Integer.parseInt(hex.substring(2 * i, 2 * i + 2), 16);
+        }
+        return CborReader.read(new Buffer().write(bytes));
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.frontend.data;
+
+import org.junit.Test;
+
+import com.example.frontend.models.Rental;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * PendingDeletes: deletes made in this run, deletes restored from the outbox
+ * after a restart, then confirmed or refused by the server.
+ */
+public class PendingDeletesTest {
+
+    private static Rental rental(int id) {
+        Rental rental = new Rental();
+        rental.setId(id);
+        return rental;
+    }
+
+    @Test
+    public void refusedDeleteGivesTheRentalBack() {
+        PendingDeletes deletes = new PendingDeletes();
+        Rental rental = rental(7);
+        deletes.add("key", 7, rental);
+        assertTrue(deletes.isHidden(7));
+
+        assertSame(rental, deletes.rollBack("key"));
+        assertFalse(deletes.isHidden(7));
+        assertFalse(deletes.containsKey("key"));
+    }
+
+    @Test
+    public void confirmedDeleteIsForgotten() {
+        PendingDeletes deletes = new PendingDeletes();
+        deletes.add("key", 7, rental(7));
+
+        assertEquals(Integer.valueOf(7), deletes.confirm("key"));
+        assertFalse(deletes.isHidden(7));
+        assertNull(deletes.rollBack("key"));
+    }
+
+    @Test
+    public void restoredDeleteIsShownAgainWhenRefused() {
+        // After a restart the outbox only gives the key and the rental ID
+        PendingDeletes deletes = new PendingDeletes();
+        deletes.add("key", 7, null);
+        assertTrue(deletes.isHidden(7));
+
+        assertNull(deletes.rollBack("key"));
+        assertFalse(deletes.isHidden(7));
+        assertFalse(deletes.containsKey("key"));
+    }
+
+    @Test
+    public void restoredDeleteIsForgottenWhenConfirmed() {
+        PendingDeletes deletes = new PendingDeletes();
+        deletes.add("key", 7, null);
+
+        assertEquals(Integer.valueOf(7), deletes.confirm("key"));
+        assertFalse(deletes.isHidden(7));
+    }
+
+    @Test
+    public void unknownKeyChangesNothing() {
+        PendingDeletes deletes = new PendingDeletes();
+        deletes.add("key", 7, rental(7));
+
+        assertNull(deletes.confirm("other"));
+        assertNull(deletes.rollBack("other"));
+        assertTrue(deletes.isHidden(7));
+        assertTrue(deletes.containsKey("key"));
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.frontend.data;
+
+import org.junit.Test;
+
+import com.example.frontend.utils.DateFormats;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * RentalIntervalIndex: half-open [start, end) ranges, touching ranges,
+ * nested ranges, merge, and a randomized comparison with a brute-force check.
+ */
+public class RentalIntervalIndexTest {
+
+    private static RentalIntervalIndex index(int... startEndPairs) {
+        int count = startEndPairs.length / 2;
+        int[] starts = new int[count];
+        int[] ends = new int[count];
+        for (int i = 0; i < count; i++) {
+            starts[i] = startEndPairs[2 * i];
+            ends[i] = startEndPairs[2 * i + 1];
+        }
+        return RentalIntervalIndex.fromRanges(starts, ends, count);
+    }
+
+    private static RentalEntity entity(String startDate, String endDate) {
+        RentalEntity entity = new RentalEntity();
+        entity.startDate = startDate;
+        entity.endDate = endDate;
+        return entity;
+    }
+
+    @Test
+    public void storedRowsWithUnusableDatesAreSkipped() {
+        RentalIntervalIndex booked = RentalIntervalIndex.fromEntities(Arrays.asList(
+                entity("2025-12-20", "2025-12-23T00:00:00.000000Z"),
+                entity("2025-12-28", "2025-12-28"),   // empty range
+                entity("2025-12-30", "2025-12-29"),   // reversed
+                entity(null, "2026-01-05"),
+                entity("2026-01-10", "not a date")));
+
+        assertEquals(1, booked.size());
+        assertTrue(booked.isBooked(DateFormats.parseEpochDay("2025-12-22")));
+        assertFalse(booked.isBooked(DateFormats.parseEpochDay("2025-12-23")));
+    }
+
+    @Test
+    public void emptyIndexHasNoBookings() {
+        assertEquals(0, RentalIntervalIndex.EMPTY.size());
+        assertFalse(RentalIntervalIndex.EMPTY.overlaps(0, 100));
+        assertFalse(RentalIntervalIndex.EMPTY.isBooked(0));
+    }
+
+    @Test
+    public void touchingRangesDoNotOverlap() {
+        RentalIntervalIndex booked = index(10, 15);
+
+        // The return day is free: a rental may end or start on it
+        assertFalse(booked.overlaps(5, 10));
+        assertFalse(booked.overlaps(15, 20));
+        assertFalse(booked.isBooked(15));
+        assertTrue(booked.isBooked(10));
+        assertTrue(booked.isBooked(14));
+        assertFalse(booked.isBooked(9));
+    }
+
+    @Test
+    public void partialAndContainingRangesOverlap() {
+        RentalIntervalIndex booked = index(10, 15);
+
+        assertTrue(booked.overlaps(9, 11));
+        assertTrue(booked.overlaps(14, 16));
+        assertTrue(booked.overlaps(11, 12));
+        assertTrue(booked.overlaps(0, 100));
+    }
+
+    @Test
+    public void emptyQueryNeverOverlaps() {
+        RentalIntervalIndex booked = index(10, 15);
+        assertFalse(booked.overlaps(12, 12));
+        assertFalse(booked.overlaps(13, 11));
+    }
+
+    @Test
+    public void longRentalIsFoundBehindShorterOnes() {
+        // [0, 100) starts first, the later short rentals end earlier:
+        // the running maximum of the ends must still see it
+        RentalIntervalIndex booked = index(20, 22, 0, 100, 30, 31);
+        assertTrue(booked.overlaps(50, 51));
+        assertTrue(booked.isBooked(99));
+        assertFalse(booked.isBooked(100));
+    }
+
+    @Test
+    public void mergeKeepsTheDaysOfBothIndexes() {
+        RentalIntervalIndex stored = index(10, 15, 40, 45);
+        RentalIntervalIndex server = index(20, 25, 12, 18);
+        RentalIntervalIndex merged = stored.merge(server);
+
+        for (int day = 0; day < 60; day++) {
+            assertEquals("day " + day, stored.isBooked(day) || server.isBooked(day), merged.isBooked(day));
+        }
+        assertFalse(merged.overlaps(25, 40));
+        assertTrue(merged.overlaps(17, 19));
+
+        // Merging with an empty index returns the other one unchanged
+        assertSame(stored, stored.merge(RentalIntervalIndex.EMPTY));
+        assertSame(server, RentalIntervalIndex.EMPTY.merge(server));
+    }
+
+    @Test
+    public void rangesAreSortedAndReadUpToCount() {
+        // Out of order, equal starts, and a trailing range beyond count
+        RentalIntervalIndex booked = RentalIntervalIndex.fromRanges(
+                new int[]{30, 10, 10, 50}, new int[]{32, 11, 14, 60}, 3);
+
+        assertEquals(3, booked.size());
+        assertTrue(booked.isBooked(13));
+        assertFalse(booked.isBooked(14));
+        assertTrue(booked.isBooked(31));
+        assertFalse(booked.isBooked(50));
+    }
+
+    @Test
+    public void conflictCheckOfASubmission() {
+        // Same check as RentActivity before sending: [start, end) against stored rentals
+        RentalIntervalIndex booked = RentalIntervalIndex.fromEntities(Arrays.asList(
+                entity("2026-03-10", "2026-03-15"),
+                entity("2026-03-20", "2026-03-22")));
+        int start = DateFormats.parseEpochDay("2026-03-15");
+
+        assertFalse(booked.overlaps(start, DateFormats.parseEpochDay("2026-03-20")));
+        assertTrue(booked.overlaps(start, DateFormats.parseEpochDay("2026-03-21")));
+        assertTrue(booked.overlaps(DateFormats.parseEpochDay("2026-03-14"), start));
+    }
+
+    @Test
+    public void mergeMatchesBruteForce() {
+        Random random = new Random(7);
+        for (int round = 0; round < 100; round++) {
+            RentalIntervalIndex a = randomIndex(random);
+            RentalIntervalIndex b = randomIndex(random);
+            RentalIntervalIndex merged = a.merge(b);
+
+            for (int from = 0; from < 120; from++) {
+                for (int to = from + 1; to < from + 10; to++) {
+                    assertEquals(a.overlaps(from, to) || b.overlaps(from, to), merged.overlaps(from, to));
+                }
+            }
+        }
+    }
+
+    private static RentalIntervalIndex randomIndex(Random random) {
+        int count = random.nextInt(10);
+        int[] starts = new int[count];
+        int[] ends = new int[count];
+        for (int i = 0; i < count; i++) {
+            starts[i] = random.nextInt(100);
+            ends[i] = starts[i] + 1 + random.nextInt(15);
+        }
+        return RentalIntervalIndex.fromRanges(starts, ends, count);
+    }
+
+    @Test
+    public void arraysRoundTrip() {
+        RentalIntervalIndex booked = index(5, 8, 1, 3, 20, 30);
+        int[][] arrays = booked.toArrays();
+        RentalIntervalIndex copy = RentalIntervalIndex.fromArrays(arrays[0], arrays[1]);
+
+        for (int day = 0; day < 40; day++) {
+            assertEquals(booked.isBooked(day), copy.isBooked(day));
+        }
+    }
+
+    @Test
+    public void matchesBruteForce() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            int count = random.nextInt(20);
+            int[] starts = new int[count];
+            int[] ends = new int[count];
+            for (int i = 0; i < count; i++) {
+                starts[i] = random.nextInt(100);
+                ends[i] = starts[i] + 1 + random.nextInt(15);
+            }
+            RentalIntervalIndex booked = RentalIntervalIndex.fromRanges(starts, ends, count);
+
+            for (int from = -2; from < 120; from++) {
+                for (int to = from + 1; to < from + 20; to++) {
+                    boolean expected = false;
+                    for (int i = 0; i < count; i++) {
+                        expected |= starts[i] < to && ends[i] > from;
+                    }
+                    assertEquals(expected, booked.overlaps(from, to));
+                }
+            }
+        }
+    }
+}
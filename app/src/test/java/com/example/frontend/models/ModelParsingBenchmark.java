@@ -0,0 +1,129 @@
+package com.example.frontend.models;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares reflective Gson with ModelTypeAdapterFactory on GET /caftans bodies
+ * of 100, 10k and 100k caftans: parse time and bytes allocated per parse.
+ *
+ * Runs on the host JVM with the unit tests (./gradlew testDebugUnitTest),
+ * results are printed to the test output. Also checks both parsers produce
+ * the same models.
+ */
+public class ModelParsingBenchmark {
+
+    private static final int[] CATALOGUE_SIZES = {100, 10_000, 100_000};
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+
+    private final Gson reflective = new Gson();
+    private final Gson streaming = new GsonBuilder()
+            .registerTypeAdapterFactory(ModelTypeAdapterFactory.INSTANCE)
+            .create();
+
+    @Test
+    public void streamingAdaptersMatchReflection() {
+        String json = catalogueJson(50);
+        CaftanResponse expected = reflective.fromJson(json, CaftanResponse.class);
+        CaftanResponse actual = streaming.fromJson(json, CaftanResponse.class);
+
+        // Same content once written back with the reflective writer
+        assertEquals(reflective.toJson(expected), reflective.toJson(actual));
+        // Writing with the adapters produces the same JSON
+        assertEquals(reflective.toJson(expected), streaming.toJson(actual));
+    }
+
+    @Test
+    public void firstParseCost() {
+        // A fresh Gson instance has no adapters cached: this is the cold-start cost
+        String json = catalogueJson(100);
+
+        long start = System.nanoTime();
+        new Gson().fromJson(json, CaftanResponse.class);
+        long reflectiveNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        new GsonBuilder().registerTypeAdapterFactory(ModelTypeAdapterFactory.INSTANCE).create()
+                .fromJson(json, CaftanResponse.class);
+        long streamingNanos = System.nanoTime() - start;
+
+        System.out.printf("first parse of 100 caftans: reflective %.2f ms, streaming %.2f ms%n",
+                reflectiveNanos / 1e6, streamingNanos / 1e6);
+    }
+
+    @Test
+    public void catalogueParsing() {
+        System.out.printf("%-10s %-11s %12s %16s%n", "caftans", "parser", "ms/parse", "bytes/parse");
+
+        for (int size : CATALOGUE_SIZES) {
+            String json = catalogueJson(size);
+            report(size, "reflective", reflective, json);
+            report(size, "streaming", streaming, json);
+        }
+    }
+
+    private static void report(int size, String label, Gson gson, String json) {
+        int sink = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            sink += gson.fromJson(json, CaftanResponse.class).getData().size();
+        }
+
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            sink += gson.fromJson(json, CaftanResponse.class).getData().size();
+        }
+        long nanos = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+
+        assertEquals((long) size * (WARMUP_ROUNDS + MEASURED_ROUNDS), sink);
+        System.out.printf("%-10d %-11s %12.2f %16s%n", size, label,
+                nanos / 1e6 / MEASURED_ROUNDS,
+                allocated < 0 ? "n/a" : String.valueOf(allocated / MEASURED_ROUNDS));
+    }
+
+    /**
+     * Bytes allocated by the current thread, or -1 if the JVM cannot tell
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    /**
+     * Body shaped like GET /caftans
+     */
+    private static String catalogueJson(int count) {
+        StringBuilder json = new StringBuilder(count * 330);
+        json.append("{\"success\":true,\"message\":\"Liste des caftans\",\"data\":[");
+        for (int i = 1; i <= count; i++) {
+            if (i > 1) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(i)
+                    .append(",\"name\":\"Caftan ").append(i).append('"')
+                    .append(",\"size\":\"").append("SMLX".charAt(i % 4)).append('"')
+                    .append(",\"price\":\"").append(300 + i % 500).append(".00\"")
+                    .append(",\"image_url\":\"http://10.0.2.2:8000/image/").append(i).append(".jpeg\"")
+                    .append(",\"image_thumb_url\":\"http://10.0.2.2:8000/image/variants/thumb/").append(i).append(".webp\"")
+                    .append(",\"image_medium_url\":null")
+                    .append(",\"availability\":").append(i % 3 != 0)
+                    .append(",\"created_at\":\"2025-12-01T10:00:00.000000Z\"")
+                    .append(",\"updated_at\":\"2025-12-23T10:00:00.000000Z\"")
+                    .append(",\"deleted_at\":null}");
+        }
+        json.append("],\"next_cursor\":null,\"server_time\":\"2025-12-23T10:00:00.000000Z\"}");
+        return json.toString();
+    }
+}
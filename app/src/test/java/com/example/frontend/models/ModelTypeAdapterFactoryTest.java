@@ -0,0 +1,266 @@
+package com.example.frontend.models;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.annotations.SerializedName;
+import com.google.gson.reflect.TypeToken;
+
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks every type of ModelTypeAdapterFactory against reflective Gson.
+ *
+ * Instances are filled through reflection (every serialized field gets a
+ * non-default value), so a field added to a model but not to the factory
+ * makes the write or read comparison fail.
+ */
+public class ModelTypeAdapterFactoryTest {
+
+    // Every type the factory handles (request bodies and responses)
+    private static final List<Class<?>> TYPES = Arrays.asList(
+            Caftan.class,
+            Rental.class,
+            CaftanResponse.class,
+            CaftanDeltaResponse.class,
+            SingleCaftanResponse.class,
+            RentalListResponse.class,
+            RentalResponse.class,
+            RentalResponse.RentalData.class,
+            AvailabilityResponse.class,
+            AvailabilityResponse.AvailabilityData.class,
+            RentalReplayResponse.class,
+            RentalReplayResponse.Result.class,
+            RentalRequest.class,
+            RentalOperation.class,
+            RentalReplayRequest.class,
+            RentalBatchRequest.class,
+            RentalDeleteBatchRequest.class);
+
+    private final Gson reflective = new Gson();
+    private final Gson streaming = new GsonBuilder()
+            .registerTypeAdapterFactory(ModelTypeAdapterFactory.INSTANCE)
+            .create();
+
+    @Test
+    public void everyTypeIsRegistered() {
+        for (Class<?> type : TYPES) {
+            assertNotNull(type.getName(), ModelTypeAdapterFactory.INSTANCE.create(streaming, TypeToken.get(type)));
+        }
+    }
+
+    @Test
+    public void writerMatchesReflection() throws Exception {
+        for (Class<?> type : TYPES) {
+            Object model = populate(type, 1);
+            assertEquals(type.getName(), reflective.toJsonTree(model), streaming.toJsonTree(model));
+        }
+    }
+
+    @Test
+    public void readerMatchesReflection() throws Exception {
+        for (Class<?> type : TYPES) {
+            Object model = populate(type, 1);
+            Object parsed = streaming.fromJson(reflective.toJson(model), type);
+            assertEquals(type.getName(), reflective.toJsonTree(model), reflective.toJsonTree(parsed));
+        }
+    }
+
+    @Test
+    public void roundTrip() throws Exception {
+        for (Class<?> type : TYPES) {
+            Object model = populate(type, 7);
+            Object parsed = streaming.fromJson(streaming.toJson(model), type);
+            assertEquals(type.getName(), reflective.toJsonTree(model), reflective.toJsonTree(parsed));
+        }
+    }
+
+    @Test
+    public void missingAndNullKeysKeepTheDefaults() {
+        for (Class<?> type : TYPES) {
+            assertSameModel(type, "{}");
+
+            JsonObject nulls = new JsonObject();
+            for (Field field : serializedFields(type)) {
+                nulls.add(field.getAnnotation(SerializedName.class).value(), JsonNull.INSTANCE);
+            }
+            assertSameModel(type, nulls.toString());
+        }
+    }
+
+    @Test
+    public void unknownKeysAreSkipped() throws Exception {
+        for (Class<?> type : TYPES) {
+            JsonObject json = reflective.toJsonTree(populate(type, 3)).getAsJsonObject();
+            json.add("deleted_at", JsonNull.INSTANCE);
+            json.add("extra", JsonParser.parseString("{\"a\":[1,{\"b\":null}],\"c\":\"d\"}"));
+            assertSameModel(type, json.toString());
+        }
+    }
+
+    @Test
+    public void lenientScalarsMatchReflection() {
+        // Numbers and booleans are read as their text in string fields
+        assertSameModel(Caftan.class, "{\"id\":\"4\",\"price\":500,\"name\":true,\"availability\":\"true\"}");
+        assertSameModel(Rental.class, "{\"total_price\":1200.5,\"caftan_id\":\"9\"}");
+    }
+
+    @Test
+    public void numbersAreNotBooleans() {
+        String json = "{\"availability\":1}";
+        assertRejected(reflective, json);
+        assertRejected(streaming, json);
+    }
+
+    @Test
+    public void normalizedRentalListSharesTheCaftans() {
+        String json = "{\"success\":true,\"caftans\":{\"3\":{\"id\":3,\"name\":\"Caftan 3\"}},"
+                + "\"data\":[{\"id\":1,\"caftan_id\":3},{\"id\":2,\"caftan_id\":3},{\"id\":5,\"caftan_id\":8}]}";
+        RentalListResponse response = streaming.fromJson(json, RentalListResponse.class);
+
+        Caftan shared = response.getCaftans().get(3);
+        assertEquals("Caftan 3", shared.getName());
+        assertSame(shared, response.getData().get(0).getCaftan());
+        assertSame(shared, response.getData().get(1).getCaftan());
+        assertNull(response.getData().get(2).getCaftan());
+    }
+
+    @Test
+    public void emptyCaftanArrayIsAnEmptyDictionary() {
+        // PHP encodes an empty dictionary as []
+        RentalListResponse response = streaming.fromJson("{\"caftans\":[],\"data\":[]}", RentalListResponse.class);
+        assertTrue(response.getCaftans().isEmpty());
+        assertTrue(response.getData().isEmpty());
+    }
+
+    @Test
+    public void batchCreateBodyMatchesTheServerFormat() {
+        // POST /rentals/batch: { "rentals": [{ key, customer_name, caftan_id, start_date, end_date }] }
+        RentalBatchRequest request = new RentalBatchRequest(Arrays.asList(
+                RentalOperation.create("k1", new RentalRequest("Amina", 3, "2026-11-02", "2026-11-05")),
+                RentalOperation.create("k2", new RentalRequest("Salma", 4, "2026-11-03", "2026-11-04"))));
+
+        JsonObject json = streaming.toJsonTree(request).getAsJsonObject();
+        assertEquals(reflective.toJsonTree(request), json);
+        assertEquals(2, json.getAsJsonArray("rentals").size());
+
+        JsonObject first = json.getAsJsonArray("rentals").get(0).getAsJsonObject();
+        assertEquals("k1", first.get("key").getAsString());
+        assertEquals("Amina", first.get("customer_name").getAsString());
+        assertEquals(3, first.get("caftan_id").getAsInt());
+        assertEquals("2026-11-02", first.get("start_date").getAsString());
+        assertEquals("2026-11-05", first.get("end_date").getAsString());
+    }
+
+    @Test
+    public void batchDeleteBodyIsTheListOfIds() {
+        // DELETE /rentals/batch: { "ids": [12, 13] }
+        RentalDeleteBatchRequest request = new RentalDeleteBatchRequest(Arrays.asList(12, 13));
+        assertEquals(JsonParser.parseString("{\"ids\":[12,13]}"), streaming.toJsonTree(request));
+
+        RentalDeleteBatchRequest parsed = streaming.fromJson("{\"ids\":[12,13]}", RentalDeleteBatchRequest.class);
+        assertEquals(Arrays.asList(12, 13), parsed.getIds());
+    }
+
+    private void assertSameModel(Class<?> type, String json) {
+        JsonElement expected = reflective.toJsonTree(reflective.fromJson(json, type));
+        JsonElement actual = reflective.toJsonTree(streaming.fromJson(json, type));
+        assertEquals(type.getName() + " " + json, expected, actual);
+    }
+
+    private static void assertRejected(Gson gson, String json) {
+        try {
+            gson.fromJson(json, Caftan.class);
+            fail("accepted " + json);
+        } catch (JsonSyntaxException expected) {
+            // Same error as reflective Gson
+        }
+    }
+
+    /**
+     * New instance with every serialized field set to a value derived from seed
+     */
+    private static Object populate(Class<?> type, int seed) throws Exception {
+        // Created the way Gson creates it (some request bodies have no empty constructor)
+        Object model = new Gson().fromJson("{}", type);
+
+        int index = 0;
+        for (Field field : serializedFields(type)) {
+            field.setAccessible(true);
+            field.set(model, sample(field.getGenericType(), field.getName(), seed * 100 + index++));
+        }
+        return model;
+    }
+
+    private static Object sample(Type type, String name, int seed) throws Exception {
+        if (type == String.class) {
+            return name + "-" + seed;
+        }
+        if (type == int.class || type == Integer.class) {
+            return seed + 1;
+        }
+        if (type == boolean.class) {
+            return true;
+        }
+        if (type instanceof ParameterizedType) {
+            ParameterizedType generic = (ParameterizedType) type;
+            Type[] arguments = generic.getActualTypeArguments();
+            if (generic.getRawType() == List.class) {
+                List<Object> list = new ArrayList<>();
+                list.add(sample(arguments[0], name, seed + 1));
+                list.add(sample(arguments[0], name, seed + 2));
+                return list;
+            }
+            if (generic.getRawType() == Map.class && arguments[0] == Integer.class) {
+                Map<Object, Object> map = new LinkedHashMap<>();
+                map.put(seed + 10, sample(arguments[1], name, seed + 1));
+                map.put(seed + 20, sample(arguments[1], name, seed + 2));
+                return map;
+            }
+        }
+        if (type instanceof Class && ((Class<?>) type).getPackage() == Caftan.class.getPackage()) {
+            return populate((Class<?>) type, seed);
+        }
+        throw new AssertionError("No sample value for " + type + " (field " + name + ")");
+    }
+
+    /**
+     * Fields Gson reads and writes (not static, not transient)
+     */
+    private static List<Field> serializedFields(Class<?> type) {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> c = type; c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && !field.isSynthetic()) {
+                    if (field.getAnnotation(SerializedName.class) == null) {
+                        throw new AssertionError(type.getName() + "." + field.getName() + " has no @SerializedName");
+                    }
+                    fields.add(field);
+                }
+            }
+        }
+        return fields;
+    }
+}
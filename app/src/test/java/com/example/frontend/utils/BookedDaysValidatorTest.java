@@ -0,0 +1,90 @@
+package com.example.frontend.utils;
+
+import com.example.frontend.data.RentalIntervalIndex;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * BookedDaysValidator: UTC millis / epoch day conversions and the days
+ * offered by the start and end pickers.
+ */
+public class BookedDaysValidatorTest {
+
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    // Booked [20, 25)
+    private final RentalIntervalIndex booked = RentalIntervalIndex.fromRanges(new int[]{20}, new int[]{25}, 1);
+
+    @Test
+    public void millisConversions() {
+        assertEquals(0, BookedDaysValidator.toEpochDay(0));
+        assertEquals(0, BookedDaysValidator.toEpochDay(DAY - 1));
+        assertEquals(1, BookedDaysValidator.toEpochDay(DAY));
+        // Before 1970: rounds down, not towards zero
+        assertEquals(-1, BookedDaysValidator.toEpochDay(-1));
+        assertEquals(-1, BookedDaysValidator.toEpochDay(-DAY));
+        for (int day = -1000; day <= 30000; day += 7) {
+            assertEquals(day, BookedDaysValidator.toEpochDay(BookedDaysValidator.toUtcMillis(day)));
+        }
+    }
+
+    @Test
+    public void startDays() {
+        BookedDaysValidator start = BookedDaysValidator.forStart(booked, 10);
+
+        assertFalse(start.isValid(BookedDaysValidator.toUtcMillis(9)));   // past
+        assertTrue(start.isValid(BookedDaysValidator.toUtcMillis(10)));   // today
+        assertTrue(start.isValid(BookedDaysValidator.toUtcMillis(19)));
+        assertFalse(start.isValid(BookedDaysValidator.toUtcMillis(20)));  // booked
+        assertFalse(start.isValid(BookedDaysValidator.toUtcMillis(24)));
+        assertTrue(start.isValid(BookedDaysValidator.toUtcMillis(25)));   // return day of the booking
+    }
+
+    @Test
+    public void endDaysStopAtTheNextBooking() {
+        BookedDaysValidator end = BookedDaysValidator.forEnd(booked, 15, 30);
+
+        assertFalse(end.isValid(BookedDaysValidator.toUtcMillis(15)));    // same day as the start
+        assertTrue(end.isValid(BookedDaysValidator.toUtcMillis(16)));
+        assertTrue(end.isValid(BookedDaysValidator.toUtcMillis(20)));     // returned as the next rental starts
+        assertFalse(end.isValid(BookedDaysValidator.toUtcMillis(21)));
+        assertFalse(end.isValid(BookedDaysValidator.toUtcMillis(30)));    // range would cross the booking
+    }
+
+    @Test
+    public void startRightBeforeABooking() {
+        // Start on 19: only the return on 20 (the booking's first day) is possible
+        BookedDaysValidator end = BookedDaysValidator.forEnd(booked, 19, 30);
+
+        assertTrue(end.isValid(BookedDaysValidator.toUtcMillis(20)));
+        assertFalse(end.isValid(BookedDaysValidator.toUtcMillis(21)));
+        assertFalse(end.isValid(BookedDaysValidator.toUtcMillis(26)));
+    }
+
+    @Test
+    public void betweenTwoBookings() {
+        // Booked [20, 25) and [27, 30): 25 and 26 are free, 27 is taken
+        RentalIntervalIndex two = RentalIntervalIndex.fromRanges(new int[]{20, 27}, new int[]{25, 30}, 2);
+        BookedDaysValidator start = BookedDaysValidator.forStart(two, 10);
+        BookedDaysValidator end = BookedDaysValidator.forEnd(two, 25, 30);
+
+        assertTrue(start.isValid(BookedDaysValidator.toUtcMillis(25)));
+        assertTrue(start.isValid(BookedDaysValidator.toUtcMillis(26)));
+        assertFalse(start.isValid(BookedDaysValidator.toUtcMillis(27)));
+        assertTrue(end.isValid(BookedDaysValidator.toUtcMillis(27)));
+        assertFalse(end.isValid(BookedDaysValidator.toUtcMillis(28)));
+    }
+
+    @Test
+    public void endDaysRespectTheMaximumLength() {
+        BookedDaysValidator end = BookedDaysValidator.forEnd(booked, 25, 30);
+
+        assertTrue(end.isValid(BookedDaysValidator.toUtcMillis(26)));
+        assertTrue(end.isValid(BookedDaysValidator.toUtcMillis(55)));
+        assertFalse(end.isValid(BookedDaysValidator.toUtcMillis(56)));
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.frontend.utils;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * DateFormats against java.time: epoch day conversions, leap years,
+ * the 1970 boundary and rejected input.
+ */
+public class DateFormatsTest {
+
+    @Test
+    public void epochBoundary() {
+        assertEquals(0, DateFormats.parseEpochDay("1970-01-01"));
+        assertEquals(-1, DateFormats.parseEpochDay("1969-12-31"));
+        assertEquals(1, DateFormats.parseEpochDay("1970-01-02"));
+        assertArrayEquals(new int[]{1970, 1, 1}, DateFormats.fromEpochDay(0));
+        assertArrayEquals(new int[]{1969, 12, 31}, DateFormats.fromEpochDay(-1));
+    }
+
+    @Test
+    public void leapYears() {
+        assertEquals(LocalDate.of(2024, 2, 29).toEpochDay(), DateFormats.parseEpochDay("2024-02-29"));
+        assertEquals(LocalDate.of(2000, 2, 29).toEpochDay(), DateFormats.parseEpochDay("2000-02-29"));
+        // Divisible by 100 but not by 400: not a leap year
+        assertEquals(DateFormats.INVALID_DAY, DateFormats.parseEpochDay("1900-02-29"));
+        assertEquals(DateFormats.INVALID_DAY, DateFormats.parseEpochDay("2023-02-29"));
+        assertEquals(1, DateFormats.parseEpochDay("2024-03-01") - DateFormats.parseEpochDay("2024-02-29"));
+        assertEquals(1, DateFormats.parseEpochDay("2023-03-01") - DateFormats.parseEpochDay("2023-02-28"));
+    }
+
+    @Test
+    public void roundTripMatchesJavaTime() {
+        // 0001-01-01 to 9999-12-31, every day
+        long first = LocalDate.of(1, 1, 1).toEpochDay();
+        long last = LocalDate.of(9999, 12, 31).toEpochDay();
+        for (long day = first; day <= last; day++) {
+            LocalDate date = LocalDate.ofEpochDay(day);
+            int epochDay = (int) day;
+
+            assertEquals(epochDay, DateFormats.toEpochDay(date.getYear(), date.getMonthValue(), date.getDayOfMonth()));
+            assertArrayEquals(new int[]{date.getYear(), date.getMonthValue(), date.getDayOfMonth()},
+                    DateFormats.fromEpochDay(epochDay));
+            assertEquals(date.toString(), DateFormats.formatIso(epochDay));
+            assertEquals(epochDay, DateFormats.parseEpochDay(DateFormats.formatIso(epochDay)));
+        }
+    }
+
+    @Test
+    public void isoTimestampsUseTheDatePart() {
+        assertEquals(DateFormats.parseEpochDay("2025-12-23"), DateFormats.parseEpochDay("2025-12-23T00:00:00.000000Z"));
+        assertEquals(DateFormats.parseEpochDay("2025-12-23"), DateFormats.parseEpochDay("2025-12-23 18:30:00"));
+    }
+
+    @Test
+    public void invalidInput() {
+        String[] invalid = {
+                null, "", "2025-12-2", "2025/12/23", "2025-1-230", "abcd-ef-gh",
+                "2025-00-10", "2025-13-01", "2025-12-00", "2025-12-32", "2025-04-31",
+                "-025-12-23", "2025-1a-23"
+        };
+        for (String text : invalid) {
+            assertEquals(text, DateFormats.INVALID_DAY, DateFormats.parseEpochDay(text));
+        }
+    }
+
+    @Test
+    public void display() {
+        assertEquals("Dec 23, 2025", DateFormats.formatDisplay(DateFormats.parseEpochDay("2025-12-23")));
+        assertEquals("Jan 01, 1970", DateFormats.toDisplay("1970-01-01T00:00:00.000000Z"));
+        assertEquals("", DateFormats.toDisplay(null));
+        assertEquals("", DateFormats.toDisplay(""));
+        // Unparseable: the date part is shown as it is
+        assertEquals("2025-13-01", DateFormats.toDisplay("2025-13-01T00:00:00Z"));
+        assertEquals("soon", DateFormats.toDisplay("soon"));
+    }
+}
@@ -0,0 +1,221 @@
+<?php
+
+namespace App\Console\Commands;
+
+use App\Models\Caftan;
+use Illuminate\Console\Command;
+
+/**
+ * Commande images:variants
+ *
+ * Génère, pour chaque image de caftan (public/image/*.jpeg), des versions
+ * réduites au format WebP :
+ * - public/image/variants/thumb/{nom}.webp  (vignettes de liste)
+ * - public/image/variants/medium/{nom}.webp (écran de détails)
+ *
+ * Les tailles sont définies dans Caftan::IMAGE_VARIANTS.
+ * Les variantes présentes sont enregistrées dans caftans.image_variants :
+ * l'API construit leurs URL sans vérifier le disque à chaque requête.
+ * Les variantes déjà à jour sont ignorées, la commande peut donc être
+ * relancée après chaque ajout d'image.
+ *
+ * Utilisation : php artisan images:variants [--force]
+ */
+class GenerateImageVariants extends Command
+{
+    /**
+     * @var string
+     */
+    protected $signature = 'images:variants
+                            {--force : Régénérer aussi les variantes existantes}';
+
+    /**
+     * @var string
+     */
+    protected $description = 'Générer les variantes WebP redimensionnées des images de caftans';
+
+    /**
+     * Qualité WebP (0-100)
+     */
+    private const WEBP_QUALITY = 80;
+
+    /**
+     * Exécuter la commande
+     *
+     * @return int
+     */
+    public function handle(): int
+    {
+        if (!function_exists('imagewebp')) {
+            $this->error('L\'extension GD avec le support WebP est requise');
+            return self::FAILURE;
+        }
+
+        $sources = glob(public_path(Caftan::IMAGE_DIRECTORY . '/*.{jpg,jpeg,png}'), GLOB_BRACE) ?: [];
+        if (empty($sources)) {
+            $this->info('Aucune image à traiter');
+            return self::SUCCESS;
+        }
+
+        $force = (bool) $this->option('force');
+        $generated = 0;
+        $updatedImages = [];
+        $availableVariants = [];
+
+        foreach ($sources as $source) {
+            $filename = basename($source);
+            $image = null;
+            $availableVariants[$filename] = [];
+
+            foreach (Caftan::IMAGE_VARIANTS as $variant => $maxSize) {
+                $target = Caftan::variantPath($filename, $variant);
+
+                // Variante déjà à jour
+                if (!$force && is_file($target) && filemtime($target) >= filemtime($source)) {
+                    $availableVariants[$filename][] = $variant;
+                    continue;
+                }
+
+                // Décoder l'original une seule fois pour toutes ses variantes
+                if ($image === null) {
+                    $image = $this->load($source);
+                    if ($image === null) {
+                        $this->warn("Image illisible : {$filename}");
+                        continue 2;
+                    }
+                }
+
+                $this->writeVariant($image, $target, $maxSize);
+                $availableVariants[$filename][] = $variant;
+                $generated++;
+                $updatedImages[$filename] = true;
+            }
+
+            if ($image !== null) {
+                imagedestroy($image);
+            }
+        }
+
+        $this->recordVariants($availableVariants, $updatedImages);
+
+        $this->info("{$generated} variante(s) générée(s) pour " . count($sources) . ' image(s)');
+
+        return self::SUCCESS;
+    }
+
+    /**
+     * Enregistrer dans image_variants les variantes présentes de chaque caftan
+     *
+     * Seuls les caftans dont la liste change ou dont une variante a été
+     * régénérée sont sauvegardés : updated_at change alors, et les clients
+     * récupèrent les nouvelles URL via la synchronisation incrémentale
+     * (?since=) et le nouvel ETag.
+     *
+     * @param array $availableVariants nom de fichier => variantes présentes
+     * @param array $updatedImages nom de fichier => true si une variante a été écrite
+     * @return void
+     */
+    private function recordVariants(array $availableVariants, array $updatedImages): void
+    {
+        $caftans = Caftan::withTrashed()->whereNotNull('image_url')->get();
+
+        foreach ($caftans as $caftan) {
+            $filename = basename((string) parse_url($caftan->image_url, PHP_URL_PATH));
+            if (!array_key_exists($filename, $availableVariants)) {
+                continue;
+            }
+
+            $variants = $availableVariants[$filename] ?: null;
+            if ($caftan->image_variants === $variants && !isset($updatedImages[$filename])) {
+                continue;
+            }
+
+            $caftan->image_variants = $variants;
+            $caftan->updated_at = now();
+            $caftan->save();
+        }
+    }
+
+    /**
+     * Charger une image source avec GD
+     *
+     * @param string $path
+     * @return \GdImage|null
+     */
+    private function load(string $path)
+    {
+        $extension = strtolower(pathinfo($path, PATHINFO_EXTENSION));
+        $image = $extension === 'png' ? @imagecreatefrompng($path) : @imagecreatefromjpeg($path);
+
+        if ($image === false) {
+            return null;
+        }
+
+        // Les photos d'appareil sont souvent stockées pivotées (EXIF)
+        return $this->applyExifOrientation($image, $path);
+    }
+
+    /**
+     * Écrire une variante réduite (le plus grand côté vaut au plus $maxSize)
+     *
+     * @param \GdImage $image
+     * @param string $target
+     * @param int $maxSize
+     * @return void
+     */
+    private function writeVariant($image, string $target, int $maxSize): void
+    {
+        $width = imagesx($image);
+        $height = imagesy($image);
+        $scale = min(1, $maxSize / max($width, $height));
+        $newWidth = max(1, (int) round($width * $scale));
+        $newHeight = max(1, (int) round($height * $scale));
+
+        $resized = imagecreatetruecolor($newWidth, $newHeight);
+        imagecopyresampled($resized, $image, 0, 0, 0, 0, $newWidth, $newHeight, $width, $height);
+
+        if (!is_dir(dirname($target))) {
+            mkdir(dirname($target), 0755, true);
+        }
+
+        // Écrire dans un fichier temporaire puis renommer : jamais de fichier
+        // à moitié écrit servi aux clients
+        $temporary = $target . '.tmp';
+        imagewebp($resized, $temporary, self::WEBP_QUALITY);
+        rename($temporary, $target);
+
+        imagedestroy($resized);
+    }
+
+    /**
+     * Redresser une image selon son orientation EXIF
+     *
+     * @param \GdImage $image
+     * @param string $path
+     * @return \GdImage
+     */
+    private function applyExifOrientation($image, string $path)
+    {
+        if (!function_exists('exif_read_data')) {
+            return $image;
+        }
+
+        $exif = @exif_read_data($path);
+        $orientation = $exif['Orientation'] ?? 1;
+        $angle = match ((int) $orientation) {
+            3 => 180,
+            6 => -90,
+            8 => 90,
+            default => 0,
+        };
+
+        if ($angle === 0) {
+            return $image;
+        }
+
+        $rotated = imagerotate($image, $angle, 0);
+        imagedestroy($image);
+
+        return $rotated;
+    }
+}
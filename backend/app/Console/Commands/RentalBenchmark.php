@@ -0,0 +1,206 @@
+<?php
+
+namespace App\Console\Commands;
+
+use App\Http\Controllers\RentalController;
+use App\Models\Caftan;
+use App\Models\Rental;
+use GuzzleHttp\Client;
+use GuzzleHttp\Pool;
+use GuzzleHttp\Psr7\Request;
+use GuzzleHttp\TransferStats;
+use Illuminate\Console\Command;
+use Illuminate\Http\Request as HttpRequest;
+use Illuminate\Support\Carbon;
+use Illuminate\Support\Facades\DB;
+use Illuminate\Support\Str;
+
+/**
+ * Commande rentals:benchmark
+ *
+ * Mesure le débit de POST /api/rentals sous charge concurrente : les demandes
+ * sont réparties sur plusieurs caftans et ne se chevauchent pas, elles doivent
+ * donc toutes être acceptées (201) et mesurent le chemin d'écriture complet
+ * (verrou du caftan, vérification de disponibilité, INSERT).
+ *
+ * Affiche le débit (réservations/s), les latences p50/p95/p99, et le nombre
+ * de requêtes SQL d'une réservation (mesuré dans ce processus).
+ *
+ * Comme pour rentals:load-test, le serveur doit traiter plusieurs requêtes
+ * à la fois et la limite de l'API (60 requêtes/minute par IP) doit être
+ * relevée pour les mesures au-delà de 60 demandes (les 429 sont comptés à part).
+ *
+ * Utilisation : php artisan rentals:benchmark [--url=] [--requests=200] [--concurrency=20] [--caftans=10] [--keep]
+ */
+class RentalBenchmark extends Command
+{
+    /**
+     * @var string
+     */
+    protected $signature = 'rentals:benchmark
+                            {--url= : URL de l\'API (défaut : APP_URL/api)}
+                            {--requests=200 : Nombre de réservations}
+                            {--concurrency=20 : Réservations envoyées en même temps}
+                            {--caftans=10 : Nombre de caftans sur lesquels répartir la charge}
+                            {--keep : Conserver les locations créées}';
+
+    /**
+     * @var string
+     */
+    protected $description = 'Mesurer le débit des réservations (POST /api/rentals) sous charge concurrente';
+
+    /**
+     * Nom de client des locations de test (pour les retrouver et les supprimer)
+     */
+    private const CUSTOMER_PREFIX = 'benchmark-';
+
+    /**
+     * Exécuter la commande
+     *
+     * @return int
+     */
+    public function handle(): int
+    {
+        $caftans = Caftan::orderBy('id')->limit(max(1, (int) $this->option('caftans')))->get();
+
+        if ($caftans->isEmpty()) {
+            $this->error('Aucun caftan à réserver');
+            return self::FAILURE;
+        }
+
+        $url = rtrim($this->option('url') ?: config('app.url') . '/api', '/') . '/rentals';
+        $total = max(1, (int) $this->option('requests'));
+        $concurrency = max(1, (int) $this->option('concurrency'));
+
+        // Période libre pour tous les caftans : après la dernière location connue
+        $lastEnd = Rental::whereIn('caftan_id', $caftans->pluck('id'))->max('end_date');
+        $base = Carbon::parse($lastEnd ?: 'today')->max(Carbon::today())->addDays(30);
+
+        $queries = $this->countBookingQueries($caftans->first(), $base);
+
+        $this->info("{$total} réservations ({$concurrency} en parallèle) sur {$caftans->count()} caftan(s) vers {$url}");
+
+        // Demande i : caftan i % n, 2 jours à partir de base + 3 × (i / n) jours
+        $requests = function () use ($total, $caftans, $base, $url) {
+            $count = $caftans->count();
+            for ($i = 0; $i < $total; $i++) {
+                $start = $base->copy()->addDays(3 * intdiv($i, $count) + 3);
+                yield new Request('POST', $url, [
+                    'Content-Type' => 'application/json',
+                    'Accept' => 'application/json',
+                    'Idempotency-Key' => (string) Str::uuid(),
+                ], json_encode([
+                    'customer_name' => self::CUSTOMER_PREFIX . $i,
+                    'caftan_id' => $caftans[$i % $count]->id,
+                    'start_date' => $start->toDateString(),
+                    'end_date' => $start->copy()->addDays(2)->toDateString(),
+                ]));
+            }
+        };
+
+        $statuses = [];
+        $latencies = [];
+
+        $client = new Client([
+            'http_errors' => false,
+            'timeout' => 30,
+            'on_stats' => function (TransferStats $stats) use (&$latencies) {
+                $latencies[] = $stats->getTransferTime();
+            },
+        ]);
+
+        $startedAt = microtime(true);
+        $pool = new Pool($client, $requests(), [
+            'concurrency' => $concurrency,
+            'fulfilled' => function ($response) use (&$statuses) {
+                $status = $response->getStatusCode();
+                $statuses[$status] = ($statuses[$status] ?? 0) + 1;
+            },
+            'rejected' => function ($reason) use (&$statuses) {
+                $statuses['erreur'] = ($statuses['erreur'] ?? 0) + 1;
+            },
+        ]);
+        $pool->promise()->wait();
+        $elapsed = microtime(true) - $startedAt;
+
+        ksort($statuses);
+        sort($latencies);
+
+        $this->table(['Statut', 'Réponses'], collect($statuses)->map(fn ($count, $status) => [$status, $count])->values());
+
+        $booked = $statuses[201] ?? 0;
+        $this->table(['Mesure', 'Valeur'], [
+            ['Durée', sprintf('%.2f s', $elapsed)],
+            ['Débit (201)', sprintf('%.1f réservations/s', $booked / max($elapsed, 0.001))],
+            ['Latence p50', $this->percentile($latencies, 50)],
+            ['Latence p95', $this->percentile($latencies, 95)],
+            ['Latence p99', $this->percentile($latencies, 99)],
+            ['Requêtes SQL par réservation', $queries],
+        ]);
+
+        if (!$this->option('keep')) {
+            Rental::whereIn('caftan_id', $caftans->pluck('id'))
+                ->where('customer_name', 'like', self::CUSTOMER_PREFIX . '%')
+                ->delete();
+        }
+
+        // Les demandes ne se chevauchent pas : tout refus autre que 429 est une erreur
+        $refused = $total - $booked - ($statuses[429] ?? 0);
+        if ($refused > 0) {
+            $this->error("{$refused} réservation(s) refusée(s) ou en erreur");
+            return self::FAILURE;
+        }
+
+        return self::SUCCESS;
+    }
+
+    /**
+     * Compter les requêtes SQL d'une réservation faite dans ce processus
+     * La location créée est supprimée ensuite
+     *
+     * @param Caftan $caftan Caftan à réserver
+     * @param Carbon $base Jour libre pour ce caftan
+     * @return int
+     */
+    private function countBookingQueries(Caftan $caftan, Carbon $base)
+    {
+        $request = HttpRequest::create('/api/rentals', 'POST', [
+            'customer_name' => self::CUSTOMER_PREFIX . 'queries',
+            'caftan_id' => $caftan->id,
+            'start_date' => $base->toDateString(),
+            'end_date' => $base->copy()->addDays(2)->toDateString(),
+        ]);
+        // Comme l'application : chaque création porte une clé d'idempotence
+        $request->headers->set('Idempotency-Key', (string) Str::uuid());
+
+        $count = 0;
+        DB::listen(function () use (&$count) {
+            $count++;
+        });
+
+        app(RentalController::class)->store($request);
+        $queries = $count;
+
+        Rental::where('caftan_id', $caftan->id)
+            ->where('customer_name', self::CUSTOMER_PREFIX . 'queries')
+            ->delete();
+
+        return $queries;
+    }
+
+    /**
+     * Latence à un centile, en millisecondes
+     *
+     * @param array $sorted Durées triées (secondes)
+     * @param int $percent Centile (0 à 100)
+     * @return string
+     */
+    private function percentile(array $sorted, $percent)
+    {
+        if (!$sorted) {
+            return '-';
+        }
+        $index = (int) ceil($percent / 100 * count($sorted)) - 1;
+        return sprintf('%.1f ms', 1000 * $sorted[max(0, $index)]);
+    }
+}
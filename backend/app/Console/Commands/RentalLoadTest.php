@@ -0,0 +1,154 @@
+<?php
+
+namespace App\Console\Commands;
+
+use App\Models\Caftan;
+use App\Models\Rental;
+use GuzzleHttp\Client;
+use GuzzleHttp\Pool;
+use GuzzleHttp\Psr7\Request;
+use Illuminate\Console\Command;
+use Illuminate\Support\Carbon;
+use Illuminate\Support\Facades\DB;
+
+/**
+ * Commande rentals:load-test
+ *
+ * Envoie en parallèle des POST /api/rentals qui se chevauchent pour un même
+ * caftan, puis vérifie dans la base qu'aucune paire de locations acceptées
+ * ne se chevauche (aucune double réservation).
+ *
+ * La demande i réserve [début + (i % 5), début + (i % 5) + 3 jours[ : une partie
+ * des demandes doit être acceptée (201), les autres refusées (400).
+ *
+ * Le serveur doit traiter plusieurs requêtes à la fois, par exemple :
+ *   PHP_CLI_SERVER_WORKERS=8 php artisan serve
+ * La limite de l'API (60 requêtes/minute par IP) renvoie 429 au-delà,
+ * ces réponses sont comptées à part. Le test échoue si moins de deux
+ * demandes ont été traitées : sans concurrence, il ne prouve rien.
+ *
+ * Utilisation : php artisan rentals:load-test [--url=] [--requests=40] [--concurrency=20] [--caftan=] [--keep]
+ */
+class RentalLoadTest extends Command
+{
+    /**
+     * @var string
+     */
+    protected $signature = 'rentals:load-test
+                            {--url= : URL de l\'API (défaut : APP_URL/api)}
+                            {--requests=40 : Nombre de demandes de location}
+                            {--concurrency=20 : Demandes envoyées en même temps}
+                            {--caftan= : ID du caftan (défaut : le premier caftan)}
+                            {--keep : Conserver les locations créées}';
+
+    /**
+     * @var string
+     */
+    protected $description = 'Réserver le même caftan en parallèle et vérifier l\'absence de double réservation';
+
+    /**
+     * Nom de client des locations de test (pour les retrouver et les supprimer)
+     */
+    private const CUSTOMER_PREFIX = 'load-test-';
+
+    /**
+     * Exécuter la commande
+     *
+     * @return int
+     */
+    public function handle(): int
+    {
+        $caftan = $this->option('caftan')
+            ? Caftan::find($this->option('caftan'))
+            : Caftan::orderBy('id')->first();
+
+        if (!$caftan) {
+            $this->error('Aucun caftan à réserver');
+            return self::FAILURE;
+        }
+
+        $url = rtrim($this->option('url') ?: config('app.url') . '/api', '/') . '/rentals';
+        $total = max(1, (int) $this->option('requests'));
+        $concurrency = max(1, (int) $this->option('concurrency'));
+
+        // Période libre : après la dernière location connue du caftan
+        $lastEnd = Rental::where('caftan_id', $caftan->id)->max('end_date');
+        $base = Carbon::parse($lastEnd ?: 'today')->max(Carbon::today())->addDays(30);
+
+        $this->info("{$total} demandes ({$concurrency} en parallèle) pour le caftan #{$caftan->id} vers {$url}");
+
+        $requests = function () use ($total, $caftan, $base, $url) {
+            for ($i = 0; $i < $total; $i++) {
+                $start = $base->copy()->addDays($i % 5);
+                yield new Request('POST', $url, [
+                    'Content-Type' => 'application/json',
+                    'Accept' => 'application/json',
+                ], json_encode([
+                    'customer_name' => self::CUSTOMER_PREFIX . $i,
+                    'caftan_id' => $caftan->id,
+                    'start_date' => $start->toDateString(),
+                    'end_date' => $start->copy()->addDays(3)->toDateString(),
+                ]));
+            }
+        };
+
+        $statuses = [];
+        $startedAt = microtime(true);
+
+        $pool = new Pool(new Client(['http_errors' => false, 'timeout' => 30]), $requests(), [
+            'concurrency' => $concurrency,
+            'fulfilled' => function ($response) use (&$statuses) {
+                $status = $response->getStatusCode();
+                $statuses[$status] = ($statuses[$status] ?? 0) + 1;
+            },
+            'rejected' => function ($reason) use (&$statuses) {
+                $statuses['erreur'] = ($statuses['erreur'] ?? 0) + 1;
+            },
+        ]);
+        $pool->promise()->wait();
+
+        $elapsed = microtime(true) - $startedAt;
+        ksort($statuses);
+
+        $this->table(['Statut', 'Réponses'], collect($statuses)->map(fn ($count, $status) => [$status, $count])->values());
+        $this->line(sprintf('Durée : %.2f s (%.1f demandes/s)', $elapsed, $total / max($elapsed, 0.001)));
+
+        // Vérification : aucune paire de locations du caftan ne se chevauche
+        $overlaps = DB::table('rentals as a')
+            ->join('rentals as b', function ($join) {
+                $join->on('a.caftan_id', '=', 'b.caftan_id')
+                    ->on('a.id', '<', 'b.id')
+                    ->on('a.start_date', '<', 'b.end_date')
+                    ->on('a.end_date', '>', 'b.start_date');
+            })
+            ->where('a.caftan_id', $caftan->id)
+            ->count();
+
+        $created = Rental::where('caftan_id', $caftan->id)
+            ->where('customer_name', 'like', self::CUSTOMER_PREFIX . '%')
+            ->count();
+
+        $this->line("Locations créées : {$created} (201 reçus : " . ($statuses[201] ?? 0) . ')');
+
+        if (!$this->option('keep')) {
+            Rental::where('caftan_id', $caftan->id)
+                ->where('customer_name', 'like', self::CUSTOMER_PREFIX . '%')
+                ->delete();
+        }
+
+        if ($overlaps > 0 || $created !== ($statuses[201] ?? 0)) {
+            $this->error("Double réservation détectée : {$overlaps} chevauchement(s)");
+            return self::FAILURE;
+        }
+
+        // Demandes réellement traitées : tout sauf les refus de la limite (429) et les erreurs réseau
+        $processed = $total - ($statuses[429] ?? 0) - ($statuses['erreur'] ?? 0);
+        if ($processed < 2) {
+            $this->error("Seulement {$processed} demande(s) traitée(s) : relever la limite de l'API ou attendre une minute");
+            return self::FAILURE;
+        }
+
+        $this->info('Aucune double réservation');
+        return self::SUCCESS;
+    }
+}
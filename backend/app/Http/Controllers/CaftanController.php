@@ -2,8 +2,13 @@
 
 namespace App\Http\Controllers;
 
+use App\Http\Middleware\NegotiateCbor;
 use App\Models\Caftan;
+use App\Models\Rental;
+use Carbon\Carbon;
 use Illuminate\Http\Request;
+use Illuminate\Support\Facades\Validator;
+use Symfony\Component\HttpFoundation\Response;
 
 /**
  * Contrôleur pour gérer les caftans
@@ -11,28 +16,144 @@ use Illuminate\Http\Request;
  * Ce contrôleur gère toutes les opérations liées aux caftans :
  * - Afficher la liste des caftans
  * - Afficher les détails d'un caftan spécifique
+ *
+ * La liste peut être paginée par curseur (?limit=&cursor=) pour que la taille
+ * des réponses reste constante quel que soit le nombre de caftans.
+ *
+ * La synchronisation incrémentale (?since=<server_time>) ne renvoie que les
+ * caftans modifiés depuis cette date et les IDs des caftans supprimés.
+ *
+ * Le calendrier de disponibilité (/caftans/{id}/availability) renvoie les
+ * jours réservés d'une période sous forme de bitset : un bit par jour.
+ *
+ * Les réponses GET portent un ETag (propre au format, JSON ou CBOR) et un
+ * Last-Modified : un client qui renvoie If-None-Match / If-Modified-Since
+ * reçoit un 304 sans corps si rien n'a changé.
  */
 class CaftanController extends Controller
 {
+    /**
+     * Taille de page par défaut et maximale pour la pagination par curseur
+     */
+    private const DEFAULT_PAGE_SIZE = 20;
+    private const MAX_PAGE_SIZE = 100;
+
+    /**
+     * Fenêtre par défaut et maximale du calendrier de disponibilité (en jours)
+     */
+    private const DEFAULT_AVAILABILITY_DAYS = 180;
+    private const MAX_AVAILABILITY_DAYS = 366;
+
     /**
      * Afficher la liste de tous les caftans
      * 
      * Route: GET /api/caftans
      * 
      * Retourne tous les caftans avec leurs informations (nom, taille, prix, image, disponibilité)
+     * Retourne 304 si le catalogue n'a pas changé depuis l'ETag du client
+     *
+     * Pagination optionnelle : ?limit=20&cursor=<next_cursor de la page précédente>
+     * Sans ces paramètres, tout le catalogue est retourné (anciens clients)
+     *
+     * Synchronisation incrémentale : ?since=<server_time d'une réponse précédente>
+     *
+     * Chaque réponse contient server_time, à renvoyer comme "since" la prochaine fois
      * 
-     * @return \Illuminate\Http\JsonResponse
+     * @param Request $request La requête HTTP (en-têtes conditionnels, pagination, since)
+     * @return \Illuminate\Http\JsonResponse|\Illuminate\Http\Response
      */
-    public function index()
+    public function index(Request $request)
     {
+        if ($request->has('since')) {
+            return $this->changes($request);
+        }
+
+        // Heure du serveur AVANT la lecture : rien de ce qui suit ne sera manqué
+        $serverTime = now()->toIso8601String();
+
+        $paginated = $request->has('limit') || $request->has('cursor');
+
+        // Calculer la version du catalogue sans charger les lignes
+        // (la page demandée et le format font partie de l'ETag)
+        $lastModified = Caftan::max('updated_at');
+        $etag = NegotiateCbor::etagFor($request, md5('caftans|' . Caftan::count() . '|' . Caftan::max('id')
+            . '|' . $lastModified . '|' . $request->query('cursor') . '|' . $request->query('limit')));
+
+        // Catalogue inchangé : 304 sans corps
+        $notModified = $this->notModified($request, $etag, $lastModified);
+        if ($notModified) {
+            return $notModified;
+        }
+
+        // Mode paginé : une page triée par ID + le curseur de la page suivante
+        if ($paginated) {
+            $page = Caftan::orderBy('id')->cursorPaginate($this->pageSize($request));
+
+            $response = response()->json([
+                'success' => true,
+                'message' => 'Page de caftans récupérée avec succès',
+                'data' => $page->items(),
+                'next_cursor' => $page->nextCursor()?->encode(),
+                'server_time' => $serverTime
+            ], 200);
+
+            return $this->withValidators($response, $etag, $lastModified);
+        }
+
         // Récupérer tous les caftans de la base de données
         $caftans = Caftan::all();
 
         // Retourner les caftans en format JSON
-        return response()->json([
+        $response = response()->json([
             'success' => true,
             'message' => 'Liste des caftans récupérée avec succès',
-            'data' => $caftans
+            'data' => $caftans,
+            'server_time' => $serverTime
+        ], 200);
+
+        return $this->withValidators($response, $etag, $lastModified);
+    }
+
+    /**
+     * Retourner les changements du catalogue depuis une date
+     *
+     * Route: GET /api/caftans?since=2025-01-01T10:00:00+00:00
+     *
+     * data    : caftans créés ou modifiés depuis "since"
+     * deleted : IDs des caftans supprimés depuis "since" (tombstones)
+     *
+     * La comparaison est inclusive (>=) : un caftan peut être renvoyé deux fois,
+     * l'application côté client est idempotente
+     *
+     * @param Request $request La requête HTTP contenant "since"
+     * @return \Illuminate\Http\JsonResponse
+     */
+    private function changes(Request $request)
+    {
+        try {
+            $since = Carbon::parse($request->query('since'))->setTimezone(config('app.timezone'));
+        } catch (\Exception $e) {
+            return response()->json([
+                'success' => false,
+                'message' => 'Paramètre since invalide'
+            ], 422);
+        }
+
+        // Heure du serveur AVANT la lecture : rien de ce qui suit ne sera manqué
+        $serverTime = now()->toIso8601String();
+
+        // Caftans créés ou modifiés (index sur updated_at)
+        $changed = Caftan::where('updated_at', '>=', $since)->orderBy('id')->get();
+
+        // Caftans supprimés (index sur deleted_at)
+        $deleted = Caftan::onlyTrashed()->where('deleted_at', '>=', $since)->pluck('id');
+
+        return response()->json([
+            'success' => true,
+            'message' => 'Changements du catalogue récupérés avec succès',
+            'data' => $changed,
+            'deleted' => $deleted,
+            'server_time' => $serverTime
         ], 200);
     }
 
@@ -42,11 +163,13 @@ class CaftanController extends Controller
      * Route: GET /api/caftans/{id}
      * 
      * Retourne les informations d'un caftan selon son ID
+     * Retourne 304 si le caftan n'a pas changé depuis l'ETag du client
      * 
+     * @param Request $request La requête HTTP (en-têtes conditionnels)
      * @param int $id L'ID du caftan à afficher
-     * @return \Illuminate\Http\JsonResponse
+     * @return \Illuminate\Http\JsonResponse|\Illuminate\Http\Response
      */
-    public function show($id)
+    public function show(Request $request, $id)
     {
         // Chercher le caftan par son ID
         $caftan = Caftan::find($id);
@@ -59,11 +182,173 @@ class CaftanController extends Controller
             ], 404);
         }
 
+        // Version du caftan : ID + date de dernière modification (+ format)
+        $etag = NegotiateCbor::etagFor($request, md5('caftan|' . $caftan->id . '|' . $caftan->updated_at));
+
+        // Caftan inchangé : 304 sans corps
+        $notModified = $this->notModified($request, $etag, $caftan->updated_at);
+        if ($notModified) {
+            return $notModified;
+        }
+
         // Retourner le caftan trouvé en format JSON
-        return response()->json([
+        $response = response()->json([
             'success' => true,
             'message' => 'Caftan récupéré avec succès',
             'data' => $caftan
         ], 200);
+
+        return $this->withValidators($response, $etag, $caftan->updated_at);
+    }
+
+    /**
+     * Calendrier de disponibilité d'un caftan
+     *
+     * Route: GET /api/caftans/{id}/availability?from=Y-m-d&to=Y-m-d
+     *
+     * Par défaut : à partir d'aujourd'hui, sur DEFAULT_AVAILABILITY_DAYS jours
+     * (au plus MAX_AVAILABILITY_DAYS). Les deux bornes sont incluses.
+     *
+     * "booked" est un bitset encodé en base64 : le bit i (octet i / 8,
+     * bit de poids faible en premier) vaut 1 si le jour from + i est réservé.
+     * Le jour de fin d'une location est le jour du retour, il reste libre.
+     * Six mois tiennent en 23 octets, au lieu de la liste des locations.
+     *
+     * @param Request $request La requête HTTP (from, to, en-têtes conditionnels)
+     * @param int $id L'identifiant du caftan
+     * @return \Illuminate\Http\JsonResponse|\Illuminate\Http\Response
+     */
+    public function availability(Request $request, $id)
+    {
+        $validator = Validator::make($request->query(), [
+            'from' => 'nullable|date_format:Y-m-d',
+            'to' => 'nullable|date_format:Y-m-d',
+        ]);
+
+        if ($validator->fails()) {
+            return response()->json([
+                'success' => false,
+                'message' => 'Erreur de validation',
+                'errors' => $validator->errors()
+            ], 422);
+        }
+
+        $caftan = Caftan::find($id);
+
+        if (!$caftan) {
+            return response()->json([
+                'success' => false,
+                'message' => 'Caftan non trouvé'
+            ], 404);
+        }
+
+        // Période demandée, bornée à MAX_AVAILABILITY_DAYS jours
+        $from = $request->query('from') ? Carbon::parse($request->query('from')) : Carbon::today();
+        $to = $request->query('to')
+            ? Carbon::parse($request->query('to'))
+            : $from->copy()->addDays(self::DEFAULT_AVAILABILITY_DAYS - 1);
+
+        if ($to->lt($from)) {
+            return response()->json([
+                'success' => false,
+                'message' => 'La date de fin doit être après la date de début'
+            ], 422);
+        }
+
+        $days = min($from->diffInDays($to) + 1, self::MAX_AVAILABILITY_DAYS);
+        $to = $from->copy()->addDays($days - 1);
+
+        // Locations qui touchent la période (index caftan_id, start_date, end_date)
+        $rentals = Rental::overlapping($caftan->id, $from->toDateString(), $to->copy()->addDay()->toDateString())
+            ->get(['start_date', 'end_date']);
+
+        // Un bit par jour, mis à 1 de start_date (inclus) à end_date (exclu)
+        $bits = str_repeat("\0", intdiv($days + 7, 8));
+        foreach ($rentals as $rental) {
+            $first = max(0, (int) $from->diffInDays($rental->start_date, false));
+            $last = min($days, (int) $from->diffInDays($rental->end_date, false));
+
+            for ($day = $first; $day < $last; $day++) {
+                $byte = $day >> 3;
+                $bits[$byte] = chr(ord($bits[$byte]) | (1 << ($day & 7)));
+            }
+        }
+
+        $booked = base64_encode($bits);
+
+        // Le contenu suffit comme version : 304 tant que rien ne change sur la période
+        $etag = NegotiateCbor::etagFor($request,
+            md5('availability|' . $caftan->id . '|' . $from->toDateString() . '|' . $days . '|' . $booked));
+
+        $notModified = $this->notModified($request, $etag, null);
+        if ($notModified) {
+            return $notModified;
+        }
+
+        $response = response()->json([
+            'success' => true,
+            'message' => 'Disponibilité récupérée avec succès',
+            'data' => [
+                'caftan_id' => $caftan->id,
+                'from' => $from->toDateString(),
+                'to' => $to->toDateString(),
+                'days' => $days,
+                'booked' => $booked,
+            ]
+        ], 200);
+
+        return $this->withValidators($response, $etag, null);
+    }
+
+    /**
+     * Lire la taille de page demandée (bornée entre 1 et MAX_PAGE_SIZE)
+     *
+     * @param Request $request La requête HTTP
+     * @return int
+     */
+    private function pageSize(Request $request)
+    {
+        $limit = (int) $request->query('limit', self::DEFAULT_PAGE_SIZE);
+
+        return max(1, min($limit, self::MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Construire une réponse 304 si les en-têtes conditionnels du client correspondent
+     *
+     * @param Request $request La requête HTTP
+     * @param string $etag L'ETag de la ressource
+     * @param mixed $lastModified Date de dernière modification (ou null)
+     * @return \Illuminate\Http\Response|null La réponse 304, ou null si le client doit recevoir le corps
+     */
+    private function notModified(Request $request, string $etag, $lastModified)
+    {
+        $response = $this->withValidators(response('', 200), $etag, $lastModified);
+
+        // isNotModified() passe la réponse en 304 et vide son contenu
+        return $response->isNotModified($request) ? $response : null;
+    }
+
+    /**
+     * Ajouter ETag, Last-Modified et Cache-Control à une réponse
+     *
+     * "no-cache" autorise le client à stocker la réponse mais l'oblige à la revalider
+     *
+     * @param Response $response La réponse à compléter
+     * @param string $etag L'ETag de la ressource
+     * @param mixed $lastModified Date de dernière modification (ou null)
+     * @return Response
+     */
+    private function withValidators(Response $response, string $etag, $lastModified)
+    {
+        $response->setEtag($etag);
+
+        if ($lastModified) {
+            $response->setLastModified(Carbon::parse($lastModified));
+        }
+
+        $response->headers->set('Cache-Control', 'private, no-cache');
+
+        return $response;
     }
 }
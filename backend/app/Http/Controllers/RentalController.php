@@ -4,17 +4,50 @@ namespace App\Http\Controllers;
 
 use App\Models\Rental;
 use App\Models\Caftan;
+use Carbon\Carbon;
+use Illuminate\Database\QueryException;
 use Illuminate\Http\Request;
+use Illuminate\Support\Facades\DB;
 use Illuminate\Support\Facades\Validator;
+use Illuminate\Support\Str;
 
 /**
  * Contrôleur pour gérer les locations de caftans
  *
  * Ce contrôleur gère la création et consultation des locations
- * UNLIMITED RENTALS: Aucune restriction de disponibilité ou de dates
+ * Un caftan ne peut pas être loué deux fois sur des périodes qui se chevauchent
+ * (vérifié dans une transaction qui verrouille le caftan, voir store())
+ *
+ * Format normalisé (?include=caftans) : chaque caftan n'est envoyé qu'une
+ * fois dans un dictionnaire "caftans" (clé = ID), placé avant "data", et les
+ * locations ne contiennent que caftan_id. Sans ce paramètre, chaque location
+ * embarque son caftan (anciens clients).
  */
 class RentalController extends Controller
 {
+    /**
+     * Taille de page par défaut et maximale pour la pagination par curseur
+     */
+    private const DEFAULT_PAGE_SIZE = 20;
+    private const MAX_PAGE_SIZE = 100;
+
+    /**
+     * Nombre maximal d'opérations par appel à POST /api/rentals/replay
+     */
+    private const MAX_REPLAY_OPERATIONS = 100;
+
+    /**
+     * Nombre maximal de locations par appel à POST et DELETE /api/rentals/batch
+     */
+    private const MAX_BATCH_SIZE = 500;
+
+    /**
+     * Essais d'un lot de créations : une clé insérée en parallèle par une
+     * autre requête fait échouer l'INSERT, le lot est alors rejoué une fois
+     * et reconnaît cette clé comme déjà utilisée (200)
+     */
+    private const MAX_BATCH_ATTEMPTS = 2;
+
     /**
      * Récupérer toutes les locations
      *
@@ -22,19 +55,72 @@ class RentalController extends Controller
      *
      * Retourne toutes les locations avec les informations du caftan associé
      *
+     * Pagination optionnelle : ?limit=20&cursor=<next_cursor de la page précédente>
+     * Sans ces paramètres, toutes les locations sont retournées (anciens clients)
+     *
+     * Format normalisé optionnel : ?include=caftans
+     *
+     * @param Request $request La requête HTTP (pagination, format)
      * @return \Illuminate\Http\JsonResponse
      */
-    public function index()
+    public function index(Request $request)
     {
+        $normalized = $request->query('include') === 'caftans';
+
+        // Format normalisé : les caftans sont chargés à part, une fois chacun
+        $query = $normalized ? Rental::query() : Rental::with('caftan');
+
+        // Mode paginé : une page (plus récentes d'abord) + le curseur de la page suivante
+        if ($request->has('limit') || $request->has('cursor')) {
+            $limit = max(1, min((int) $request->query('limit', self::DEFAULT_PAGE_SIZE), self::MAX_PAGE_SIZE));
+
+            $page = $query
+                ->orderBy('created_at', 'desc')
+                ->orderBy('id', 'desc')
+                ->cursorPaginate($limit);
+
+            $rentals = collect($page->items());
+
+            return response()->json(array_merge([
+                'success' => true,
+                'message' => 'Page de locations récupérée avec succès',
+            ], $normalized ? ['caftans' => $this->caftansOf($rentals)] : [], [
+                'data' => $rentals,
+                'next_cursor' => $page->nextCursor()?->encode()
+            ]), 200);
+        }
+
         // Récupérer toutes les locations avec les caftans associés
-        $rentals = Rental::with('caftan')->orderBy('created_at', 'desc')->get();
+        $rentals = $query->orderBy('created_at', 'desc')->get();
 
         // Retourner les locations en format JSON
-        return response()->json([
+        return response()->json(array_merge([
             'success' => true,
             'message' => 'Liste des locations récupérée avec succès',
+        ], $normalized ? ['caftans' => $this->caftansOf($rentals)] : [], [
             'data' => $rentals
-        ], 200);
+        ]), 200);
+    }
+
+    /**
+     * Dictionnaire des caftans référencés par des locations (format normalisé)
+     *
+     * Une seule requête, chaque caftan une seule fois, y compris les caftans
+     * supprimés (soft delete) encore référencés par d'anciennes locations
+     *
+     * @param \Illuminate\Support\Collection $rentals Les locations de la réponse
+     * @return object Objet JSON { "<id>": caftan }
+     */
+    private function caftansOf($rentals)
+    {
+        $ids = $rentals->pluck('caftan_id')->unique()->values();
+
+        $caftans = $ids->isEmpty()
+            ? collect()
+            : Caftan::withTrashed()->whereIn('id', $ids)->get()->keyBy('id');
+
+        // Toujours un objet JSON, même vide ou avec des IDs consécutifs
+        return (object) $caftans->all();
     }
 
     /**
@@ -43,90 +129,641 @@ class RentalController extends Controller
      * Route: POST /api/rentals
      *
      * Permet à un client de louer un caftan pour une période donnée
-     * UNLIMITED: Aucune vérification de disponibilité - locations illimitées
+     * Refusée (400) si le caftan est déjà loué sur une partie de la période
+     *
+     * En-tête optionnel Idempotency-Key : un nouvel essai reçoit la première
+     * réponse gardée par le middleware IdempotentRequests ; après expiration
+     * de celle-ci, la location déjà créée avec cette clé est renvoyée (200)
      *
      * @param Request $request La requête HTTP contenant les données de location
      * @return \Illuminate\Http\JsonResponse
      */
     public function store(Request $request)
     {
-        // Étape 1 : Valider les données envoyées par le client
+        [$status, $payload] = $this->bookRental($request->all(), $request->header('Idempotency-Key'));
+
+        return response()->json($payload, $status);
+    }
+
+    /**
+     * Supprimer une location
+     *
+     * Route: DELETE /api/rentals/{id}
+     *
+     * Supprime une location
+     * Note: La disponibilité du caftan n'est PAS modifiée
+     *
+     * @param int $id L'ID de la location à supprimer
+     * @return \Illuminate\Http\JsonResponse
+     */
+    public function destroy($id)
+    {
+        [$status, $payload] = $this->removeRental($id);
+
+        return response()->json($payload, $status);
+    }
+
+    /**
+     * Rejouer des opérations mises en file d'attente hors ligne
+     *
+     * Route: POST /api/rentals/replay
+     *
+     * Corps : { "operations": [ { "key": "...", "type": "create", "customer_name": "...",
+     *           "caftan_id": 1, "start_date": "Y-m-d", "end_date": "Y-m-d" },
+     *           { "key": "...", "type": "delete", "rental_id": 12 } ] }
+     *
+     * Les opérations sont appliquées dans l'ordre, avec le même résultat que
+     * POST /rentals ou DELETE /rentals/{id} : l'échec de l'une n'annule pas
+     * les autres. Les opérations consécutives du même type sont traitées
+     * ensemble, comme un lot (voir bookRentals() et removeRentals()).
+     * Chaque résultat reprend la clé de l'opération et son statut HTTP.
+     * Une création déjà appliquée (même clé) renvoie la location existante.
+     *
+     * @param Request $request La requête HTTP contenant les opérations
+     * @return \Illuminate\Http\JsonResponse
+     */
+    public function replay(Request $request)
+    {
         $validator = Validator::make($request->all(), [
+            'operations' => 'required|array|max:' . self::MAX_REPLAY_OPERATIONS,
+            'operations.*' => 'array',
+            'operations.*.key' => 'required|string|max:64',
+            'operations.*.type' => 'required|in:create,delete',
+        ]);
+
+        if ($validator->fails()) {
+            return response()->json([
+                'success' => false,
+                'message' => 'Erreur de validation',
+                'errors' => $validator->errors()
+            ], 422);
+        }
+
+        $operations = array_values($request->input('operations'));
+        $count = count($operations);
+        $results = [];
+
+        // Découper en suites d'opérations du même type, dans l'ordre d'envoi
+        for ($first = 0; $first < $count; $first = $next) {
+            $type = $operations[$first]['type'];
+            $next = $first + 1;
+            while ($next < $count && $operations[$next]['type'] === $type) {
+                $next++;
+            }
+            $run = array_slice($operations, $first, $next - $first);
+
+            if ($type === 'create') {
+                $runResults = $this->bookRentals($run);
+            } else {
+                $runResults = $this->removeRentals(array_map(function ($operation) {
+                    return $operation['rental_id'] ?? null;
+                }, $run));
+            }
+
+            foreach ($runResults as $index => $result) {
+                $results[] = ['key' => $run[$index]['key']] + $result;
+            }
+        }
+
+        return response()->json([
+            'success' => true,
+            'message' => 'Opérations rejouées',
+            'data' => $results
+        ], 200);
+    }
+
+    /**
+     * Créer plusieurs locations
+     *
+     * Route: POST /api/rentals/batch
+     *
+     * Corps : { "rentals": [ { "key": "...", "customer_name": "...", "caftan_id": 1,
+     *           "start_date": "Y-m-d", "end_date": "Y-m-d" }, ... ] }
+     *
+     * Toutes les créations acceptées sont insérées en une seule requête, dans
+     * une transaction. Chaque location est vérifiée comme avec POST /rentals
+     * (y compris contre les locations précédentes du même lot) et reçoit son
+     * propre résultat : 201, 200 (clé déjà utilisée), 400 (chevauchement) ou 422.
+     * "key" est optionnelle : sans elle, la création n'est pas idempotente.
+     *
+     * @param Request $request La requête HTTP contenant les locations
+     * @return \Illuminate\Http\JsonResponse
+     */
+    public function storeBatch(Request $request)
+    {
+        $validator = Validator::make($request->all(), [
+            'rentals' => 'required|array|max:' . self::MAX_BATCH_SIZE,
+            'rentals.*' => 'array',
+        ]);
+
+        if ($validator->fails()) {
+            return response()->json([
+                'success' => false,
+                'message' => 'Erreur de validation',
+                'errors' => $validator->errors()
+            ], 422);
+        }
+
+        $results = $this->bookRentals(array_values($request->input('rentals')));
+
+        return response()->json([
+            'success' => true,
+            'message' => 'Lot de locations traité',
+            'data' => $results
+        ], 200);
+    }
+
+    /**
+     * Supprimer plusieurs locations
+     *
+     * Route: DELETE /api/rentals/batch
+     *
+     * Corps : { "ids": [12, 13, ...] }
+     *
+     * Les locations trouvées sont supprimées en une seule requête.
+     * Un résultat par ID, dans l'ordre : 200, ou 404 si la location n'existe pas.
+     *
+     * @param Request $request La requête HTTP contenant les IDs
+     * @return \Illuminate\Http\JsonResponse
+     */
+    public function destroyBatch(Request $request)
+    {
+        $validator = Validator::make($request->all(), [
+            'ids' => 'required|array|max:' . self::MAX_BATCH_SIZE,
+            'ids.*' => 'integer',
+        ]);
+
+        if ($validator->fails()) {
+            return response()->json([
+                'success' => false,
+                'message' => 'Erreur de validation',
+                'errors' => $validator->errors()
+            ], 422);
+        }
+
+        $results = $this->removeRentals(array_values($request->input('ids')));
+
+        return response()->json([
+            'success' => true,
+            'message' => 'Lot de suppressions traité',
+            'data' => $results
+        ], 200);
+    }
+
+    /**
+     * Créer un lot de locations (utilisé par storeBatch() et replay())
+     *
+     * Nombre de requêtes fixe quel que soit la taille du lot : clés déjà
+     * utilisées, caftans verrouillés (par ID croissant, pour éviter les
+     * interblocages entre lots), locations existantes sur la période couverte,
+     * un INSERT de toutes les lignes acceptées, puis leur relecture par clé.
+     *
+     * Si une autre requête insère la même clé entre la lecture des clés et
+     * l'INSERT, l'index unique refuse tout le lot : la transaction est annulée
+     * et rejouée, et ces locations sont renvoyées avec le statut 200.
+     *
+     * @param array $items Locations à créer (customer_name, caftan_id, start_date, end_date, key)
+     * @return array Un résultat par location, dans l'ordre : status, message, rental ou errors
+     */
+    private function bookRentals(array $items)
+    {
+        $results = [];
+        $valid = [];
+
+        // Créations déjà appliquées : les renvoyer même si leurs dates sont passées
+        $keys = array_filter(array_map(function ($item) {
+            return is_array($item) && isset($item['key']) && is_string($item['key']) ? $item['key'] : null;
+        }, $items));
+        $applied = $keys ? Rental::with('caftan')->whereIn('idempotency_key', array_unique($keys))
+            ->get()->keyBy('idempotency_key') : collect();
+
+        // Étape 1 : Valider chaque location (mêmes règles que store(), sans requête)
+        foreach ($items as $index => $item) {
+            $item = is_array($item) ? $item : [];
+            $key = $item['key'] ?? null;
+
+            if (is_string($key) && $applied->has($key)) {
+                $results[$index] = $this->bookedResult(200, 'Location déjà créée', $applied[$key], $applied[$key]->caftan);
+                continue;
+            }
+
+            $validator = Validator::make($item, [
+                'key' => 'nullable|string|max:64',
+                'customer_name' => 'required|string|max:255',
+                'caftan_id' => 'required|integer',
+                'start_date' => 'required|date|after_or_equal:today',
+                'end_date' => ['required', 'date', 'after:start_date', $this->maxDurationRule($item)],
+            ]);
+
+            if ($validator->fails()) {
+                $results[$index] = [
+                    'status' => 422,
+                    'message' => 'Erreur de validation',
+                    'errors' => $validator->errors()
+                ];
+                continue;
+            }
+
+            $valid[$index] = [
+                // Clé générée si absente : elle sert à relire les lignes insérées
+                'idempotency_key' => $key ?? (string) Str::uuid(),
+                'customer_name' => $item['customer_name'],
+                'caftan_id' => (int) $item['caftan_id'],
+                'start_date' => Carbon::parse($item['start_date'])->toDateString(),
+                'end_date' => Carbon::parse($item['end_date'])->toDateString(),
+            ];
+        }
+
+        if (!$valid) {
+            ksort($results);
+            return $results;
+        }
+
+        for ($attempt = 1; ; $attempt++) {
+            try {
+                $results = $this->bookValidRentals($valid, $results);
+                break;
+            } catch (QueryException $e) {
+                if (!$this->isDuplicateKey($e) || $attempt >= self::MAX_BATCH_ATTEMPTS) {
+                    throw $e;
+                }
+            }
+        }
+
+        ksort($results);
+        return $results;
+    }
+
+    /**
+     * Étapes 2 à 5 de bookRentals(), dans une transaction
+     *
+     * @param array $valid Locations validées, par index dans le lot
+     * @param array $results Résultats déjà connus (erreurs de validation, clés déjà utilisées)
+     * @return array Les résultats complétés
+     * @throws QueryException Clé d'idempotence insérée en parallèle (index unique)
+     */
+    private function bookValidRentals(array $valid, array $results)
+    {
+        return DB::transaction(function () use ($valid, $results) {
+            $caftanIds = array_unique(array_column($valid, 'caftan_id'));
+            sort($caftanIds);
+
+            // Étape 2 : Verrouiller tous les caftans du lot
+            $caftans = Caftan::whereIn('id', $caftanIds)->orderBy('id')->lockForUpdate()->get()->keyBy('id');
+
+            // Même clé envoyée en parallèle : la première requête l'a créée
+            $applied = Rental::whereIn('idempotency_key', array_column($valid, 'idempotency_key'))
+                ->get()->keyBy('idempotency_key');
+
+            // Étape 3 : Locations existantes de ces caftans sur la période du lot
+            $booked = [];
+            $existing = Rental::whereIn('caftan_id', $caftanIds)
+                ->where('start_date', '>=', Rental::earliestOverlappingStart(min(array_column($valid, 'start_date'))))
+                ->where('start_date', '<', max(array_column($valid, 'end_date')))
+                ->where('end_date', '>', min(array_column($valid, 'start_date')))
+                ->get(['caftan_id', 'start_date', 'end_date']);
+            foreach ($existing as $rental) {
+                $booked[$rental->caftan_id][] = [$rental->start_date_formatted, $rental->end_date_formatted];
+            }
+
+            // Étape 4 : Accepter ou refuser chaque location, dans l'ordre du lot
+            $rows = [];
+            $accepted = [];
+            $now = Carbon::now();
+            foreach ($valid as $index => $item) {
+                $key = $item['idempotency_key'];
+                $caftan = $caftans[$item['caftan_id']] ?? null;
+
+                if ($applied->has($key)) {
+                    $results[$index] = $this->bookedResult(200, 'Location déjà créée', $applied[$key],
+                        $caftans[$applied[$key]->caftan_id] ?? $applied[$key]->caftan);
+                } elseif (isset($accepted[$key])) {
+                    // Clé répétée dans le même lot : même location que la première
+                    $accepted[$key][] = $index;
+                } elseif (!$caftan) {
+                    $results[$index] = [
+                        'status' => 422,
+                        'message' => 'Erreur de validation',
+                        'errors' => ['caftan_id' => ['Le caftan sélectionné est introuvable']]
+                    ];
+                } elseif ($this->overlapsAny($booked[$caftan->id] ?? [], $item['start_date'], $item['end_date'])) {
+                    $results[$index] = [
+                        'status' => 400,
+                        'message' => 'Ce caftan n\'est pas disponible pour les dates sélectionnées'
+                    ];
+                } else {
+                    $booked[$caftan->id][] = [$item['start_date'], $item['end_date']];
+                    $accepted[$key] = [$index];
+                    $rows[] = $item + [
+                        'total_price' => round(Rental::totalPriceFor($item['start_date'], $item['end_date'], $caftan->price), 2),
+                        'created_at' => $now,
+                        'updated_at' => $now,
+                    ];
+                }
+            }
+
+            if (!$rows) {
+                return $results;
+            }
+
+            // Étape 5 : Une seule requête INSERT pour tout le lot, puis relecture des IDs
+            Rental::insert($rows);
+            $created = Rental::whereIn('idempotency_key', array_keys($accepted))->get()->keyBy('idempotency_key');
+
+            foreach ($accepted as $key => $indexes) {
+                $rental = $created[$key];
+                $caftan = $caftans[$rental->caftan_id];
+                foreach ($indexes as $position => $index) {
+                    $results[$index] = $position === 0
+                        ? $this->bookedResult(201, 'Location créée avec succès', $rental, $caftan)
+                        : $this->bookedResult(200, 'Location déjà créée', $rental, $caftan);
+                }
+            }
+
+            return $results;
+        });
+    }
+
+    /**
+     * Résultat d'une création dans un lot, avec la location et son caftan
+     *
+     * @param int $status Statut HTTP (201 ou 200)
+     * @param string $message Message pour le client
+     * @param Rental $rental La location
+     * @param Caftan|null $caftan Son caftan
+     * @return array
+     */
+    private function bookedResult($status, $message, Rental $rental, $caftan)
+    {
+        return [
+            'status' => $status,
+            'message' => $message,
+            'rental' => $rental->setRelation('caftan', $caftan)
+        ];
+    }
+
+    /**
+     * Vérifier si une période chevauche une des périodes déjà réservées
+     * Même règle que Rental::scopeOverlapping() (dates Y-m-d comparées comme textes)
+     *
+     * @param array $periods Liste de [start_date, end_date]
+     * @param string $startDate Date de début demandée (Y-m-d)
+     * @param string $endDate Date de fin demandée (Y-m-d)
+     * @return bool
+     */
+    private function overlapsAny(array $periods, $startDate, $endDate)
+    {
+        foreach ($periods as [$start, $end]) {
+            if ($start < $endDate && $end > $startDate) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Supprimer un lot de locations (utilisé par destroyBatch() et replay())
+     * Une requête pour trouver les locations, une pour les supprimer
+     *
+     * @param array $ids IDs des locations (null ou invalide = introuvable)
+     * @return array Un résultat par ID, dans l'ordre : rental_id, status, message
+     */
+    private function removeRentals(array $ids)
+    {
+        $wanted = array_values(array_unique(array_filter($ids, function ($id) {
+            return is_int($id) || (is_string($id) && ctype_digit($id));
+        })));
+
+        $found = DB::transaction(function () use ($wanted) {
+            $found = $wanted ? Rental::whereIn('id', $wanted)->lockForUpdate()->pluck('id')->all() : [];
+            if ($found) {
+                Rental::whereIn('id', $found)->delete();
+            }
+            return array_flip($found);
+        });
+
+        $results = [];
+        foreach ($ids as $id) {
+            // Un ID répété n'est supprimé qu'une fois : les suivants sont introuvables
+            if (is_scalar($id) && isset($found[(int) $id])) {
+                unset($found[(int) $id]);
+                $results[] = ['rental_id' => (int) $id, 'status' => 200, 'message' => 'Location supprimée avec succès'];
+            } else {
+                $results[] = ['rental_id' => $id, 'status' => 404, 'message' => 'Location introuvable'];
+            }
+        }
+        return $results;
+    }
+
+    /**
+     * Créer une location si le caftan est libre (utilisé par store())
+     *
+     * @param array $input customer_name, caftan_id, start_date, end_date
+     * @param string|null $key Clé d'idempotence du client
+     * @return array [statut HTTP, corps de la réponse]
+     */
+    private function bookRental(array $input, $key = null)
+    {
+        // Étape 1 : Valider les données envoyées par le client
+        // (l'existence du caftan est vérifiée à l'étape 2, avec la seule requête sur caftans)
+        $validator = Validator::make($input, [
             // Nom du client : requis, texte, max 255 caractères
             'customer_name' => 'required|string|max:255',
 
-            // ID du caftan : requis, doit exister dans la table caftans
-            'caftan_id' => 'required|exists:caftans,id',
+            // ID du caftan : requis, entier
+            'caftan_id' => 'required|integer',
 
             // Date de début : requise, doit être une date, pas avant aujourd'hui
             'start_date' => 'required|date|after_or_equal:today',
 
-            // Date de fin : requise, doit être une date, après la date de début
-            'end_date' => 'required|date|after:start_date',
+            // Date de fin : requise, doit être une date, après la date de début,
+            // au plus Rental::MAX_RENTAL_DAYS jours plus tard
+            'end_date' => ['required', 'date', 'after:start_date', $this->maxDurationRule($input)],
         ]);
 
         // Si la validation échoue, retourner les erreurs
+        // (sauf création déjà appliquée avec cette clé, dont les dates sont passées depuis)
         if ($validator->fails()) {
-            return response()->json([
+            if ($applied = $this->appliedBooking($key)) {
+                return $applied;
+            }
+
+            return [422, [
                 'success' => false,
                 'message' => 'Erreur de validation',
                 'errors' => $validator->errors()
-            ], 422);
+            ]];
         }
 
-        // Étape 2 : Récupérer le caftan pour le calcul du prix
-        $caftan = Caftan::find($request->caftan_id);
+        // Dates normalisées (Y-m-d) pour la comparaison avec les colonnes DATE
+        $startDate = Carbon::parse($input['start_date'])->toDateString();
+        $endDate = Carbon::parse($input['end_date'])->toDateString();
 
-        // Étape 3 : Créer la location (UNLIMITED - pas de vérification de disponibilité)
-        $rental = Rental::create([
-            'customer_name' => $request->customer_name,
-            'caftan_id' => $request->caftan_id,
-            'start_date' => $request->start_date,
-            'end_date' => $request->end_date,
-            'total_price' => 0 // Will be calculated after
-        ]);
+        // Étapes 2 à 4 dans une transaction : la ligne du caftan est verrouillée
+        // (SELECT ... FOR UPDATE), les réservations concurrentes du même caftan
+        // attendent donc la fin de celle-ci avant de vérifier la disponibilité.
+        // Trois requêtes en tout : caftan, chevauchement, INSERT.
+        try {
+            $result = DB::transaction(function () use ($input, $key, $startDate, $endDate) {
+                // Étape 2 : Récupérer et verrouiller le caftan (prix et existence)
+                $caftan = Caftan::whereKey($input['caftan_id'])->lockForUpdate()->first();
+                if (!$caftan) {
+                    return [422, null];
+                }
 
-        // Calculer le prix total (nombre de jours × prix par jour)
-        $rental->total_price = $rental->calculateTotalPrice($caftan->price);
+                // Étape 3 : Vérifier qu'aucune location ne chevauche la période demandée
+                if (Rental::overlapping($caftan->id, $startDate, $endDate)->exists()) {
+                    return [400, null];
+                }
 
-        // Sauvegarder la location dans la base de données
-        $rental->save();
+                // Étape 4 : Créer la location avec son prix (une seule écriture)
+                $rental = Rental::create([
+                    'customer_name' => $input['customer_name'],
+                    'caftan_id' => $caftan->id,
+                    'start_date' => $startDate,
+                    'end_date' => $endDate,
+                    'total_price' => round(Rental::totalPriceFor($startDate, $endDate, $caftan->price), 2),
+                    'idempotency_key' => $key
+                ]);
 
-        // Étape 4 : Retourner la réponse de succès
-        // Note: La disponibilité du caftan n'est PAS modifiée
-        // Permet des locations illimitées et concurrentes
-        return response()->json([
+                return [201, [$rental, $caftan]];
+            });
+        } catch (QueryException $e) {
+            // Même clé envoyée deux fois en parallèle : l'index unique a refusé
+            // la seconde, renvoyer la location créée par la première
+            $applied = $this->isDuplicateKey($e) ? $this->appliedBooking($key) : null;
+            if (!$applied) {
+                throw $e;
+            }
+            return $applied;
+        }
+
+        [$status, $booked] = $result;
+
+        // Refus : la location a peut-être déjà été créée avec cette clé
+        // (ses propres dates sont alors occupées, ou son caftan supprimé depuis)
+        if ($status !== 201 && ($applied = $this->appliedBooking($key))) {
+            return $applied;
+        }
+
+        if ($status === 422) {
+            return [422, [
+                'success' => false,
+                'message' => 'Erreur de validation',
+                'errors' => ['caftan_id' => ['Le caftan sélectionné est introuvable']]
+            ]];
+        }
+
+        if ($status === 400) {
+            return [400, [
+                'success' => false,
+                'message' => 'Ce caftan n\'est pas disponible pour les dates sélectionnées'
+            ]];
+        }
+
+        [$rental, $caftan] = $booked;
+
+        // Étape 5 : Retourner la réponse de succès
+        return [201, [
             'success' => true,
             'message' => 'Location créée avec succès',
             'data' => [
                 'rental' => $rental,
                 'caftan' => $caftan
             ]
-        ], 201);
+        ]];
     }
 
     /**
-     * Supprimer une location
+     * Règle de validation : la location dure au plus Rental::MAX_RENTAL_DAYS jours
+     * (fin - début, le jour du retour n'est pas compté)
      *
-     * Route: DELETE /api/rentals/{id}
+     * @param array $input Données de la location (pour lire start_date)
+     * @return \Closure
+     */
+    private function maxDurationRule(array $input)
+    {
+        return function ($attribute, $value, $fail) use ($input) {
+            // Dates illisibles : déjà signalées par la règle "date"
+            if (!isset($input['start_date']) || strtotime((string) $input['start_date']) === false
+                || strtotime((string) $value) === false) {
+                return;
+            }
+
+            $days = Carbon::parse($input['start_date'])->diffInDays(Carbon::parse($value), false);
+            if ($days > Rental::MAX_RENTAL_DAYS) {
+                $fail('La durée maximale de location est de ' . Rental::MAX_RENTAL_DAYS . ' jours.');
+            }
+        };
+    }
+
+    /**
+     * Vérifier si une erreur SQL est une violation de contrainte d'intégrité
+     * (valeur en double dans un index unique, entre autres)
      *
-     * Supprime une location
-     * Note: La disponibilité du caftan n'est PAS modifiée
+     * @param QueryException $e L'erreur
+     * @return bool
+     */
+    private function isDuplicateKey(QueryException $e)
+    {
+        // SQLSTATE 23000 (MySQL, SQLite) / 23505 (PostgreSQL)
+        return in_array((string) $e->getCode(), ['23000', '23505'], true);
+    }
+
+    /**
+     * Réponse pour une clé d'idempotence déjà utilisée, s'il y en a une
      *
-     * @param int $id L'ID de la location à supprimer
-     * @return \Illuminate\Http\JsonResponse
+     * Lue seulement quand la création échoue : une création acceptée n'a
+     * pas besoin de cette requête, l'index unique protège la clé
+     *
+     * @param string|null $key Clé d'idempotence du client
+     * @return array|null [statut HTTP, corps de la réponse], ou null si la clé est libre
      */
-    public function destroy($id)
+    private function appliedBooking($key)
+    {
+        $existing = $key !== null
+            ? Rental::with('caftan')->where('idempotency_key', $key)->first()
+            : null;
+
+        return $existing ? $this->alreadyBooked($existing, $existing->caftan) : null;
+    }
+
+    /**
+     * Réponse d'une création déjà appliquée avec la même clé d'idempotence
+     *
+     * @param Rental $rental La location créée la première fois
+     * @param Caftan $caftan Son caftan
+     * @return array [statut HTTP, corps de la réponse]
+     */
+    private function alreadyBooked(Rental $rental, $caftan)
+    {
+        return [200, [
+            'success' => true,
+            'message' => 'Location déjà créée',
+            'data' => [
+                'rental' => $rental->unsetRelation('caftan'),
+                'caftan' => $caftan
+            ]
+        ]];
+    }
+
+    /**
+     * Supprimer une location (utilisé par destroy())
+     *
+     * @param int|null $id L'ID de la location à supprimer
+     * @return array [statut HTTP, corps de la réponse]
+     */
+    private function removeRental($id)
     {
         // Trouver la location
-        $rental = Rental::find($id);
+        $rental = $id !== null ? Rental::find($id) : null;
 
         // Vérifier si la location existe
         if (!$rental) {
-            return response()->json([
+            return [404, [
                 'success' => false,
                 'message' => 'Location introuvable'
-            ], 404);
+            ]];
         }
 
         // Supprimer la location
@@ -134,13 +771,12 @@ class RentalController extends Controller
 
         // Retourner la réponse de succès
         // Note: La disponibilité du caftan n'est PAS modifiée
-        return response()->json([
+        return [200, [
             'success' => true,
             'message' => 'Location supprimée avec succès',
             'data' => [
                 'rental_id' => $id
             ]
-        ], 200);
+        ]];
     }
 }
-
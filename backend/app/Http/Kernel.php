@@ -29,6 +29,9 @@ class Kernel extends HttpKernel
         'api' => [
             // Throttle: Limiter le nombre de requêtes (60 par minute)
             'throttle:api',
+
+            // Réponses en CBOR si le client envoie "Accept: application/cbor"
+            \App\Http\Middleware\NegotiateCbor::class,
         ],
     ];
 
@@ -39,5 +42,8 @@ class Kernel extends HttpKernel
      */
     protected $middlewareAliases = [
         'throttle' => \Illuminate\Routing\Middleware\ThrottleRequests::class,
+
+        // Réponse gardée et renvoyée pour un Idempotency-Key déjà vu
+        'idempotent' => \App\Http\Middleware\IdempotentRequests::class,
     ];
 }
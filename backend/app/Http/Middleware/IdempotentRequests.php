@@ -0,0 +1,151 @@
+<?php
+
+namespace App\Http\Middleware;
+
+use Closure;
+use Illuminate\Http\JsonResponse;
+use Illuminate\Http\Request;
+use Illuminate\Support\Facades\Cache;
+use Symfony\Component\HttpFoundation\Response;
+
+/**
+ * Middleware IdempotentRequests
+ *
+ * Si la requête porte un en-tête Idempotency-Key, sa réponse est gardée dans
+ * le cache pendant TTL_SECONDS. Une requête renvoyée avec la même clé (nouvel
+ * essai du client, double appui) reçoit la réponse gardée, avec l'en-tête
+ * "Idempotent-Replayed: true", sans être exécutée une seconde fois.
+ *
+ * - même clé, corps différent : 422 (la clé a déjà servi à autre chose)
+ * - même clé pendant que la première requête est en cours : 409, à réessayer
+ * - les 5xx, 409 et 429 ne sont pas gardés : le client peut réessayer
+ *
+ * Le cache est borné : les clés expirent après TTL_SECONDS et les réponses
+ * de plus de MAX_CACHED_BYTES ne sont pas gardées. Au-delà, la colonne
+ * rentals.idempotency_key empêche encore de créer deux fois la même location.
+ */
+class IdempotentRequests
+{
+    /**
+     * Nom de l'en-tête de la requête
+     */
+    public const HEADER = 'Idempotency-Key';
+
+    /**
+     * Durée de conservation d'une réponse (24 heures)
+     */
+    private const TTL_SECONDS = 86400;
+
+    /**
+     * Durée maximale du verrou d'une requête en cours
+     */
+    private const LOCK_SECONDS = 30;
+
+    /**
+     * Taille maximale d'une réponse gardée (JSON)
+     */
+    private const MAX_CACHED_BYTES = 262144;
+
+    /**
+     * Taille maximale d'une clé (colonne rentals.idempotency_key)
+     */
+    private const MAX_KEY_LENGTH = 64;
+
+    /**
+     * Traiter la requête
+     *
+     * @param Request $request
+     * @param Closure $next
+     * @return Response
+     */
+    public function handle(Request $request, Closure $next)
+    {
+        $key = $request->header(self::HEADER);
+
+        if ($key === null) {
+            return $next($request);
+        }
+
+        if ($key === '' || strlen($key) > self::MAX_KEY_LENGTH) {
+            return response()->json([
+                'success' => false,
+                'message' => 'Clé d\'idempotence invalide (1 à ' . self::MAX_KEY_LENGTH . ' caractères)'
+            ], 400);
+        }
+
+        // Clé propre à la route : la même clé sur une autre route est une autre requête
+        $cacheKey = 'idempotency:' . sha1($request->method() . ' ' . $request->path() . ' ' . $key);
+        $fingerprint = hash('sha256', $request->getContent());
+
+        $cached = Cache::get($cacheKey);
+        if ($cached !== null) {
+            return $this->replay($cached, $fingerprint);
+        }
+
+        $lock = Cache::lock($cacheKey . ':lock', self::LOCK_SECONDS);
+        if (!$lock->get()) {
+            return response()->json([
+                'success' => false,
+                'message' => 'Une requête avec cette clé d\'idempotence est déjà en cours'
+            ], 409)->header('Retry-After', '1');
+        }
+
+        try {
+            // La première requête a pu finir entre la lecture du cache et le verrou
+            $cached = Cache::get($cacheKey);
+            if ($cached !== null) {
+                return $this->replay($cached, $fingerprint);
+            }
+
+            $response = $next($request);
+
+            if ($this->isCacheable($response)) {
+                Cache::put($cacheKey, [
+                    'fingerprint' => $fingerprint,
+                    'status' => $response->getStatusCode(),
+                    'body' => $response->getContent(),
+                ], self::TTL_SECONDS);
+            }
+
+            return $response;
+        } finally {
+            $lock->release();
+        }
+    }
+
+    /**
+     * Renvoyer la réponse gardée, si le corps est le même que la première fois
+     *
+     * @param array $cached fingerprint, status, body
+     * @param string $fingerprint Empreinte du corps de la requête actuelle
+     * @return JsonResponse
+     */
+    private function replay(array $cached, $fingerprint)
+    {
+        if (!hash_equals($cached['fingerprint'], $fingerprint)) {
+            return response()->json([
+                'success' => false,
+                'message' => 'Cette clé d\'idempotence a déjà été utilisée pour une autre requête'
+            ], 422);
+        }
+
+        return JsonResponse::fromJsonString($cached['body'], $cached['status'])
+            ->header('Idempotent-Replayed', 'true');
+    }
+
+    /**
+     * Une réponse peut-elle être renvoyée telle quelle à un nouvel essai ?
+     *
+     * @param Response $response
+     * @return bool
+     */
+    private function isCacheable($response)
+    {
+        $status = $response->getStatusCode();
+
+        return $response instanceof JsonResponse
+            && $status < 500
+            && !in_array($status, [409, 429], true)
+            && strlen($response->getContent()) <= self::MAX_CACHED_BYTES;
+    }
+}
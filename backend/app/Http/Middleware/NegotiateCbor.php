@@ -0,0 +1,90 @@
+<?php
+
+namespace App\Http\Middleware;
+
+use App\Support\CborEncoder;
+use Closure;
+use Illuminate\Http\JsonResponse;
+use Illuminate\Http\Request;
+use Symfony\Component\HttpFoundation\Response;
+
+/**
+ * Middleware NegotiateCbor
+ *
+ * Négociation de contenu : si le client accepte "application/cbor" (en-tête
+ * Accept), les réponses JSON sont renvoyées en CBOR, avec la même structure
+ * (success, message, data...). Sinon la réponse JSON est inchangée : JSON
+ * reste le format par défaut.
+ *
+ * Les en-têtes de la réponse (ETag, Last-Modified, Cache-Control) sont
+ * conservés. "Vary: Accept" indique aux caches que le format dépend de
+ * l'en-tête Accept, et les contrôleurs suffixent leurs ETag avec le format
+ * (etagFor) : les versions JSON et CBOR d'une ressource ont des ETag différents.
+ */
+class NegotiateCbor
+{
+    /**
+     * Type MIME du format binaire
+     */
+    public const CONTENT_TYPE = 'application/cbor';
+
+    /**
+     * Traiter la requête
+     *
+     * @param Request $request
+     * @param Closure $next
+     * @return Response
+     */
+    public function handle(Request $request, Closure $next)
+    {
+        $response = $next($request);
+
+        if (!$response instanceof JsonResponse) {
+            // 304 sans corps, fichiers... : rien à convertir
+            if ($response->getStatusCode() === 304) {
+                $response->setVary('Accept', false);
+            }
+            return $response;
+        }
+
+        $response->setVary('Accept', false);
+
+        if (!self::acceptsCbor($request)) {
+            return $response;
+        }
+
+        // Objets décodés en stdClass : un objet vide ({}) reste une map CBOR
+        $cbor = new Response(
+            CborEncoder::encode($response->getData()),
+            $response->getStatusCode(),
+            $response->headers->all()
+        );
+        $cbor->headers->set('Content-Type', self::CONTENT_TYPE);
+        $cbor->headers->remove('Content-Length');
+
+        return $cbor;
+    }
+
+    /**
+     * ETag propre au format de la réponse (ex : "...-json", "...-cbor")
+     *
+     * @param Request $request
+     * @param string $etag ETag du contenu
+     * @return string
+     */
+    public static function etagFor(Request $request, string $etag): string
+    {
+        return $etag . '-' . (self::acceptsCbor($request) ? 'cbor' : 'json');
+    }
+
+    /**
+     * Le client accepte-t-il CBOR ?
+     *
+     * @param Request $request
+     * @return bool
+     */
+    private static function acceptsCbor(Request $request): bool
+    {
+        return in_array(self::CONTENT_TYPE, $request->getAcceptableContentTypes(), true);
+    }
+}
@@ -4,16 +4,36 @@ namespace App\Models;
 
 use Illuminate\Database\Eloquent\Factories\HasFactory;
 use Illuminate\Database\Eloquent\Model;
+use Illuminate\Database\Eloquent\SoftDeletes;
 
 /**
  * Modèle Caftan
  *
  * Représente un caftan dans l'application
  * Ce modèle gère les opérations sur la table 'caftans'
+ *
+ * Les suppressions sont logiques (deleted_at) : les clients qui se
+ * synchronisent par delta apprennent ainsi quels caftans ont disparu
  */
 class Caftan extends Model
 {
-    use HasFactory;
+    use HasFactory, SoftDeletes;
+
+    /**
+     * Dossier des images originales (dans public/)
+     */
+    public const IMAGE_DIRECTORY = 'image';
+
+    /**
+     * Variantes WebP générées par "php artisan images:variants"
+     * nom => plus grand côté en pixels
+     * - thumb : vignettes de liste (100dp jusqu'à xxxhdpi)
+     * - medium : écran de détails
+     */
+    public const IMAGE_VARIANTS = [
+        'thumb' => 400,
+        'medium' => 1080,
+    ];
 
     /**
      * Le nom de la table associée au modèle
@@ -36,6 +56,27 @@ class Caftan extends Model
         'availability'  // Disponibilité (true = disponible, false = loué)
     ];
 
+    /**
+     * Attributs calculés ajoutés au JSON
+     * null tant que la variante n'a pas été générée : le client garde alors image_url
+     *
+     * @var array
+     */
+    protected $appends = [
+        'image_thumb_url',
+        'image_medium_url',
+    ];
+
+    /**
+     * Les attributs cachés dans le JSON
+     * image_variants sert seulement à construire image_thumb_url et image_medium_url
+     *
+     * @var array
+     */
+    protected $hidden = [
+        'image_variants'
+    ];
+
     /**
      * Les attributs qui doivent être castés vers des types natifs
      *
@@ -43,7 +84,8 @@ class Caftan extends Model
      */
     protected $casts = [
         'price' => 'decimal:2',      // Prix avec 2 décimales
-        'availability' => 'boolean'  // Disponibilité en booléen
+        'availability' => 'boolean', // Disponibilité en booléen
+        'image_variants' => 'array'  // Variantes générées (images:variants)
     ];
 
     /**
@@ -88,5 +130,68 @@ class Caftan extends Model
         $this->availability = true;
         $this->save();
     }
-}
 
+    /**
+     * URL de la vignette WebP (attribut image_thumb_url)
+     *
+     * @return string|null
+     */
+    public function getImageThumbUrlAttribute()
+    {
+        return $this->variantUrl('thumb');
+    }
+
+    /**
+     * URL de l'image moyenne WebP (attribut image_medium_url)
+     *
+     * @return string|null
+     */
+    public function getImageMediumUrlAttribute()
+    {
+        return $this->variantUrl('medium');
+    }
+
+    /**
+     * Chemin sur disque d'une variante
+     * Ex : public/image/variants/thumb/01D2C2AC-....webp
+     *
+     * @param string $filename - Nom du fichier original
+     * @param string $variant - Clé de IMAGE_VARIANTS
+     * @return string
+     */
+    public static function variantPath(string $filename, string $variant): string
+    {
+        return public_path(self::IMAGE_DIRECTORY . '/variants/' . $variant . '/'
+            . pathinfo($filename, PATHINFO_FILENAME) . '.webp');
+    }
+
+    /**
+     * URL d'une variante, construite à partir de image_url
+     * (même hôte, même nom de fichier, extension .webp)
+     * Seules les variantes enregistrées dans image_variants sont annoncées :
+     * aucun accès disque pendant la sérialisation
+     *
+     * @param string $variant - Clé de IMAGE_VARIANTS
+     * @return string|null
+     */
+    private function variantUrl(string $variant)
+    {
+        $url = $this->image_url;
+        if (!in_array($variant, $this->image_variants ?? [], true)) {
+            return null;
+        }
+
+        $marker = '/' . self::IMAGE_DIRECTORY . '/';
+        $position = $url ? strrpos($url, $marker) : false;
+
+        // Image externe ou URL inattendue : pas de variante
+        if ($position === false) {
+            return null;
+        }
+
+        $filename = basename(parse_url($url, PHP_URL_PATH));
+
+        return substr($url, 0, $position) . $marker . 'variants/' . $variant . '/'
+            . pathinfo($filename, PATHINFO_FILENAME) . '.webp';
+    }
+}
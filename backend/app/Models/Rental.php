@@ -4,6 +4,8 @@ namespace App\Models;
 
 use Illuminate\Database\Eloquent\Factories\HasFactory;
 use Illuminate\Database\Eloquent\Model;
+use Illuminate\Support\Facades\Cache;
+use Illuminate\Support\Facades\DB;
 use Carbon\Carbon;
 
 /**
@@ -16,6 +18,16 @@ class Rental extends Model
 {
     use HasFactory;
 
+    /**
+     * Durée maximale d'une location en jours (même limite que l'application)
+     */
+    public const MAX_RENTAL_DAYS = 30;
+
+    /**
+     * Clé du cache de la fenêtre de recherche des chevauchements (overlapWindowDays)
+     */
+    private const OVERLAP_WINDOW_CACHE_KEY = 'rentals:overlap_window_days';
+
     /**
      * Le nom de la table associée au modèle
      * 
@@ -34,7 +46,17 @@ class Rental extends Model
         'caftan_id',      // ID du caftan loué
         'start_date',     // Date de début
         'end_date',       // Date de fin
-        'total_price'     // Prix total
+        'total_price',    // Prix total
+        'idempotency_key' // Clé d'idempotence du client (création rejouée)
+    ];
+
+    /**
+     * Les attributs cachés dans le JSON
+     *
+     * @var array
+     */
+    protected $hidden = [
+        'idempotency_key'
     ];
 
     /**
@@ -92,16 +114,97 @@ class Rental extends Model
     /**
      * Relation avec le caftan
      * Une location appartient à un caftan
+     * Inclut les caftans supprimés pour garder l'historique des locations complet
      * 
      * @return \Illuminate\Database\Eloquent\Relations\BelongsTo
      */
     public function caftan()
     {
-        return $this->belongsTo(Caftan::class);
+        return $this->belongsTo(Caftan::class)->withTrashed();
+    }
+
+    /**
+     * Scope : locations d'un caftan qui chevauchent une période
+     *
+     * Le jour de fin est le jour du retour : une nouvelle location peut
+     * commencer le jour où la précédente se termine (même règle que l'application).
+     * Deux périodes se chevauchent si start_date < $endDate ET end_date > $startDate.
+     * Une location enregistrée dure au plus overlapWindowDays() jours : celles
+     * qui finissent après $startDate commencent donc au plus tôt ce nombre de
+     * jours avant, ce qui borne la plage lue dans l'index (caftan_id, start_date, end_date).
+     *
+     * @param \Illuminate\Database\Eloquent\Builder $query
+     * @param int $caftanId ID du caftan
+     * @param string $startDate Date de début demandée (Y-m-d)
+     * @param string $endDate Date de fin demandée (Y-m-d)
+     * @return \Illuminate\Database\Eloquent\Builder
+     */
+    public function scopeOverlapping($query, $caftanId, $startDate, $endDate)
+    {
+        return $query->where('caftan_id', $caftanId)
+            ->where('start_date', '>=', self::earliestOverlappingStart($startDate))
+            ->where('start_date', '<', $endDate)
+            ->where('end_date', '>', $startDate);
+    }
+
+    /**
+     * Début le plus ancien d'une location qui peut encore chevaucher $startDate
+     *
+     * @param string $startDate Date de début demandée (Y-m-d)
+     * @return string Y-m-d
+     */
+    public static function earliestOverlappingStart($startDate)
+    {
+        return Carbon::parse($startDate)->subDays(self::overlapWindowDays())->toDateString();
+    }
+
+    /**
+     * Durée de la plus longue location enregistrée, au moins MAX_RENTAL_DAYS
+     *
+     * Les locations créées avant la limite MAX_RENTAL_DAYS peuvent être plus
+     * longues : la fenêtre est calculée une fois depuis la table, puis gardée
+     * en cache. Les nouvelles locations sont limitées à MAX_RENTAL_DAYS jours,
+     * elles ne peuvent donc pas l'agrandir ; une suppression la laisse
+     * seulement un peu plus large que nécessaire.
+     *
+     * @return int
+     */
+    public static function overlapWindowDays()
+    {
+        return Cache::rememberForever(self::OVERLAP_WINDOW_CACHE_KEY, function () {
+            return max(self::MAX_RENTAL_DAYS, self::longestStoredDays());
+        });
+    }
+
+    /**
+     * Durée (fin - début, en jours) de la plus longue location de la table
+     *
+     * @return int 0 si la table est vide
+     */
+    private static function longestStoredDays()
+    {
+        // Différence de dates propre à chaque base de données
+        switch (DB::connection()->getDriverName()) {
+            case 'sqlite':
+                $days = 'julianday(end_date) - julianday(start_date)';
+                break;
+            case 'pgsql':
+                $days = 'end_date - start_date';
+                break;
+            case 'sqlsrv':
+                $days = 'DATEDIFF(day, start_date, end_date)';
+                break;
+            default:
+                $days = 'DATEDIFF(end_date, start_date)';
+        }
+
+        return (int) ceil((float) static::query()->selectRaw('MAX(' . $days . ') as longest')->value('longest'));
     }
 
     /**
      * Calculer le nombre de jours de location
+     * Le jour de fin est facturé (début et fin inclus) ; pour la disponibilité,
+     * il reste le jour du retour (voir scopeOverlapping)
      * 
      * @return int
      */
@@ -112,15 +215,17 @@ class Rental extends Model
     }
 
     /**
-     * Calculer le prix total de la location
-     * Basé sur le prix par jour du caftan et le nombre de jours
-     * 
+     * Calculer le prix total avant de créer la location
+     * Même règle que getDurationInDays() : (fin - début + 1) jours × prix par jour
+     *
+     * @param string $startDate Date de début (Y-m-d)
+     * @param string $endDate Date de fin (Y-m-d)
      * @param float $pricePerDay Prix par jour du caftan
      * @return float
      */
-    public function calculateTotalPrice($pricePerDay)
+    public static function totalPriceFor($startDate, $endDate, $pricePerDay)
     {
-        $days = $this->getDurationInDays();
+        $days = Carbon::parse($startDate)->diffInDays(Carbon::parse($endDate)) + 1;
         return $days * $pricePerDay;
     }
 }
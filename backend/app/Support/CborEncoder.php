@@ -0,0 +1,127 @@
+<?php
+
+namespace App\Support;
+
+/**
+ * Encodeur CBOR (RFC 8949) minimal
+ *
+ * Convertit les données d'une réponse JSON (tableaux, chaînes, nombres,
+ * booléens, null) en CBOR, un format binaire plus compact et plus rapide à
+ * décoder sur mobile. Seules des longueurs définies sont produites.
+ *
+ * Correspondance :
+ * - liste PHP (clés 0..n-1)  -> tableau CBOR (type majeur 4)
+ * - tableau associatif       -> map CBOR (type majeur 5), clés en texte
+ * - objet (stdClass...)      -> map CBOR, même vide ou avec des clés 0..n-1
+ * - chaîne UTF-8             -> texte (type majeur 3), sinon octets (type majeur 2)
+ * - entier                   -> type majeur 0 (positif) ou 1 (négatif)
+ * - flottant                 -> double précision (0xfb)
+ */
+class CborEncoder
+{
+    private const MAJOR_UNSIGNED = 0;
+    private const MAJOR_NEGATIVE = 1;
+    private const MAJOR_BYTES = 2;
+    private const MAJOR_TEXT = 3;
+    private const MAJOR_ARRAY = 4;
+    private const MAJOR_MAP = 5;
+
+    /**
+     * Encoder une valeur
+     *
+     * @param mixed $value Données décodées d'une réponse JSON
+     * @return string Octets CBOR
+     */
+    public static function encode($value): string
+    {
+        if ($value === null) {
+            return "\xf6";
+        }
+        if ($value === false) {
+            return "\xf4";
+        }
+        if ($value === true) {
+            return "\xf5";
+        }
+        if (is_int($value)) {
+            return $value >= 0
+                ? self::head(self::MAJOR_UNSIGNED, $value)
+                : self::head(self::MAJOR_NEGATIVE, -1 - $value);
+        }
+        if (is_float($value)) {
+            return "\xfb" . pack('E', $value);
+        }
+        if (is_string($value)) {
+            $major = mb_check_encoding($value, 'UTF-8') ? self::MAJOR_TEXT : self::MAJOR_BYTES;
+            return self::head($major, strlen($value)) . $value;
+        }
+        if ($value instanceof \JsonSerializable) {
+            return self::encode($value->jsonSerialize());
+        }
+        if (is_object($value)) {
+            // Un objet JSON reste une map : {} ne devient pas []
+            return self::encodeMap(get_object_vars($value));
+        }
+        if (is_array($value)) {
+            return array_is_list($value) ? self::encodeList($value) : self::encodeMap($value);
+        }
+
+        // Type non représentable (ressource...) : même choix que json_encode partiel
+        return "\xf6";
+    }
+
+    /**
+     * @param array $list
+     * @return string
+     */
+    private static function encodeList(array $list): string
+    {
+        $out = self::head(self::MAJOR_ARRAY, count($list));
+        foreach ($list as $item) {
+            $out .= self::encode($item);
+        }
+        return $out;
+    }
+
+    /**
+     * @param array $map
+     * @return string
+     */
+    private static function encodeMap(array $map): string
+    {
+        $out = self::head(self::MAJOR_MAP, count($map));
+        foreach ($map as $key => $item) {
+            // Clés toujours en texte, comme en JSON
+            $key = (string) $key;
+            $out .= self::head(self::MAJOR_TEXT, strlen($key)) . $key;
+            $out .= self::encode($item);
+        }
+        return $out;
+    }
+
+    /**
+     * En-tête d'un élément : type majeur + argument (longueur ou valeur)
+     *
+     * @param int $major Type majeur (0 à 7)
+     * @param int $argument Valeur positive
+     * @return string
+     */
+    private static function head(int $major, int $argument): string
+    {
+        $type = $major << 5;
+
+        if ($argument < 24) {
+            return chr($type | $argument);
+        }
+        if ($argument <= 0xff) {
+            return chr($type | 24) . chr($argument);
+        }
+        if ($argument <= 0xffff) {
+            return chr($type | 25) . pack('n', $argument);
+        }
+        if ($argument <= 0xffffffff) {
+            return chr($type | 26) . pack('N', $argument);
+        }
+        return chr($type | 27) . pack('J', $argument);
+    }
+}
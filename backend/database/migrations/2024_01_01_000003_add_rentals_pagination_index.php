@@ -0,0 +1,31 @@
+<?php
+
+use Illuminate\Database\Migrations\Migration;
+use Illuminate\Database\Schema\Blueprint;
+use Illuminate\Support\Facades\Schema;
+
+return new class extends Migration
+{
+    /**
+     * Run the migrations.
+     *
+     * Index pour la pagination par curseur de GET /api/rentals
+     * (ORDER BY created_at DESC, id DESC)
+     */
+    public function up(): void
+    {
+        Schema::table('rentals', function (Blueprint $table) {
+            $table->index(['created_at', 'id'], 'rentals_created_at_id_index');
+        });
+    }
+
+    /**
+     * Reverse the migrations.
+     */
+    public function down(): void
+    {
+        Schema::table('rentals', function (Blueprint $table) {
+            $table->dropIndex('rentals_created_at_id_index');
+        });
+    }
+};
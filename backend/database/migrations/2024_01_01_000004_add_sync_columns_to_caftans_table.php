@@ -0,0 +1,36 @@
+<?php
+
+use Illuminate\Database\Migrations\Migration;
+use Illuminate\Database\Schema\Blueprint;
+use Illuminate\Support\Facades\Schema;
+
+return new class extends Migration
+{
+    /**
+     * Run the migrations.
+     *
+     * Colonnes pour la synchronisation incrémentale (GET /api/caftans?since=) :
+     * - deleted_at : suppression logique, sert de "tombstone" pour les clients
+     * - index sur updated_at et deleted_at pour trouver rapidement les changements
+     */
+    public function up(): void
+    {
+        Schema::table('caftans', function (Blueprint $table) {
+            $table->softDeletes();
+            $table->index('updated_at', 'caftans_updated_at_index');
+            $table->index('deleted_at', 'caftans_deleted_at_index');
+        });
+    }
+
+    /**
+     * Reverse the migrations.
+     */
+    public function down(): void
+    {
+        Schema::table('caftans', function (Blueprint $table) {
+            $table->dropIndex('caftans_updated_at_index');
+            $table->dropIndex('caftans_deleted_at_index');
+            $table->dropSoftDeletes();
+        });
+    }
+};
@@ -0,0 +1,32 @@
+<?php
+
+use Illuminate\Database\Migrations\Migration;
+use Illuminate\Database\Schema\Blueprint;
+use Illuminate\Support\Facades\Schema;
+
+return new class extends Migration
+{
+    /**
+     * Run the migrations.
+     *
+     * Index pour la vérification de disponibilité de POST /api/rentals
+     * (WHERE caftan_id = ? AND start_date < ? AND end_date > ?)
+     * end_date est dans l'index : la requête est résolue sans lire les lignes
+     */
+    public function up(): void
+    {
+        Schema::table('rentals', function (Blueprint $table) {
+            $table->index(['caftan_id', 'start_date', 'end_date'], 'rentals_caftan_dates_index');
+        });
+    }
+
+    /**
+     * Reverse the migrations.
+     */
+    public function down(): void
+    {
+        Schema::table('rentals', function (Blueprint $table) {
+            $table->dropIndex('rentals_caftan_dates_index');
+        });
+    }
+};
@@ -0,0 +1,33 @@
+<?php
+
+use Illuminate\Database\Migrations\Migration;
+use Illuminate\Database\Schema\Blueprint;
+use Illuminate\Support\Facades\Schema;
+
+return new class extends Migration
+{
+    /**
+     * Run the migrations.
+     *
+     * Clé d'idempotence fournie par le client pour chaque création :
+     * une création rejouée (file d'attente hors ligne, réponse perdue)
+     * retrouve la location déjà créée au lieu d'en créer une deuxième
+     */
+    public function up(): void
+    {
+        Schema::table('rentals', function (Blueprint $table) {
+            $table->string('idempotency_key', 64)->nullable()->unique()->after('total_price');
+        });
+    }
+
+    /**
+     * Reverse the migrations.
+     */
+    public function down(): void
+    {
+        Schema::table('rentals', function (Blueprint $table) {
+            $table->dropUnique(['idempotency_key']);
+            $table->dropColumn('idempotency_key');
+        });
+    }
+};
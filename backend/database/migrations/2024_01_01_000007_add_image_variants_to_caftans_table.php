@@ -0,0 +1,32 @@
+<?php
+
+use Illuminate\Database\Migrations\Migration;
+use Illuminate\Database\Schema\Blueprint;
+use Illuminate\Support\Facades\Schema;
+
+return new class extends Migration
+{
+    /**
+     * Run the migrations.
+     *
+     * Variantes WebP déjà générées pour l'image du caftan (ex : ["thumb","medium"]),
+     * écrites par "php artisan images:variants" : la sérialisation d'un caftan
+     * construit les URL des variantes sans consulter le disque
+     */
+    public function up(): void
+    {
+        Schema::table('caftans', function (Blueprint $table) {
+            $table->json('image_variants')->nullable()->after('image_url');
+        });
+    }
+
+    /**
+     * Reverse the migrations.
+     */
+    public function down(): void
+    {
+        Schema::table('caftans', function (Blueprint $table) {
+            $table->dropColumn('image_variants');
+        });
+    }
+};
@@ -33,6 +33,9 @@ Route::get('/caftans', [CaftanController::class, 'index']);
 // GET /api/caftans/{id} - Récupérer un caftan spécifique
 Route::get('/caftans/{id}', [CaftanController::class, 'show']);
 
+// GET /api/caftans/{id}/availability - Jours réservés d'un caftan (bitset)
+Route::get('/caftans/{id}/availability', [CaftanController::class, 'availability']);
+
 /*
 |--------------------------------------------------------------------------
 | Rental Routes - Gestion des locations
@@ -40,7 +43,17 @@ Route::get('/caftans/{id}', [CaftanController::class, 'show']);
 */
 
 // POST /api/rentals - Créer une nouvelle location
-Route::post('/rentals', [RentalController::class, 'store']);
+// (en-tête Idempotency-Key : un nouvel essai reçoit la première réponse)
+Route::post('/rentals', [RentalController::class, 'store'])->middleware('idempotent');
+
+// POST /api/rentals/replay - Rejouer les créations/suppressions faites hors ligne
+Route::post('/rentals/replay', [RentalController::class, 'replay']);
+
+// POST /api/rentals/batch - Créer plusieurs locations (un résultat par location)
+Route::post('/rentals/batch', [RentalController::class, 'storeBatch'])->middleware('idempotent');
+
+// DELETE /api/rentals/batch - Supprimer plusieurs locations (déclarée avant /rentals/{id})
+Route::delete('/rentals/batch', [RentalController::class, 'destroyBatch']);
 
 // GET /api/rentals - Récupérer toutes les locations
 Route::get('/rentals', [RentalController::class, 'index']);